@@ -0,0 +1,199 @@
+package com.knrhenry.wordsearch;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over a fixed set of patterns. The transitions are completed into a DFA, so
+ * feeding a character is a single table lookup, and every pattern ending at a position is found by
+ * following the match links of the current state.
+ */
+final class AhoCorasick {
+  /** State the automaton starts in. */
+  static final int ROOT = 0;
+
+  /** Largest transition table built, in entries; 128 MB of ints. */
+  static final int MAX_TABLE_SIZE = 1 << 25;
+
+  /** Character class of every character that does not occur in a pattern. */
+  private static final int OTHER = 0;
+
+  /** Character class of each character up to the highest pattern character. */
+  private final int[] classOf;
+
+  /** Number of character classes, including {@code OTHER}. */
+  private final int classes;
+
+  /** Transition table, indexed by state times {@code classes} plus character class. */
+  private final int[] next;
+
+  /** Pattern ending exactly at each state, or -1. */
+  private final int[] match;
+
+  /** Nearest proper suffix state with a pattern ending at it, or -1. */
+  private final int[] matchLink;
+
+  /** Length of each pattern. */
+  private final int[] lengths;
+
+  /** Length of the longest pattern. */
+  private final int maxLength;
+
+  /**
+   * Builds the automaton.
+   *
+   * @param patterns the distinct patterns; pattern ids are their list indexes, and an empty pattern
+   *     is left out of the trie, so it never matches
+   * @throws IllegalArgumentException if the transition table would exceed {@link #MAX_TABLE_SIZE}
+   */
+  AhoCorasick(List<String> patterns) {
+    char maxChar = 0;
+    int letters = 0;
+    for (String pattern : patterns) {
+      letters += pattern.length();
+      for (int i = 0; i < pattern.length(); i++) {
+        maxChar = (char) Math.max(maxChar, pattern.charAt(i));
+      }
+    }
+    classOf = new int[maxChar + 1];
+    int classCount = 1;
+    for (String pattern : patterns) {
+      for (int i = 0; i < pattern.length(); i++) {
+        if (classOf[pattern.charAt(i)] == OTHER) {
+          classOf[pattern.charAt(i)] = classCount++;
+        }
+      }
+    }
+    classes = classCount;
+    int maxStates = letters + 1;
+    if ((long) maxStates * classes > MAX_TABLE_SIZE) {
+      throw new IllegalArgumentException("Word list exceeds the size the solver can search.");
+    }
+    next = new int[maxStates * classes];
+    Arrays.fill(next, -1);
+    match = new int[maxStates];
+    Arrays.fill(match, -1);
+    lengths = new int[patterns.size()];
+    int states = 1;
+    int longest = 0;
+    for (int id = 0; id < patterns.size(); id++) {
+      String pattern = patterns.get(id);
+      lengths[id] = pattern.length();
+      if (pattern.isEmpty()) {
+        continue;
+      }
+      longest = Math.max(longest, pattern.length());
+      int state = ROOT;
+      for (int i = 0; i < pattern.length(); i++) {
+        int edge = state * classes + classOf[pattern.charAt(i)];
+        if (next[edge] < 0) {
+          next[edge] = states++;
+        }
+        state = next[edge];
+      }
+      match[state] = id;
+    }
+    maxLength = longest;
+    matchLink = new int[states];
+    buildLinks(states);
+  }
+
+  /**
+   * Completes the trie into a DFA in breadth-first order, deriving the failure and match links.
+   *
+   * @param states number of trie states
+   */
+  private void buildLinks(int states) {
+    int[] fail = new int[states];
+    int[] queue = new int[states];
+    int head = 0;
+    int tail = 0;
+    matchLink[ROOT] = -1;
+    for (int c = 0; c < classes; c++) {
+      int child = next[c];
+      if (child < 0) {
+        next[c] = ROOT;
+      } else {
+        fail[child] = ROOT;
+        matchLink[child] = -1;
+        queue[tail++] = child;
+      }
+    }
+    while (head < tail) {
+      int state = queue[head++];
+      for (int c = 0; c < classes; c++) {
+        int edge = state * classes + c;
+        int child = next[edge];
+        int fallback = next[fail[state] * classes + c];
+        if (child < 0) {
+          next[edge] = fallback;
+        } else {
+          fail[child] = fallback;
+          matchLink[child] = match[fallback] >= 0 ? fallback : matchLink[fallback];
+          queue[tail++] = child;
+        }
+      }
+    }
+  }
+
+  /**
+   * Feeds one character to the automaton.
+   *
+   * @param state the current state
+   * @param c the next character
+   * @return the new state
+   */
+  int step(int state, char c) {
+    int charClass = c < classOf.length ? classOf[c] : OTHER;
+    return next[state * classes + charClass];
+  }
+
+  /**
+   * Returns the first state, along the match links, at which a pattern ends.
+   *
+   * @param state the current state
+   * @return a state with a pattern ending at it, or -1 if no pattern ends here
+   */
+  int firstMatch(int state) {
+    return match[state] >= 0 ? state : matchLink[state];
+  }
+
+  /**
+   * Returns the next state, along the match links, at which a shorter pattern ends.
+   *
+   * @param matchState a state returned by {@link #firstMatch(int)} or this method
+   * @return the next state with a pattern ending at it, or -1
+   */
+  int nextMatch(int matchState) {
+    return matchLink[matchState];
+  }
+
+  /**
+   * Returns the pattern ending at a match state.
+   *
+   * @param matchState a state returned by {@link #firstMatch(int)} or {@link #nextMatch(int)}
+   * @return the pattern id
+   */
+  int pattern(int matchState) {
+    return match[matchState];
+  }
+
+  /**
+   * Returns the length of a pattern.
+   *
+   * @param pattern the pattern id
+   * @return the number of characters in the pattern
+   */
+  int length(int pattern) {
+    return lengths[pattern];
+  }
+
+  /**
+   * Returns the length of the longest pattern.
+   *
+   * @return the number of characters in the longest pattern
+   */
+  int maxLength() {
+    return maxLength;
+  }
+}
@@ -0,0 +1,141 @@
+package com.knrhenry.wordsearch;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Letters a puzzle is built from. Grid cells hold the index of their letter in the alphabet, so a
+ * cell takes one byte whatever script its letter comes from. Each alphabet also carries the letter
+ * frequencies of its language, which the frequency-weighted filler draws from.
+ */
+public enum Alphabet {
+  /** The letters A to Z, weighted as in English text. */
+  LATIN(
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZ",
+      Locale.ENGLISH,
+      new int[] {
+        817, 149, 278, 425, 1270, 223, 202, 609, 697, 15, 77, 403, 241, 675, 751, 193, 10, 599, 633,
+        906, 276, 98, 236, 15, 197, 7
+      }),
+
+  /** The letters A to Z and Ñ, weighted as in Spanish text. */
+  SPANISH(
+      "ABCDEFGHIJKLMNÑOPQRSTUVWXYZ",
+      Locale.forLanguageTag("es"),
+      new int[] {
+        1153, 222, 402, 501, 1218, 69, 177, 70, 625, 49, 1, 497, 316, 671, 31, 868, 251, 88, 687,
+        798, 463, 293, 114, 2, 22, 101, 47
+      }),
+
+  /** The letters A to Z and the umlauts, weighted as in German text. */
+  GERMAN(
+      "ABCDEFGHIJKLMNOPQRSTUVWXYZÄÖÜ",
+      Locale.GERMAN,
+      new int[] {
+        652, 189, 273, 508, 1640, 166, 301, 458, 655, 27, 142, 344, 253, 978, 259, 67, 2, 700, 727,
+        615, 417, 85, 192, 3, 4, 113, 58, 44, 100
+      }),
+
+  /** The 24 upper-case Greek letters, weighted as in Greek text. */
+  GREEK(
+      "ΑΒΓΔΕΖΗΘΙΚΛΜΝΞΟΠΡΣΤΥΦΧΨΩ",
+      Locale.forLanguageTag("el"),
+      new int[] {
+        1200, 80, 180, 180, 800, 50, 440, 140, 790, 420, 280, 340, 670, 60, 990, 430, 470, 820, 830,
+        420, 80, 120, 20, 190
+      });
+
+  /** The letters, in index order. */
+  private final String letters;
+
+  /** Locale used to upper-case words. */
+  private final Locale locale;
+
+  /** Relative frequency of each letter, in hundredths of a percent. */
+  private final int[] weights;
+
+  /** Index of each character up to the highest letter, or -1 if it is not a letter. */
+  private final byte[] indexes;
+
+  Alphabet(String letters, Locale locale, int[] weights) {
+    this.letters = letters;
+    this.locale = locale;
+    this.weights = weights;
+    char highest = 0;
+    for (int i = 0; i < letters.length(); i++) {
+      highest = (char) Math.max(highest, letters.charAt(i));
+    }
+    this.indexes = new byte[highest + 1];
+    Arrays.fill(indexes, (byte) -1);
+    for (int i = 0; i < letters.length(); i++) {
+      indexes[letters.charAt(i)] = (byte) i;
+    }
+  }
+
+  /**
+   * Returns the number of letters.
+   *
+   * @return the alphabet size
+   */
+  public int size() {
+    return letters.length();
+  }
+
+  /**
+   * Returns the letter at an index.
+   *
+   * @param index the letter index
+   * @return the upper-case letter
+   */
+  public char letter(int index) {
+    return letters.charAt(index);
+  }
+
+  /**
+   * Returns the index of a letter.
+   *
+   * @param letter the upper-case letter
+   * @return the letter index, or -1 if the letter is not in the alphabet
+   */
+  public int indexOf(char letter) {
+    return letter < indexes.length ? indexes[letter] : -1;
+  }
+
+  /**
+   * Returns the relative frequency of a letter in the language of the alphabet.
+   *
+   * @param index the letter index
+   * @return the frequency, in hundredths of a percent
+   */
+  int weight(int index) {
+    return weights[index];
+  }
+
+  /**
+   * Converts a word to the letters of the alphabet. The word is upper-cased in the language of the
+   * alphabet, accented letters the alphabet lacks lose their accents, and spaces, hyphens and other
+   * characters that are not letters or digits are dropped.
+   *
+   * @param word the word as entered
+   * @return the word in alphabet letters, or null if it has a letter or digit the alphabet cannot
+   *     represent
+   */
+  String normalize(String word) {
+    String upper = Normalizer.normalize(word, Normalizer.Form.NFC).toUpperCase(locale);
+    StringBuilder normalized = new StringBuilder(upper.length());
+    for (int i = 0; i < upper.length(); i++) {
+      char c = upper.charAt(i);
+      if (indexOf(c) < 0) {
+        // Decomposing a letter puts its base letter first, followed by its accents.
+        c = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD).charAt(0);
+      }
+      if (indexOf(c) >= 0) {
+        normalized.append(c);
+      } else if (Character.isLetterOrDigit(c) || Character.isSurrogate(c)) {
+        return null;
+      }
+    }
+    return normalized.toString();
+  }
+}
@@ -0,0 +1,90 @@
+package com.knrhenry.wordsearch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Places words using most-constrained-first ordering and bounded backtracking. At each step the
+ * unplaced word with the fewest legal placements is placed next, and a dead end undoes the most
+ * recent placements instead of throwing away the whole grid.
+ */
+class BacktrackingPlacer {
+  /** Maximum number of placements tried before the search gives up. */
+  static final int MAX_STEPS = 1000;
+
+  /**
+   * Number of legal placements above which a word counts as unconstrained. Counting stops there,
+   * and unconstrained words are placed longest first.
+   */
+  static final int CONSTRAINED_LIMIT = 64;
+
+  /** The puzzle whose grid is being filled. */
+  private final WordSearch wordSearch;
+
+  /** Number of placements tried so far. */
+  private int steps;
+
+  BacktrackingPlacer(WordSearch wordSearch) {
+    this.wordSearch = wordSearch;
+  }
+
+  /**
+   * Places all words in the grid.
+   *
+   * @param words the compiled upper-case words to place
+   * @throws WordSearchException if the words could not be placed within {@code MAX_STEPS}
+   */
+  void placeAll(List<LetterGrid.Word> words) throws WordSearchException {
+    steps = 0;
+    if (!search(new ArrayList<>(words))) {
+      String msg =
+          String.format("Error: Could not place all words in the grid after %d placements.", steps);
+      throw new WordSearchException(msg);
+    }
+  }
+
+  /**
+   * Places the remaining words, undoing placements that lead to a dead end.
+   *
+   * @param remaining the words still to place; restored to its original content on failure
+   * @return true if every remaining word was placed
+   */
+  private boolean search(List<LetterGrid.Word> remaining) {
+    if (remaining.isEmpty()) {
+      return true;
+    }
+    int bestIndex = -1;
+    int bestCount = CONSTRAINED_LIMIT;
+    for (int i = 0; i < remaining.size(); i++) {
+      LetterGrid.Word word = remaining.get(i);
+      int count = wordSearch.countCandidates(word, bestCount);
+      if (count == 0) {
+        return false;
+      }
+      if (bestIndex < 0
+          || count < bestCount
+          || count == bestCount && word.length() > remaining.get(bestIndex).length()) {
+        bestCount = count;
+        bestIndex = i;
+      }
+    }
+    LetterGrid.Word word = remaining.remove(bestIndex);
+    for (int slot : wordSearch.shuffledSlots(word)) {
+      if (steps >= MAX_STEPS) {
+        break;
+      }
+      wordSearch.checkCancelled();
+      if (!wordSearch.canPlace(word, slot)) {
+        continue;
+      }
+      steps++;
+      wordSearch.placeWord(word, slot);
+      if (search(remaining)) {
+        return true;
+      }
+      wordSearch.removeWord(word, slot);
+    }
+    remaining.add(bestIndex, word);
+    return false;
+  }
+}
@@ -0,0 +1,119 @@
+package com.knrhenry.wordsearch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Strings the random filler must never spell in any direction. The entries are compiled once into
+ * an automaton that is shared by every puzzle generated with the blocklist, so checking a filler
+ * letter costs the same however many entries there are.
+ */
+public final class Blocklist {
+  /** Classpath resource holding the default entries. */
+  private static final String DEFAULT_RESOURCE = "/blocklist.txt";
+
+  /** Automaton over the entries, or null if there are none. */
+  private final AhoCorasick automaton;
+
+  /** Number of distinct entries. */
+  private final int size;
+
+  private Blocklist(Set<String> entries) {
+    this.automaton = entries.isEmpty() ? null : new AhoCorasick(new ArrayList<>(entries));
+    this.size = entries.size();
+  }
+
+  /**
+   * Creates a blocklist from the given entries, ignoring case and blank entries.
+   *
+   * @param entries the strings to block
+   * @return the blocklist
+   */
+  public static Blocklist of(Collection<String> entries) {
+    Set<String> distinct = new LinkedHashSet<>();
+    for (String entry : entries) {
+      String trimmed = entry.trim();
+      if (!trimmed.isEmpty()) {
+        distinct.add(trimmed.toUpperCase(Locale.ROOT));
+      }
+    }
+    return new Blocklist(distinct);
+  }
+
+  /**
+   * Reads a blocklist with one entry per line. Blank lines and lines starting with {@code #} are
+   * skipped.
+   *
+   * @param input the UTF-8 encoded entries
+   * @return the blocklist
+   * @throws IOException if the entries cannot be read
+   */
+  public static Blocklist load(InputStream input) throws IOException {
+    List<String> entries = new ArrayList<>();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.startsWith("#")) {
+          entries.add(line);
+        }
+      }
+    }
+    return of(entries);
+  }
+
+  /**
+   * Returns the built-in blocklist, loaded once from the classpath.
+   *
+   * @return the default blocklist
+   * @throws UncheckedIOException if the built-in list is missing from the classpath or unreadable
+   */
+  public static Blocklist defaults() {
+    return DefaultHolder.DEFAULT;
+  }
+
+  /**
+   * Returns the number of distinct entries.
+   *
+   * @return the entry count
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the automaton over the entries.
+   *
+   * @return the automaton, or null if the blocklist is empty
+   */
+  AhoCorasick automaton() {
+    return automaton;
+  }
+
+  /** Loads the default blocklist on first use. */
+  private static final class DefaultHolder {
+    private static final Blocklist DEFAULT = loadDefault();
+
+    private static Blocklist loadDefault() {
+      try (InputStream input = Blocklist.class.getResourceAsStream(DEFAULT_RESOURCE)) {
+        if (input == null) {
+          // Filling without the list would quietly let the filler spell blocked strings.
+          throw new IOException("Missing blocklist resource " + DEFAULT_RESOURCE);
+        }
+        return load(input);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read the default blocklist.", e);
+      }
+    }
+  }
+}
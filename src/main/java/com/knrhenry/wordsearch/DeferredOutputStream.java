@@ -0,0 +1,83 @@
+package com.knrhenry.wordsearch;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Output stream that holds back the first bytes of a streamed document. While no more than {@link
+ * #BUFFER_SIZE} bytes have been written nothing has reached the response, so a failing document can
+ * still be answered with an error; past that the held bytes and everything after them are passed
+ * straight through.
+ */
+final class DeferredOutputStream extends OutputStream {
+  /** Number of bytes held back before the response is committed. */
+  static final int BUFFER_SIZE = 64 * 1024;
+
+  private final OutputStream out;
+
+  /** Bytes held back, or null once they have been passed on. */
+  private ByteArrayOutputStream buffer = new ByteArrayOutputStream(8 * 1024);
+
+  /**
+   * Creates a stream holding back the first bytes written to another.
+   *
+   * @param out the stream the bytes are passed on to; it is left open
+   */
+  DeferredOutputStream(OutputStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public void write(int b) throws IOException {
+    write(new byte[] {(byte) b}, 0, 1);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) throws IOException {
+    if (buffer != null && buffer.size() + len > BUFFER_SIZE) {
+      commit();
+    }
+    if (buffer == null) {
+      out.write(b, off, len);
+    } else {
+      buffer.write(b, off, len);
+    }
+  }
+
+  /** Flushes the underlying stream once bytes have been passed on; held bytes stay held. */
+  @Override
+  public void flush() throws IOException {
+    if (buffer == null) {
+      out.flush();
+    }
+  }
+
+  /**
+   * Passes on any bytes still held back and flushes the underlying stream. Call once the document
+   * is complete.
+   *
+   * @throws IOException if writing fails
+   */
+  void finish() throws IOException {
+    if (buffer != null) {
+      commit();
+    }
+    out.flush();
+  }
+
+  /**
+   * Tells whether bytes have reached the underlying stream, after which a failure can no longer be
+   * answered with an error response.
+   *
+   * @return true once the held bytes have been passed on
+   */
+  boolean isCommitted() {
+    return buffer == null;
+  }
+
+  private void commit() throws IOException {
+    buffer.writeTo(out);
+    buffer = null;
+  }
+}
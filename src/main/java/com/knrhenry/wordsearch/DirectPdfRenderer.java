@@ -0,0 +1,857 @@
+package com.knrhenry.wordsearch;
+
+import com.knrhenry.wordsearch.PdfLayout.FontMeasure;
+import com.knrhenry.wordsearch.PdfLayout.GridPage;
+import com.knrhenry.wordsearch.PdfLayout.Page;
+import com.knrhenry.wordsearch.PdfLayout.PageGeometry;
+import com.knrhenry.wordsearch.PdfLayout.PageKind;
+import com.knrhenry.wordsearch.PdfLayout.PuzzleLayout;
+import com.knrhenry.wordsearch.PdfLayout.TemplateKey;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes puzzles set in the Standard 14 fonts straight to the output stream, without a PDF library.
+ * Objects are written as soon as they are complete and their byte offsets are counted on the way,
+ * so the cross-reference table needs no second pass; only the content of the page being drawn is
+ * buffered. Linearized documents are the exception: they are assembled in memory, as their first
+ * bytes give the positions of later ones. Documents that need the bundled Unicode fonts, or whose
+ * footer is not plain ASCII, are handed to another renderer, since embedding font subsets is what a
+ * PDF library is for.
+ */
+final class DirectPdfRenderer implements PdfRenderer {
+  /** Renderer of the documents this one cannot write. */
+  private final PdfRenderer fallback;
+
+  /**
+   * Creates a renderer.
+   *
+   * @param fallback renderer of documents that need fonts beyond the Standard 14
+   */
+  DirectPdfRenderer(PdfRenderer fallback) {
+    this.fallback = fallback;
+  }
+
+  @Override
+  public void writeBook(
+      List<WordSearch> puzzles,
+      boolean answers,
+      String footerUrl,
+      PdfOptions options,
+      OutputStream out,
+      Executor pool)
+      throws IOException {
+    if (PdfLayout.needsUnicode(puzzles, footerUrl) || !isAscii(footerUrl)) {
+      fallback.writeBook(puzzles, answers, footerUrl, options, out, pool);
+      return;
+    }
+    boolean labelled = puzzles.size() > 1 || answers;
+    List<CompletableFuture<PuzzleLayout>> layouts =
+        PdfLayout.layOut(puzzles, answers, options, StandardFont.BOLD, StandardFont.GRID, pool);
+    DocumentWriter writer =
+        options.isLinearized()
+            ? new LinearizedWriter(out, footerUrl, options.isGridLines())
+            : new StreamingWriter(out, footerUrl, options.isGridLines());
+    writer.begin();
+    for (int i = 0; i < layouts.size(); i++) {
+      String label = labelled ? "Puzzle " + (i + 1) : null;
+      writer.write(PdfLayout.pages(PdfLayout.join(layouts.get(i)), label, false));
+    }
+    if (answers) {
+      for (int i = 0; i < layouts.size(); i++) {
+        String label = "Answers " + (i + 1);
+        writer.write(PdfLayout.pages(PdfLayout.join(layouts.get(i)), label, true));
+      }
+    }
+    writer.finish();
+  }
+
+  /**
+   * Checks whether text is printable ASCII, the range the built-in width tables cover.
+   *
+   * @param text the text, or null
+   * @return true if the text is null or printable ASCII
+   */
+  private static boolean isAscii(String text) {
+    if (text == null) {
+      return true;
+    }
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c < ' ' || c > '~') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * The Standard 14 fonts the pages use, with their Adobe font metrics. Only text that is measured
+   * needs widths: the fixed headers and labels, and the footer, which must be ASCII. Word list
+   * lines are left aligned, and Courier gives every grid letter the same width.
+   */
+  enum StandardFont implements FontMeasure {
+    /** Font of the header and word list title. */
+    BOLD("Helvetica-Bold", "F1", 718, 718, HelveticaWidths.BOLD),
+
+    /** Font of the word list, page labels and part notes. */
+    TEXT("Helvetica", "F2", 718, 718, HelveticaWidths.REGULAR),
+
+    /** Font of the grid letters. */
+    GRID("Courier-Bold", "F3", 629, 562, null),
+
+    /** Font of the footer URL; oblique Helvetica has the widths of the upright one. */
+    FOOTER("Helvetica-Oblique", "F4", 718, 718, HelveticaWidths.REGULAR);
+
+    /** Width of every Courier glyph. */
+    private static final float COURIER_WIDTH = 600;
+
+    /** PostScript name of the font. */
+    private final String baseFont;
+
+    /** Name of the font in the resource dictionary. */
+    private final String resourceName;
+
+    /** Height of the font above the baseline. */
+    private final float ascent;
+
+    /** Height of the capital letters. */
+    private final float capHeight;
+
+    /** Widths of the characters from space to tilde, or null for a monospaced font. */
+    private final short[] widths;
+
+    StandardFont(
+        String baseFont, String resourceName, float ascent, float capHeight, short[] widths) {
+      this.baseFont = baseFont;
+      this.resourceName = resourceName;
+      this.ascent = ascent;
+      this.capHeight = capHeight;
+      this.widths = widths;
+    }
+
+    // name() is the enum constant name, which keeps these metrics apart from those of the fonts
+    // of the PDF libraries in the layout caches.
+
+    @Override
+    public float width(String text) {
+      if (widths == null) {
+        return COURIER_WIDTH * text.length();
+      }
+      float width = 0;
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (c < ' ' || c > '~') {
+          throw new IllegalArgumentException("No width for the character U+" + (int) c + ".");
+        }
+        width += widths[c - ' '];
+      }
+      return width;
+    }
+
+    @Override
+    public float ascent() {
+      return ascent;
+    }
+
+    @Override
+    public float capHeight() {
+      return capHeight;
+    }
+  }
+
+  /**
+   * Writes the objects of one document: draws the content of pages and templates, and writes
+   * objects while counting their byte offsets. Subclasses number the objects and decide the order
+   * they reach the stream in.
+   */
+  abstract static class DocumentWriter {
+    /** File header; a comment with bytes above 127 marks the file as binary for transfer tools. */
+    static final byte[] HEADER = {
+      '%',
+      'P',
+      'D',
+      'F',
+      '-',
+      '1',
+      '.',
+      '4',
+      '\n',
+      '%',
+      (byte) 0xE2,
+      (byte) 0xE3,
+      (byte) 0xCF,
+      (byte) 0xD3,
+      '\n'
+    };
+
+    /** The stream objects are written to, counting the bytes written. */
+    final CountingOutput out;
+
+    /** URL shown at the bottom of every page, or null. */
+    private final String footerUrl;
+
+    /** Whether to draw lines between the grid cells. */
+    private final boolean gridLines;
+
+    /** Byte offset of each object in {@link #out}, by object number. */
+    long[] offsets = new long[64];
+
+    /** Object number of the page tree. */
+    int pageTree;
+
+    /** Object number of the resource dictionary all pages and templates share. */
+    int resources;
+
+    /** Object number of the first font; the fonts follow in declaration order. */
+    int firstFont;
+
+    /** Resource names of the templates, by kind of page. */
+    final Map<TemplateKey, String> templates = new HashMap<>();
+
+    /** Object numbers of the templates, in resource name order. */
+    private int[] templateObjects = new int[4];
+
+    /** Content of the page or template being drawn. */
+    final PdfBytes content = new PdfBytes(4096);
+
+    DocumentWriter(OutputStream out, String footerUrl, boolean gridLines) {
+      this.out = new CountingOutput(out);
+      this.footerUrl = footerUrl;
+      this.gridLines = gridLines;
+    }
+
+    /**
+     * Writes the file header, when the document writes anything before its pages.
+     *
+     * @throws IOException if writing fails
+     */
+    void begin() throws IOException {}
+
+    /**
+     * Writes the pages of one puzzle, or of its answers.
+     *
+     * @param pageList the pages, in order
+     * @throws IOException if writing fails
+     */
+    abstract void write(List<Page> pageList) throws IOException;
+
+    /**
+     * Writes the rest of the document and flushes the stream.
+     *
+     * @throws IOException if writing fails
+     */
+    abstract void finish() throws IOException;
+
+    /**
+     * Returns the resource name of the template of a kind of page.
+     *
+     * @param key the page size, kind of page and whether it is an answer page
+     * @return the resource name of the template
+     * @throws IOException if writing the template fails
+     */
+    abstract String template(TemplateKey key) throws IOException;
+
+    /**
+     * Gives a template its resource name.
+     *
+     * @param key the page size, kind of page and whether it is an answer page
+     * @param object the object number of the template
+     * @return the resource name of the template
+     */
+    String addTemplate(TemplateKey key, int object) {
+      String name = "T" + (templates.size() + 1);
+      if (templates.size() == templateObjects.length) {
+        templateObjects = Arrays.copyOf(templateObjects, 2 * templates.size());
+      }
+      templateObjects[templates.size()] = object;
+      templates.put(key, name);
+      return name;
+    }
+
+    /**
+     * Writes the font dictionaries.
+     *
+     * @throws IOException if writing fails
+     */
+    void writeFonts() throws IOException {
+      for (StandardFont font : StandardFont.values()) {
+        beginObject(firstFont + font.ordinal());
+        out.write(
+            ascii(
+                "<< /Type /Font /Subtype /Type1 /BaseFont /"
+                    + font.baseFont
+                    + " /Encoding /WinAnsiEncoding >>\nendobj\n"));
+      }
+    }
+
+    /**
+     * Draws a page and writes its page object, then its content stream.
+     *
+     * @param page the page
+     * @param pageObject object number of the page
+     * @param contentObject object number of the content stream
+     * @throws IOException if writing fails
+     */
+    void writePage(Page page, int pageObject, int contentObject) throws IOException {
+      // The template is looked up first: writing it on first use takes over the content buffer.
+      final String template = template(page.template());
+      PageGeometry geometry = page.template().geometry();
+      content.reset();
+      content.ascii("<< /Type /Page /Parent ").reference(pageTree).ascii(" /MediaBox [0 0 ");
+      content.number(geometry.width()).ascii(" ").number(geometry.height());
+      content.ascii("] /Resources ").reference(resources);
+      content.ascii(" /Contents ").reference(contentObject).ascii(" >>\nendobj\n");
+      beginObject(pageObject);
+      content.writeTo(out);
+      content.reset();
+      content.name(template).ascii(" Do\n");
+      if (page.label() != null) {
+        float labelX = PdfLayout.labelX(StandardFont.TEXT, page.label(), geometry.width());
+        showText(
+            StandardFont.TEXT, PdfLayout.LABEL_FONT_SIZE, labelX, geometry.headerY(), page.label());
+      }
+      if (page.gridPage() != null) {
+        drawGrid(page.layout(), page.gridPage(), page.template().answerKey());
+      }
+      List<String> wordLines = page.layout().wordLines();
+      for (int line = page.firstLine(); line < page.endLine(); line++) {
+        showText(
+            StandardFont.TEXT,
+            PdfLayout.WORD_FONT_SIZE,
+            PdfLayout.MARGIN,
+            page.wordLineY(line),
+            wordLines.get(line));
+      }
+      if (page.note() != null) {
+        showText(
+            StandardFont.TEXT,
+            PdfLayout.NOTE_FONT_SIZE,
+            PdfLayout.MARGIN,
+            PdfLayout.PART_NOTE_Y,
+            page.note());
+      }
+      writeStream(contentObject, "");
+    }
+
+    /**
+     * Writes the text a kind of page shows whatever its puzzle as a form XObject: the header, the
+     * word list title where the page has one and the footer. Every page of that kind draws the
+     * form, so the document stores the static content once.
+     *
+     * @param key the page size, kind of page and whether it is an answer page
+     * @param object the object number of the template
+     * @throws IOException if writing fails
+     */
+    void writeTemplate(TemplateKey key, int object) throws IOException {
+      PageGeometry geometry = key.geometry();
+      content.reset();
+      showText(
+          StandardFont.BOLD,
+          PdfLayout.HEADER_FONT_SIZE,
+          key.headerX(),
+          geometry.headerY(),
+          key.header());
+      if (key.kind() != PageKind.TILE) {
+        showText(
+            StandardFont.BOLD,
+            PdfLayout.TITLE_FONT_SIZE,
+            PdfLayout.MARGIN,
+            key.titleY(),
+            PdfLayout.WORD_LIST_TITLE);
+      }
+      if (footerUrl != null && !footerUrl.isBlank()) {
+        float footerX =
+            PdfLayout.centeredX(
+                StandardFont.FOOTER, footerUrl, PdfLayout.NOTE_FONT_SIZE, geometry.width());
+        showText(
+            StandardFont.FOOTER, PdfLayout.NOTE_FONT_SIZE, footerX, PdfLayout.FOOTER_Y, footerUrl);
+      }
+      PdfBytes dictionary = new PdfBytes(128);
+      dictionary.ascii("/Type /XObject /Subtype /Form /BBox [0 0 ");
+      dictionary.number(geometry.width()).ascii(" ").number(geometry.height());
+      dictionary.ascii("] /Resources ").reference(resources);
+      writeStream(object, dictionary.toString());
+    }
+
+    /**
+     * Writes the resource dictionary, listing the fonts and every template.
+     *
+     * @throws IOException if writing fails
+     */
+    void writeResources() throws IOException {
+      content.reset();
+      content.ascii("<< /Font <<");
+      for (StandardFont font : StandardFont.values()) {
+        content.ascii(" ").name(font.resourceName).ascii(" ");
+        content.reference(firstFont + font.ordinal());
+      }
+      content.ascii(" >> /XObject <<");
+      for (int i = 0; i < templates.size(); i++) {
+        content.ascii(" ").name("T" + (i + 1)).ascii(" ").reference(templateObjects[i]);
+      }
+      content.ascii(" >> >>\nendobj\n");
+      beginObject(resources);
+      content.writeTo(out);
+    }
+
+    /**
+     * Writes the page tree.
+     *
+     * @param pages object numbers of the pages, in order
+     * @param count number of pages
+     * @throws IOException if writing fails
+     */
+    void writePageTree(int[] pages, int count) throws IOException {
+      content.reset();
+      content.ascii("<< /Type /Pages /Kids [");
+      for (int i = 0; i < count; i++) {
+        content.ascii(i == 0 ? "" : " ").reference(pages[i]);
+      }
+      content.ascii("] /Count ").integer(count).ascii(" >>\nendobj\n");
+      beginObject(pageTree);
+      content.writeTo(out);
+    }
+
+    /**
+     * Writes the catalog.
+     *
+     * @param object the object number of the catalog
+     * @throws IOException if writing fails
+     */
+    void writeCatalog(int object) throws IOException {
+      beginObject(object);
+      out.write(ascii("<< /Type /Catalog /Pages " + pageTree + " 0 R >>\nendobj\n"));
+    }
+
+    /**
+     * Records the offset of an object and writes its header.
+     *
+     * @param object the object number
+     * @throws IOException if writing fails
+     */
+    void beginObject(int object) throws IOException {
+      if (object >= offsets.length) {
+        offsets = Arrays.copyOf(offsets, Math.max(2 * offsets.length, object + 1));
+      }
+      offsets[object] = out.position();
+      out.write(ascii(object + " 0 obj\n"));
+    }
+
+    /**
+     * Writes the current content as a stream object.
+     *
+     * @param object the object number of the stream
+     * @param entries dictionary entries besides the length, or an empty string
+     * @throws IOException if writing fails
+     */
+    private void writeStream(int object, String entries) throws IOException {
+      beginObject(object);
+      String separator = entries.isEmpty() ? "" : " ";
+      out.write(ascii("<< " + entries + separator + "/Length " + content.size() + " >>\nstream\n"));
+      content.writeTo(out);
+      out.write(ascii("\nendstream\nendobj\n"));
+    }
+
+    /**
+     * Draws a grid, or one part of a tiled grid, with its optional cell lines and answer marks.
+     * Each row is one text object, and the cell lines are one path, so the content grows linearly
+     * with the number of cells.
+     *
+     * @param layout the layout of the puzzle
+     * @param gridPage the part of the grid on this page
+     * @param answerKey true to mark every word
+     */
+    private void drawGrid(PuzzleLayout layout, GridPage gridPage, boolean answerKey) {
+      GridTiling.Tile tile = gridPage.tile();
+      float cellSize = layout.cellSize();
+      float[] bounds = layout.bounds(tile);
+      float left = bounds[0];
+      float bottom = bounds[1];
+      float right = bounds[2];
+      float top = bounds[3];
+      if (tile.sharesRight() || tile.sharesBelow()) {
+        // Shades the cells the next part repeats, showing where the parts overlap.
+        float shared = PdfLayout.TILE_OVERLAP * cellSize;
+        content.ascii("q ").number(PdfLayout.SHARED_CELL_GRAY).ascii(" g\n");
+        if (tile.sharesRight()) {
+          rectangle(right - shared, bottom, shared, top - bottom);
+        }
+        if (tile.sharesBelow()) {
+          rectangle(left, bottom, right - left, shared);
+        }
+        content.ascii("f Q\n");
+      }
+      if (answerKey) {
+        content.ascii("q ");
+        rectangle(left, bottom, right - left, top - bottom);
+        content.ascii("W n ").number(PdfLayout.ANSWER_GRAY).ascii(" G ");
+        content.number(cellSize * PdfLayout.ANSWER_STROKE).ascii(" w 1 J\n");
+        float[] marks = layout.answerMarks(tile);
+        for (int i = 0; i < marks.length; i += 4) {
+          content.number(marks[i]).ascii(" ").number(marks[i + 1]).ascii(" m ");
+          content.number(marks[i + 2]).ascii(" ").number(marks[i + 3]).ascii(" l\n");
+        }
+        content.ascii("S Q\n");
+      }
+      if (gridLines) {
+        content.ascii("q ").number(PdfLayout.GRID_LINE_GRAY).ascii(" G ");
+        content.number(PdfLayout.GRID_LINE_WIDTH).ascii(" w\n");
+        for (int r = 0; r <= tile.rows(); r++) {
+          float y = top - r * cellSize;
+          content.number(left).ascii(" ").number(y).ascii(" m ");
+          content.number(right).ascii(" ").number(y).ascii(" l\n");
+        }
+        for (int c = 0; c <= tile.cols(); c++) {
+          float x = left + c * cellSize;
+          content.number(x).ascii(" ").number(top).ascii(" m ");
+          content.number(x).ascii(" ").number(bottom).ascii(" l\n");
+        }
+        content.ascii("S Q\n");
+      }
+      content.name(StandardFont.GRID.resourceName).ascii(" ");
+      content.integer(layout.gridFontSize()).ascii(" Tf\n");
+      if (layout.characterSpacing() != 0) {
+        content.number(layout.characterSpacing()).ascii(" Tc\n");
+      }
+      Object[][] runs = gridPage.runs();
+      for (int row = 0; row < runs.length; row++) {
+        content.ascii("BT ").number(gridPage.rowX()[row]).ascii(" ");
+        content.number(layout.rowBaseline(row)).ascii(" Td [");
+        for (Object part : runs[row]) {
+          if (part instanceof String glyphs) {
+            content.string(glyphs);
+          } else {
+            content.number((float) part);
+          }
+        }
+        content.ascii("] TJ ET\n");
+      }
+      if (layout.characterSpacing() != 0) {
+        content.ascii("0 Tc\n");
+      }
+    }
+
+    /**
+     * Adds one line of text in its own text object to the current content.
+     *
+     * @param font the font
+     * @param fontSize the font size
+     * @param x start of the text
+     * @param y baseline of the text
+     * @param text the text
+     */
+    private void showText(StandardFont font, float fontSize, float x, float y, String text) {
+      content.ascii("BT ").name(font.resourceName).ascii(" ").number(fontSize).ascii(" Tf ");
+      content.number(x).ascii(" ").number(y).ascii(" Td ").string(text).ascii(" Tj ET\n");
+    }
+
+    /**
+     * Adds a rectangle to the current path.
+     *
+     * @param x left edge
+     * @param y bottom edge
+     * @param width width
+     * @param height height
+     */
+    private void rectangle(float x, float y, float width, float height) {
+      content.number(x).ascii(" ").number(y).ascii(" ");
+      content.number(width).ascii(" ").number(height).ascii(" re\n");
+    }
+
+    /**
+     * Appends a cross-reference entry of an object in use.
+     *
+     * @param table the table being built
+     * @param offset byte offset of the object
+     */
+    static void xrefEntry(PdfBytes table, long offset) {
+      String digits = Long.toString(offset);
+      table.ascii("0000000000".substring(digits.length())).ascii(digits).ascii(" 00000 n \n");
+    }
+
+    static byte[] ascii(String text) {
+      return text.getBytes(StandardCharsets.US_ASCII);
+    }
+  }
+
+  /**
+   * Writes a document front to back as its pages arrive. Objects 1 to 3 are the catalog, the page
+   * tree and the shared resource dictionary; they refer to objects written later, so they are
+   * written last, once the pages and templates are known.
+   */
+  private static final class StreamingWriter extends DocumentWriter {
+    /** Object number of the catalog. */
+    private static final int CATALOG = 1;
+
+    /** Number of the next object. */
+    private int nextObject;
+
+    /** Object numbers of the pages, in order. */
+    private int[] pages = new int[16];
+
+    /** Number of pages written. */
+    private int pageCount;
+
+    StreamingWriter(OutputStream out, String footerUrl, boolean gridLines) {
+      super(out, footerUrl, gridLines);
+      pageTree = 2;
+      resources = 3;
+      firstFont = 4;
+      nextObject = firstFont + StandardFont.values().length;
+    }
+
+    @Override
+    void begin() throws IOException {
+      out.write(HEADER);
+      writeFonts();
+    }
+
+    @Override
+    void write(List<Page> pageList) throws IOException {
+      for (Page page : pageList) {
+        int pageObject = nextObject++;
+        writePage(page, pageObject, nextObject++);
+        if (pageCount == pages.length) {
+          pages = Arrays.copyOf(pages, 2 * pageCount);
+        }
+        pages[pageCount++] = pageObject;
+      }
+    }
+
+    /** Writes a template the first time a page draws it. */
+    @Override
+    String template(TemplateKey key) throws IOException {
+      String name = templates.get(key);
+      if (name == null) {
+        int object = nextObject++;
+        writeTemplate(key, object);
+        name = addTemplate(key, object);
+      }
+      return name;
+    }
+
+    /**
+     * Writes the shared resources, the page tree, the catalog, the cross-reference table and the
+     * trailer, then flushes the stream.
+     */
+    @Override
+    void finish() throws IOException {
+      writeResources();
+      writePageTree(pages, pageCount);
+      writeCatalog(CATALOG);
+      content.reset();
+      content.ascii("xref\n0 ").integer(nextObject).ascii("\n0000000000 65535 f \n");
+      for (int i = 1; i < nextObject; i++) {
+        xrefEntry(content, offsets[i]);
+      }
+      content.ascii("trailer\n<< /Size ").integer(nextObject).ascii(" /Root ");
+      content.reference(CATALOG).ascii(" >>\nstartxref\n");
+      // The table is still in the buffer, so the stream ends where the table will start.
+      content.integer(out.position()).ascii("\n%%EOF\n");
+      content.writeTo(out);
+      out.flush();
+    }
+  }
+
+  /**
+   * A growable byte buffer with the PDF token syntax: names, numbers, references and strings in the
+   * WinAnsi encoding of the Standard 14 fonts.
+   */
+  static final class PdfBytes {
+    /** The character undefined codes decode to. */
+    private static final char REPLACEMENT_CHARACTER = 0xFFFD;
+
+    /** WinAnsi code of each character, or 0 if it has none. */
+    private static final byte[] WIN_ANSI = winAnsiCodes();
+
+    private byte[] bytes;
+
+    private int size;
+
+    PdfBytes(int capacity) {
+      bytes = new byte[capacity];
+    }
+
+    void reset() {
+      size = 0;
+    }
+
+    int size() {
+      return size;
+    }
+
+    PdfBytes ascii(String text) {
+      ensure(text.length());
+      for (int i = 0; i < text.length(); i++) {
+        bytes[size++] = (byte) text.charAt(i);
+      }
+      return this;
+    }
+
+    PdfBytes name(String name) {
+      return append('/').ascii(name);
+    }
+
+    PdfBytes reference(int object) {
+      return integer(object).ascii(" 0 R");
+    }
+
+    PdfBytes integer(long value) {
+      return ascii(Long.toString(value));
+    }
+
+    /**
+     * Appends a number followed by spaces up to ten characters, so a later value of up to ten
+     * digits takes the same room.
+     *
+     * @param value the number, not negative
+     * @return this buffer
+     */
+    PdfBytes padded(long value) {
+      String digits = Long.toString(value);
+      return ascii(digits).ascii("          ".substring(digits.length()));
+    }
+
+    PdfBytes bytes(byte[] data) {
+      ensure(data.length);
+      System.arraycopy(data, 0, bytes, size, data.length);
+      size += data.length;
+      return this;
+    }
+
+    /**
+     * Appends a number rounded to hundredths, without trailing zeros.
+     *
+     * @param value the number
+     * @return this buffer
+     */
+    PdfBytes number(float value) {
+      long hundredths = Math.round(value * 100.0);
+      if (hundredths < 0) {
+        append('-');
+        hundredths = -hundredths;
+      }
+      integer(hundredths / 100);
+      int fraction = (int) (hundredths % 100);
+      if (fraction != 0) {
+        append('.').append((char) ('0' + fraction / 10));
+        if (fraction % 10 != 0) {
+          append((char) ('0' + fraction % 10));
+        }
+      }
+      return this;
+    }
+
+    /**
+     * Appends a literal string in the WinAnsi encoding, escaping the characters the string syntax
+     * reserves.
+     *
+     * @param text the text; every character must have a WinAnsi code
+     * @return this buffer
+     */
+    PdfBytes string(String text) {
+      ensure(2 * text.length() + 2);
+      bytes[size++] = '(';
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        byte code = c < WIN_ANSI.length ? WIN_ANSI[c] : 0;
+        if (code == 0) {
+          throw new IllegalArgumentException("No WinAnsi code for U+" + (int) c + ".");
+        }
+        if (c == '(' || c == ')' || c == '\\') {
+          bytes[size++] = '\\';
+        }
+        bytes[size++] = code;
+      }
+      bytes[size++] = ')';
+      return this;
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+      out.write(bytes, 0, size);
+    }
+
+    @Override
+    public String toString() {
+      return new String(bytes, 0, size, StandardCharsets.ISO_8859_1);
+    }
+
+    private PdfBytes append(char c) {
+      ensure(1);
+      bytes[size++] = (byte) c;
+      return this;
+    }
+
+    private void ensure(int extra) {
+      if (size + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, size + extra));
+      }
+    }
+
+    /**
+     * Builds the table of WinAnsi codes from the JDK's windows-1252 charset.
+     *
+     * @return the code of each character up to the highest one the encoding has
+     */
+    private static byte[] winAnsiCodes() {
+      byte[] all = new byte[256];
+      for (int i = 0; i < all.length; i++) {
+        all[i] = (byte) i;
+      }
+      String decoded = new String(all, Charset.forName("windows-1252"));
+      char highest = 0;
+      for (int i = 0; i < decoded.length(); i++) {
+        highest = (char) Math.max(highest, decoded.charAt(i));
+      }
+      byte[] codes = new byte[highest + 1];
+      for (int i = ' '; i < decoded.length(); i++) {
+        char c = decoded.charAt(i);
+        if (c != REPLACEMENT_CHARACTER) {
+          codes[c] = (byte) i;
+        }
+      }
+      return codes;
+    }
+  }
+
+  /** Passes bytes on to a stream, counting them to know the offset of each object. */
+  static final class CountingOutput extends OutputStream {
+    private final OutputStream out;
+
+    private long position;
+
+    CountingOutput(OutputStream out) {
+      this.out = out;
+    }
+
+    long position() {
+      return position;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      out.write(b);
+      position++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      out.write(bytes, offset, length);
+      position += length;
+    }
+
+    @Override
+    public void flush() throws IOException {
+      out.flush();
+    }
+  }
+}
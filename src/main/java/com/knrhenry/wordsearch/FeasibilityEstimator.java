@@ -0,0 +1,93 @@
+package com.knrhenry.wordsearch;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Cheap up-front estimate of the smallest grid a word list can reasonably be placed in. It compares
+ * the total letter count with the grid area and the word length histogram with the number of lines
+ * long enough to hold those words, so clearly too dense lists skip straight to a larger grid.
+ */
+final class FeasibilityEstimator {
+  /** Highest share of the grid cells the letters of all words may take up. */
+  static final double MAX_FILL_RATIO = 0.9;
+
+  private FeasibilityEstimator() {}
+
+  /**
+   * Returns the smallest grid size, from {@code minSize} to {@code maxSize}, that passes the
+   * estimate.
+   *
+   * @param words the words to place
+   * @param directions the allowed directions
+   * @param minSize smallest grid size to consider
+   * @param maxSize largest grid size to consider
+   * @return the estimated grid size, or -1 if no size up to {@code maxSize} passes
+   */
+  static int minimumGridSize(
+      List<String> words, Set<WordSearch.Direction> directions, int minSize, int maxSize) {
+    long letters = 0;
+    int[] lengths = new int[words.size()];
+    for (int i = 0; i < lengths.length; i++) {
+      lengths[i] = words.get(i).length();
+      letters += lengths[i];
+    }
+    Arrays.sort(lengths);
+    boolean[] families = new boolean[4];
+    for (WordSearch.Direction direction : directions) {
+      families[direction.family()] = true;
+    }
+    for (int size = minSize; size <= maxSize; size++) {
+      if (letters <= MAX_FILL_RATIO * size * size && linesSuffice(lengths, families, size)) {
+        return size;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks, for every word length, that the grid has room for all words at least that long when
+   * each line holds words end to end.
+   *
+   * @param lengths the word lengths, sorted ascending
+   * @param families the allowed line families
+   * @param size number of cells per side
+   * @return true if the lines can hold the words
+   */
+  private static boolean linesSuffice(int[] lengths, boolean[] families, int size) {
+    for (int i = 0; i < lengths.length; i++) {
+      if (i > 0 && lengths[i] == lengths[i - 1]) {
+        continue;
+      }
+      int length = Math.max(1, lengths[i]);
+      if (length > size || lengths.length - i > capacity(families, size, length)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns how many words of at least the given length fit end to end on the grid lines.
+   *
+   * @param families the allowed line families
+   * @param size number of cells per side
+   * @param length the word length
+   * @return the number of such words that fit without sharing cells
+   */
+  private static long capacity(boolean[] families, int size, int length) {
+    long straight = (long) size * (size / length);
+    // Each diagonal family has one line of the full size and two lines of every shorter size.
+    long diagonal = size / length;
+    for (int lineLength = length; lineLength < size; lineLength++) {
+      diagonal += 2L * (lineLength / length);
+    }
+    long capacity = 0;
+    capacity += families[LetterGrid.ROWS] ? straight : 0;
+    capacity += families[LetterGrid.COLUMNS] ? straight : 0;
+    capacity += families[LetterGrid.DIAGONALS_DOWN] ? diagonal : 0;
+    capacity += families[LetterGrid.DIAGONALS_UP] ? diagonal : 0;
+    return capacity;
+  }
+}
@@ -0,0 +1,152 @@
+package com.knrhenry.wordsearch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks whether a cell completes a forbidden string in any of the eight directions. Only the
+ * stretch of each line around the cell that could hold a pattern through it is scanned, so the
+ * check costs the same however large the grid is, and filling a grid one cell at a time catches
+ * every pattern exactly when its last filled cell is set.
+ */
+final class FillGuard {
+  /** Line directions through a cell; each line is also scanned in reverse. */
+  private static final int[][] LINE_STEPS = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}};
+
+  /** Letters the grid cells are indexes into. */
+  private final Alphabet alphabet;
+
+  /** Automata over the forbidden strings. */
+  private final List<AhoCorasick> automata;
+
+  /** Length of the longest forbidden string. */
+  private final int maxLength;
+
+  /** Letters of the line stretch being scanned. */
+  private final char[] window;
+
+  /**
+   * Builds a guard.
+   *
+   * @param automata automata over the upper-case forbidden strings; they may be shared, since a
+   *     guard never modifies them, and those without a non-empty string are skipped
+   * @param alphabet letters the grid cells are indexes into
+   */
+  FillGuard(List<AhoCorasick> automata, Alphabet alphabet) {
+    this.alphabet = alphabet;
+    List<AhoCorasick> scanned = new ArrayList<>(automata.size());
+    int longest = 0;
+    for (AhoCorasick automaton : automata) {
+      if (automaton.maxLength() > 0) {
+        scanned.add(automaton);
+        longest = Math.max(longest, automaton.maxLength());
+      }
+    }
+    this.automata = List.copyOf(scanned);
+    this.maxLength = longest;
+    // The checked cell itself is always read, even when no string can run through it.
+    this.window = new char[Math.max(1, 2 * longest)];
+  }
+
+  /**
+   * Checks whether a forbidden string runs through a cell, reading along any line in either
+   * direction. Empty cells end a line stretch, since no string can run across them yet.
+   *
+   * @param cells alphabet indexes of the grid letters in row-major order
+   * @param size number of cells per side
+   * @param row row of the cell
+   * @param col column of the cell
+   * @return true if a forbidden string covers the cell
+   */
+  boolean formsPattern(byte[] cells, int size, int row, int col) {
+    for (int[] step : LINE_STEPS) {
+      int rowStep = step[0];
+      int colStep = step[1];
+      int before = extent(cells, size, row, col, -rowStep, -colStep);
+      int after = extent(cells, size, row, col, rowStep, colStep);
+      int length = before + 1 + after;
+      for (int i = 0; i < length; i++) {
+        int offset = i - before;
+        int cell = (row + offset * rowStep) * size + col + offset * colStep;
+        window[i] = alphabet.letter(cells[cell]);
+      }
+      for (AhoCorasick automaton : automata) {
+        if (scan(automaton, before, length)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Scans the current window in both directions for a pattern covering the checked cell.
+   *
+   * @param automaton the automaton to scan with
+   * @param before index of the checked cell in the window
+   * @param length number of letters in the window
+   * @return true if a pattern covers the checked cell
+   */
+  private boolean scan(AhoCorasick automaton, int before, int length) {
+    int state = AhoCorasick.ROOT;
+    for (int i = 0; i < length; i++) {
+      state = automaton.step(state, window[i]);
+      if (i >= before && endsAcross(automaton, state, i - before)) {
+        return true;
+      }
+    }
+    state = AhoCorasick.ROOT;
+    for (int i = length - 1; i >= 0; i--) {
+      state = automaton.step(state, window[i]);
+      if (i <= before && endsAcross(automaton, state, before - i)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether a pattern ending at the current state reaches back over the checked cell.
+   *
+   * @param automaton the automaton being scanned with
+   * @param state the automaton state
+   * @param distance number of cells read since the checked cell
+   * @return true if a matching pattern is at least {@code distance + 1} long
+   */
+  private static boolean endsAcross(AhoCorasick automaton, int state, int distance) {
+    for (int m = automaton.firstMatch(state); m >= 0; m = automaton.nextMatch(m)) {
+      if (automaton.length(automaton.pattern(m)) > distance) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Counts the filled cells next to a cell in one direction that a pattern through it could use.
+   *
+   * @param cells alphabet indexes of the grid letters in row-major order
+   * @param size number of cells per side
+   * @param row row of the cell
+   * @param col column of the cell
+   * @param rowStep row increment
+   * @param colStep column increment
+   * @return the number of usable cells, at most one less than the longest pattern
+   */
+  private int extent(byte[] cells, int size, int row, int col, int rowStep, int colStep) {
+    int count = 0;
+    int r = row + rowStep;
+    int c = col + colStep;
+    while (count < maxLength - 1
+        && r >= 0
+        && r < size
+        && c >= 0
+        && c < size
+        && cells[r * size + c] != LetterGrid.EMPTY) {
+      count++;
+      r += rowStep;
+      c += colStep;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,19 @@
+package com.knrhenry.wordsearch;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Chooses the random letters written into the cells no word covers. Letters are requested in bulk,
+ * one call per grid, so a strategy can draw several letters from each random number.
+ */
+public interface FillerStrategy {
+  /**
+   * Writes random letters, as alphabet indexes, into the start of a buffer.
+   *
+   * @param letters the buffer to fill
+   * @param count number of letters to write
+   * @param alphabet the alphabet the grid is built from
+   * @param random random number generator of the current attempt
+   */
+  void fill(byte[] letters, int count, Alphabet alphabet, RandomGenerator random);
+}
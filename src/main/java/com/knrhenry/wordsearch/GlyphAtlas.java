@@ -0,0 +1,154 @@
+package com.knrhenry.wordsearch;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontFormatException;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every letter of an alphabet rendered once, in grayscale, into one strip of square cells. Drawing
+ * a grid cell is then a copy of one row of bytes per pixel row instead of a trip through the font
+ * rasterizer. Atlases are cached per alphabet and cell size, so each is rendered once per process.
+ */
+final class GlyphAtlas {
+  /** Share of the cell height the letters are drawn at, as in the PDF grids. */
+  static final float FONT_SCALE = 0.6f;
+
+  /** Measurements are made without a device transform, with antialiasing as on the image. */
+  static final FontRenderContext RENDER_CONTEXT = new FontRenderContext(null, true, true);
+
+  /** Atlases rendered so far, by alphabet and cell size. */
+  private static final Map<Key, GlyphAtlas> CACHE = new ConcurrentHashMap<>();
+
+  /** Side of a cell in pixels. */
+  private final int cellSize;
+
+  /** Width of the strip in pixels, one cell per letter. */
+  private final int stripWidth;
+
+  /** Gray levels of the strip, row by row; 0 is black and -1 is white. */
+  private final byte[] pixels;
+
+  private GlyphAtlas(Alphabet alphabet, int cellSize) {
+    this.cellSize = cellSize;
+    this.stripWidth = alphabet.size() * cellSize;
+    BufferedImage strip = new BufferedImage(stripWidth, cellSize, BufferedImage.TYPE_BYTE_GRAY);
+    Graphics2D g = strip.createGraphics();
+    try {
+      g.setColor(Color.WHITE);
+      g.fillRect(0, 0, stripWidth, cellSize);
+      g.setRenderingHint(
+          RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g.setRenderingHint(
+          RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+      g.setColor(Color.BLACK);
+      Font font = gridFont(cellSize);
+      g.setFont(font);
+      float baseline = baseline(cellSize);
+      for (int i = 0; i < alphabet.size(); i++) {
+        String letter = String.valueOf(alphabet.letter(i));
+        float width = (float) font.getStringBounds(letter, RENDER_CONTEXT).getWidth();
+        g.drawString(letter, i * cellSize + (cellSize - width) / 2, baseline);
+      }
+    } finally {
+      g.dispose();
+    }
+    this.pixels = ((DataBufferByte) strip.getRaster().getDataBuffer()).getData();
+  }
+
+  /**
+   * Returns the atlas of an alphabet at a cell size, rendering it on first use.
+   *
+   * @param alphabet the letters to render
+   * @param cellSize the side of a cell in pixels
+   * @return the shared atlas
+   */
+  static GlyphAtlas of(Alphabet alphabet, int cellSize) {
+    return CACHE.computeIfAbsent(
+        new Key(alphabet, cellSize), key -> new GlyphAtlas(key.alphabet(), key.cellSize()));
+  }
+
+  /**
+   * Copies the cell of a letter into a grayscale raster.
+   *
+   * @param letter the index of the letter in the alphabet
+   * @param target the raster, row by row
+   * @param targetWidth the width of the raster in pixels
+   * @param x the column of the left edge of the cell
+   * @param y the row of the top edge of the cell
+   */
+  void blit(int letter, byte[] target, int targetWidth, int x, int y) {
+    int from = letter * cellSize;
+    int to = y * targetWidth + x;
+    for (int row = 0; row < cellSize; row++) {
+      System.arraycopy(pixels, from, target, to, cellSize);
+      from += stripWidth;
+      to += targetWidth;
+    }
+  }
+
+  /**
+   * Returns the bold grid font sized for a cell.
+   *
+   * @param cellSize the side of a cell in pixels
+   * @return the font
+   */
+  static Font gridFont(int cellSize) {
+    return FontHolder.BOLD.deriveFont(cellSize * FONT_SCALE);
+  }
+
+  /**
+   * Returns the baseline that centres capital letters of the grid font vertically in a cell.
+   *
+   * @param cellSize the side of a cell in pixels
+   * @return the distance of the baseline from the top of the cell
+   */
+  static float baseline(int cellSize) {
+    Font font = gridFont(cellSize);
+    float capHeight =
+        (float) font.createGlyphVector(RENDER_CONTEXT, "H").getVisualBounds().getHeight();
+    return (cellSize + capHeight) / 2;
+  }
+
+  /**
+   * Returns the regular text font.
+   *
+   * @param size the size in pixels
+   * @return the font
+   */
+  static Font textFont(float size) {
+    return FontHolder.REGULAR.deriveFont(size);
+  }
+
+  /** Cache key of an atlas. */
+  private record Key(Alphabet alphabet, int cellSize) {}
+
+  /** Loads the bundled fonts on first use. */
+  private static final class FontHolder {
+    private static final Font REGULAR = load(PdfFonts.REGULAR_RESOURCE);
+
+    private static final Font BOLD = load(PdfFonts.BOLD_RESOURCE);
+
+    private static Font load(String resource) {
+      try (InputStream input = GlyphAtlas.class.getResourceAsStream(resource)) {
+        if (input == null) {
+          throw new IOException("Missing font resource " + resource);
+        }
+        return Font.createFont(Font.TRUETYPE_FONT, input);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read the font " + resource + ".", e);
+      } catch (FontFormatException e) {
+        throw new IllegalStateException("Could not parse the font " + resource + ".", e);
+      }
+    }
+  }
+}
@@ -0,0 +1,83 @@
+package com.knrhenry.wordsearch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a square grid into parts that each fit one page. Neighbouring parts share a band of cells,
+ * so a printed grid can be put together by laying the shared cells of each part over its neighbour.
+ * Each side is cut into as few spans as fit, of nearly equal length, so no part is left as a thin
+ * sliver.
+ */
+final class GridTiling {
+  /**
+   * One part of the grid.
+   *
+   * @param firstRow first grid row of the part
+   * @param firstCol first grid column of the part
+   * @param rows number of rows in the part
+   * @param cols number of columns in the part
+   * @param sharesRight true if the last columns are repeated on the part to the right
+   * @param sharesBelow true if the last rows are repeated on the part below
+   */
+  record Tile(
+      int firstRow, int firstCol, int rows, int cols, boolean sharesRight, boolean sharesBelow) {}
+
+  private GridTiling() {}
+
+  /**
+   * Splits a grid into parts, in reading order: left to right, then top to bottom.
+   *
+   * @param gridSize number of cells per side
+   * @param maxRows most rows a part may have
+   * @param maxCols most columns a part may have
+   * @param overlap number of rows or columns neighbouring parts share
+   * @return the parts; a single part if the whole grid fits
+   * @throws IllegalArgumentException if a part cannot be larger than the overlap
+   */
+  static List<Tile> tile(int gridSize, int maxRows, int maxCols, int overlap) {
+    int[][] rowSpans = spans(gridSize, maxRows, overlap);
+    int[][] colSpans = spans(gridSize, maxCols, overlap);
+    List<Tile> tiles = new ArrayList<>(rowSpans.length * colSpans.length);
+    for (int r = 0; r < rowSpans.length; r++) {
+      for (int c = 0; c < colSpans.length; c++) {
+        tiles.add(
+            new Tile(
+                rowSpans[r][0],
+                colSpans[c][0],
+                rowSpans[r][1],
+                colSpans[c][1],
+                c < colSpans.length - 1,
+                r < rowSpans.length - 1));
+      }
+    }
+    return tiles;
+  }
+
+  /**
+   * Cuts one side of the grid into overlapping spans.
+   *
+   * @param size number of cells along the side
+   * @param max longest allowed span
+   * @param overlap number of cells neighbouring spans share
+   * @return the start and length of each span
+   */
+  private static int[][] spans(int size, int max, int overlap) {
+    if (max <= overlap) {
+      throw new IllegalArgumentException("A part must be larger than the overlap.");
+    }
+    if (size <= max) {
+      return new int[][] {{0, size}};
+    }
+    int step = max - overlap;
+    int count = (size - overlap + step - 1) / step;
+    // The shortest length that still covers the side with count spans is never above max.
+    int length = (size + (count - 1) * overlap + count - 1) / count;
+    int[][] spans = new int[count][];
+    for (int i = 0; i < count; i++) {
+      int start = i * (length - overlap);
+      spans[i] = new int[] {start, Math.min(length, size - start)};
+    }
+    return spans;
+  }
+}
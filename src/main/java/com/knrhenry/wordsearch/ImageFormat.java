@@ -0,0 +1,39 @@
+package com.knrhenry.wordsearch;
+
+/** Image formats a puzzle can be rendered in besides PDF. */
+public enum ImageFormat {
+  /** A grayscale PNG raster, one fixed-size square of pixels per cell. */
+  PNG("image/png", "png"),
+
+  /** An SVG drawing, with the letters kept as text so it scales to any size. */
+  SVG("image/svg+xml", "svg");
+
+  /** Media type of the rendered image. */
+  private final String mediaType;
+
+  /** File name extension of the rendered image. */
+  private final String extension;
+
+  ImageFormat(String mediaType, String extension) {
+    this.mediaType = mediaType;
+    this.extension = extension;
+  }
+
+  /**
+   * Returns the media type of images in this format.
+   *
+   * @return the media type, such as {@code image/png}
+   */
+  public String getMediaType() {
+    return mediaType;
+  }
+
+  /**
+   * Returns the file name extension of images in this format.
+   *
+   * @return the extension, without the dot
+   */
+  public String getExtension() {
+    return extension;
+  }
+}
@@ -0,0 +1,335 @@
+package com.knrhenry.wordsearch;
+
+import java.util.Arrays;
+
+/**
+ * Bitboard model of a word search grid. Every line of the grid (each row, column and diagonal) has
+ * an occupancy bitset and one bitset per letter, so whether a word fits on a line can be decided
+ * with a few word-wide AND operations instead of a cell-by-cell walk. Cells hold alphabet indexes,
+ * one byte each.
+ */
+final class LetterGrid {
+  /** Line family of the rows; positions run left to right. */
+  static final int ROWS = 0;
+
+  /** Line family of the columns; positions run top to bottom. */
+  static final int COLUMNS = 1;
+
+  /** Line family of the diagonals running down and to the right; positions run left to right. */
+  static final int DIAGONALS_DOWN = 2;
+
+  /** Line family of the diagonals running up and to the right; positions run left to right. */
+  static final int DIAGONALS_UP = 3;
+
+  /** Number of line families. */
+  private static final int FAMILIES = 4;
+
+  /** Row coefficient of the line index, by family. */
+  private static final int[] LINE_ROW = {1, 0, -1, 1};
+
+  /** Column coefficient of the line index, by family. */
+  private static final int[] LINE_COL = {0, 1, 1, 1};
+
+  /** Row coefficient of the position along a line, by family. */
+  private static final int[] POS_ROW = {0, 1, 0, 0};
+
+  /** Column coefficient of the position along a line, by family. */
+  private static final int[] POS_COL = {1, 0, 1, 1};
+
+  /** Value stored in empty cells. */
+  static final byte EMPTY = -1;
+
+  /** Number of cells per side. */
+  private final int size;
+
+  /** Number of longs reserved for each line. */
+  private final int longsPerLine;
+
+  /** Letters the grid is filled with. */
+  private final Alphabet alphabet;
+
+  /** Alphabet index of the letter in each cell in row-major order, or {@code EMPTY}. */
+  private final byte[] cells;
+
+  /** Number of placed words covering each cell. */
+  private final byte[] usage;
+
+  /** Constant term of the line index, by family. */
+  private final int[] lineOffset;
+
+  /** Occupancy bitsets, indexed by family and then by line. */
+  private final long[][] occupied;
+
+  /** Letter bitsets, indexed by alphabet index, family and then by line; allocated on first use. */
+  private final long[][][] planes;
+
+  /**
+   * Word compiled for bitboard checks.
+   *
+   * @param text the word in alphabet letters
+   * @param planes alphabet index of each letter of the word
+   * @param distinctPlanes the distinct alphabet indexes used by the word
+   * @param masks bit pattern of the positions of each distinct letter
+   * @param reversedMasks bit pattern of the positions of each distinct letter in the reversed word
+   * @param fullMask bit pattern covering the whole word
+   */
+  record Word(
+      String text,
+      int[] planes,
+      int[] distinctPlanes,
+      long[] masks,
+      long[] reversedMasks,
+      long fullMask) {
+    int length() {
+      return text.length();
+    }
+  }
+
+  /**
+   * Creates an empty grid over the letters A to Z.
+   *
+   * @param size number of cells per side
+   */
+  LetterGrid(int size) {
+    this(size, Alphabet.LATIN);
+  }
+
+  /**
+   * Creates an empty grid.
+   *
+   * @param size number of cells per side
+   * @param alphabet letters the grid is filled with
+   */
+  LetterGrid(int size, Alphabet alphabet) {
+    this.size = size;
+    this.alphabet = alphabet;
+    this.longsPerLine = (size + 63) >>> 6;
+    this.lineOffset = new int[] {0, 0, size - 1, 0};
+    this.cells = new byte[size * size];
+    this.usage = new byte[size * size];
+    this.occupied = new long[FAMILIES][];
+    this.planes = new long[alphabet.size()][][];
+    for (int family = 0; family < FAMILIES; family++) {
+      occupied[family] = new long[lineCount(family) * longsPerLine];
+    }
+    Arrays.fill(cells, EMPTY);
+  }
+
+  /**
+   * Compiles a word. Words must not be longer than 64 letters.
+   *
+   * @param text the word in alphabet letters
+   * @return the compiled word
+   */
+  Word compile(String text) {
+    int len = text.length();
+    int[] wordPlanes = new int[len];
+    int[] distinct = new int[len];
+    long[] masks = new long[len];
+    long[] reversedMasks = new long[len];
+    int distinctCount = 0;
+    for (int i = 0; i < len; i++) {
+      int plane = alphabet.indexOf(text.charAt(i));
+      wordPlanes[i] = plane;
+      int j = 0;
+      while (j < distinctCount && distinct[j] != plane) {
+        j++;
+      }
+      if (j == distinctCount) {
+        distinct[distinctCount++] = plane;
+      }
+      masks[j] |= 1L << i;
+      reversedMasks[j] |= 1L << (len - 1 - i);
+    }
+    long fullMask = len == 64 ? -1L : (1L << len) - 1;
+    return new Word(
+        text,
+        wordPlanes,
+        Arrays.copyOf(distinct, distinctCount),
+        Arrays.copyOf(masks, distinctCount),
+        Arrays.copyOf(reversedMasks, distinctCount),
+        fullMask);
+  }
+
+  /** Clears every cell of the grid. */
+  void clear() {
+    Arrays.fill(cells, EMPTY);
+    Arrays.fill(usage, (byte) 0);
+    for (long[] bits : occupied) {
+      Arrays.fill(bits, 0L);
+    }
+    for (long[][] plane : planes) {
+      if (plane != null) {
+        for (long[] bits : plane) {
+          Arrays.fill(bits, 0L);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether a word fits on a line: every occupied cell it crosses must hold the same letter,
+   * and it must cover at least one empty cell so it never hides entirely inside another word.
+   *
+   * @param word the compiled word
+   * @param family line family
+   * @param line line index within the family
+   * @param pos lowest position covered by the word along the line
+   * @param reversed true if the word reads towards lower positions
+   * @return true if the word can be placed
+   */
+  boolean fits(Word word, int family, int line, int pos, boolean reversed) {
+    int index = line * longsPerLine + (pos >>> 6);
+    int shift = pos & 63;
+    long[] occ = occupied[family];
+    long occLo = occ[index];
+    long full = word.fullMask();
+    long fullHi = shift == 0 ? 0L : full >>> (64 - shift);
+    long occHi = fullHi == 0L ? 0L : occ[index + 1];
+    if ((full << shift & ~occLo) == 0L && (fullHi & ~occHi) == 0L) {
+      return false;
+    }
+    int[] distinct = word.distinctPlanes();
+    long[] masks = reversed ? word.reversedMasks() : word.masks();
+    for (int j = 0; j < distinct.length; j++) {
+      long mask = masks[j];
+      long[][] plane = planes[distinct[j]];
+      long[] bits = plane == null ? null : plane[family];
+      long lo = mask << shift;
+      if ((lo & occLo & ~bits(bits, index)) != 0L) {
+        return false;
+      }
+      long hi = shift == 0 ? 0L : mask >>> (64 - shift);
+      if (hi != 0L && (hi & occHi & ~bits(bits, index + 1)) != 0L) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Writes a word into the grid one letter at a time along the given step.
+   *
+   * @param word the compiled word
+   * @param row row of the first letter
+   * @param col column of the first letter
+   * @param rowStep row increment between letters
+   * @param colStep column increment between letters
+   */
+  void place(Word word, int row, int col, int rowStep, int colStep) {
+    int[] wordPlanes = word.planes();
+    for (int i = 0; i < wordPlanes.length; i++) {
+      int r = row + i * rowStep;
+      int c = col + i * colStep;
+      int cell = r * size + c;
+      if (usage[cell]++ == 0) {
+        cells[cell] = (byte) wordPlanes[i];
+        setBits(wordPlanes[i], r, c, true);
+      }
+    }
+  }
+
+  /**
+   * Removes a previously placed word, keeping letters still used by other words.
+   *
+   * @param word the compiled word
+   * @param row row of the first letter
+   * @param col column of the first letter
+   * @param rowStep row increment between letters
+   * @param colStep column increment between letters
+   */
+  void remove(Word word, int row, int col, int rowStep, int colStep) {
+    int[] wordPlanes = word.planes();
+    for (int i = 0; i < wordPlanes.length; i++) {
+      int r = row + i * rowStep;
+      int c = col + i * colStep;
+      int cell = r * size + c;
+      if (--usage[cell] == 0) {
+        cells[cell] = EMPTY;
+        setBits(wordPlanes[i], r, c, false);
+      }
+    }
+  }
+
+  /**
+   * Returns the alphabet indexes of the cells in row-major order; empty cells hold {@link #EMPTY}.
+   *
+   * @return the backing cell array
+   */
+  byte[] cells() {
+    return cells;
+  }
+
+  /**
+   * Returns the letters the grid is filled with.
+   *
+   * @return the alphabet
+   */
+  Alphabet alphabet() {
+    return alphabet;
+  }
+
+  /**
+   * Returns the number of cells per side.
+   *
+   * @return the grid size
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the line holding a cell within a family.
+   *
+   * @param family line family
+   * @param row row of the cell
+   * @param col column of the cell
+   * @return the line index
+   */
+  int lineOf(int family, int row, int col) {
+    return LINE_ROW[family] * row + LINE_COL[family] * col + lineOffset[family];
+  }
+
+  /**
+   * Returns the position of a cell along its line within a family.
+   *
+   * @param family line family
+   * @param row row of the cell
+   * @param col column of the cell
+   * @return the position along the line
+   */
+  int positionOf(int family, int row, int col) {
+    return POS_ROW[family] * row + POS_COL[family] * col;
+  }
+
+  private int lineCount(int family) {
+    return family == ROWS || family == COLUMNS ? size : 2 * size - 1;
+  }
+
+  private void setBits(int plane, int row, int col, boolean value) {
+    long[][] letterBits = planes[plane];
+    if (letterBits == null) {
+      letterBits = new long[FAMILIES][];
+      for (int family = 0; family < FAMILIES; family++) {
+        letterBits[family] = new long[occupied[family].length];
+      }
+      planes[plane] = letterBits;
+    }
+    for (int family = 0; family < FAMILIES; family++) {
+      int pos = positionOf(family, row, col);
+      int index = lineOf(family, row, col) * longsPerLine + (pos >>> 6);
+      long bit = 1L << (pos & 63);
+      if (value) {
+        occupied[family][index] |= bit;
+        letterBits[family][index] |= bit;
+      } else {
+        occupied[family][index] &= ~bit;
+        letterBits[family][index] &= ~bit;
+      }
+    }
+  }
+
+  private static long bits(long[] bits, int index) {
+    return bits == null ? 0L : bits[index];
+  }
+}
@@ -0,0 +1,338 @@
+package com.knrhenry.wordsearch;
+
+import com.knrhenry.wordsearch.DirectPdfRenderer.DocumentWriter;
+import com.knrhenry.wordsearch.DirectPdfRenderer.PdfBytes;
+import com.knrhenry.wordsearch.DirectPdfRenderer.StandardFont;
+import com.knrhenry.wordsearch.PdfLayout.Page;
+import com.knrhenry.wordsearch.PdfLayout.TemplateKey;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a linearized document, laid out for fast web view: the linearization dictionary, the
+ * cross-reference section of the first page, the catalog, a hint stream and everything the first
+ * page needs come first, so a viewer can show the first page while the rest is arriving. The file
+ * starts with its own length and the positions of later sections, so the document is assembled in
+ * memory and only then written out, in that order.
+ *
+ * <p>Objects of the first page section are numbered after all others, so each cross-reference
+ * section is one subsection: the page tree and the other pages, two objects each, take the low
+ * numbers. The shared resources, fonts and every template belong to the first page section.
+ */
+final class LinearizedWriter extends DocumentWriter {
+  /** The stream the assembled document is written to. */
+  private final OutputStream target;
+
+  /** The catalog, the first page section, the other pages and the page tree, in that order. */
+  private final ByteArrayOutputStream body;
+
+  /** The pages, in order. */
+  private final List<Page> pages = new ArrayList<>();
+
+  LinearizedWriter(OutputStream target, String footerUrl, boolean gridLines) {
+    this(target, new ByteArrayOutputStream(), footerUrl, gridLines);
+  }
+
+  private LinearizedWriter(
+      OutputStream target, ByteArrayOutputStream body, String footerUrl, boolean gridLines) {
+    super(body, footerUrl, gridLines);
+    this.target = target;
+    this.body = body;
+  }
+
+  @Override
+  void write(List<Page> pageList) {
+    pages.addAll(pageList);
+  }
+
+  /** Templates are numbered before any page is drawn, and written with the first page. */
+  @Override
+  String template(TemplateKey key) {
+    return templates.get(key);
+  }
+
+  @Override
+  void finish() throws IOException {
+    int pageCount = pages.size();
+    // The page tree and the other pages take the numbers below main; the linearization
+    // dictionary, the catalog and the hint stream the three after it.
+    int main = 2 * pageCount;
+    int firstPage = main + 3;
+    pageTree = 1;
+    resources = firstPage + 2;
+    firstFont = resources + 1;
+    int firstTemplate = firstFont + StandardFont.values().length;
+    List<TemplateKey> keys = new ArrayList<>();
+    for (Page page : pages) {
+      if (!templates.containsKey(page.template())) {
+        addTemplate(page.template(), firstTemplate + keys.size());
+        keys.add(page.template());
+      }
+    }
+
+    // The first page section holds objects firstPage to size - 1, in number order.
+    int catalog = main + 1;
+    writeCatalog(catalog);
+    long firstPageStart = out.position();
+    int[] pageObjects = new int[pageCount];
+    pageObjects[0] = firstPage;
+    writePage(pages.get(0), firstPage, firstPage + 1);
+    writeResources();
+    writeFonts();
+    for (int i = 0; i < keys.size(); i++) {
+      writeTemplate(keys.get(i), firstTemplate + i);
+    }
+    long firstPageEnd = out.position();
+    for (int p = 1; p < pageCount; p++) {
+      pageObjects[p] = 2 * p;
+      writePage(pages.get(p), 2 * p, 2 * p + 1);
+    }
+    writePageTree(pageObjects, pageCount);
+
+    // Numbers in the prefix are padded, so its length is known before the numbers are.
+    int linearization = main;
+    int size = firstTemplate + keys.size();
+    long dictionaryLength = linearizationDictionary(linearization, new long[6], firstPage).size();
+    long prefix =
+        HEADER.length
+            + dictionaryLength
+            + firstPageXref(linearization, size, catalog, new long[size], 0).size();
+    int hint = main + 2;
+    PdfBytes hintStream = hintStream(hint, pageObjects, prefix, firstPageEnd, size);
+    long hintLength = hintStream.size();
+    long[] fileOffsets = new long[size];
+    for (int i = 1; i < size; i++) {
+      fileOffsets[i] = prefix + offsets[i] + (offsets[i] < firstPageStart ? 0 : hintLength);
+    }
+    fileOffsets[linearization] = HEADER.length;
+    fileOffsets[hint] = prefix + firstPageStart;
+
+    String mainXrefHead = "xref\n0 " + main + "\n";
+    PdfBytes mainSection = new PdfBytes(20 * main + 64);
+    mainSection.ascii(mainXrefHead).ascii("0000000000 65535 f \n");
+    for (int i = 1; i < main; i++) {
+      xrefEntry(mainSection, fileOffsets[i]);
+    }
+    mainSection.ascii("trailer\n<< /Size ").integer(main).ascii(" >>\nstartxref\n");
+    mainSection.integer(HEADER.length + dictionaryLength).ascii("\n%%EOF\n");
+    // The main section follows the whole body, which ends with the page tree.
+    long mainXref = prefix + hintLength + body.size();
+    long[] values = {
+      mainXref + mainSection.size(),
+      fileOffsets[hint],
+      hintLength,
+      prefix + hintLength + firstPageEnd,
+      pageCount,
+      // The offset of the end of line before the first entry of the main section.
+      mainXref + mainXrefHead.length() - 1
+    };
+
+    target.write(HEADER);
+    linearizationDictionary(linearization, values, firstPage).writeTo(target);
+    firstPageXref(linearization, size, catalog, fileOffsets, mainXref).writeTo(target);
+    byte[] bodyBytes = body.toByteArray();
+    target.write(bodyBytes, 0, (int) firstPageStart);
+    hintStream.writeTo(target);
+    target.write(bodyBytes, (int) firstPageStart, bodyBytes.length - (int) firstPageStart);
+    mainSection.writeTo(target);
+    target.flush();
+  }
+
+  /**
+   * Builds the linearization dictionary, with numbers padded so its length does not depend on them.
+   *
+   * @param object the object number of the dictionary
+   * @param values the file length, the offset and length of the hint stream, the end of the first
+   *     page section, the page count and the offset of the main cross-reference entries
+   * @param firstPage the object number of the first page
+   * @return the dictionary object
+   */
+  private static PdfBytes linearizationDictionary(int object, long[] values, int firstPage) {
+    PdfBytes dictionary = new PdfBytes(160);
+    dictionary.integer(object).ascii(" 0 obj\n<< /Linearized 1 /L ").padded(values[0]);
+    dictionary.ascii(" /H [").padded(values[1]).ascii(" ").padded(values[2]);
+    dictionary.ascii("] /O ").integer(firstPage).ascii(" /E ").padded(values[3]);
+    dictionary.ascii(" /N ").padded(values[4]).ascii(" /T ").padded(values[5]);
+    return dictionary.ascii(" >>\nendobj\n");
+  }
+
+  /**
+   * Builds the cross-reference section of the first page section, whose trailer points back to the
+   * main section.
+   *
+   * @param first the object number of the linearization dictionary, the first of the section
+   * @param size the number of objects in the document
+   * @param catalog the object number of the catalog
+   * @param fileOffsets the offset of each object in the file
+   * @param mainXref the offset of the main cross-reference section
+   * @return the cross-reference section and trailer
+   */
+  private static PdfBytes firstPageXref(
+      int first, int size, int catalog, long[] fileOffsets, long mainXref) {
+    PdfBytes table = new PdfBytes(20 * (size - first) + 128);
+    table.ascii("xref\n").integer(first).ascii(" ").integer(size - first).ascii("\n");
+    for (int i = first; i < size; i++) {
+      xrefEntry(table, fileOffsets[i]);
+    }
+    table.ascii("trailer\n<< /Size ").integer(size).ascii(" /Root ").reference(catalog);
+    table.ascii(" /Prev ").padded(mainXref).ascii(" >>\nstartxref\n0\n%%EOF\n");
+    return table;
+  }
+
+  /**
+   * Builds the primary hint stream: the page offset hint table, telling a viewer where each page
+   * lies and which shared objects it needs, then the shared object hint table. Offsets are those
+   * the objects would have without the hint stream, as the hint tables require.
+   *
+   * @param object the object number of the hint stream
+   * @param pageObjects the object number of each page
+   * @param prefix length of the file before the catalog
+   * @param firstPageEnd offset of the end of the first page section in the body
+   * @param size the number of objects in the document
+   * @return the hint stream object
+   */
+  private PdfBytes hintStream(
+      int object, int[] pageObjects, long prefix, long firstPageEnd, int size) {
+    int pageCount = pageObjects.length;
+    int firstPage = pageObjects[0];
+    // Every page after the first needs the shared resources, fonts and templates.
+    int sharedObjects = size - firstPage;
+    int sharedPerPage = sharedObjects - 2;
+    long[] pageLengths = new long[pageCount];
+    for (int p = 0; p < pageCount; p++) {
+      long end = p + 1 < pageCount ? offsets[pageObjects[p + 1]] : offsets[pageTree];
+      pageLengths[p] = (p == 0 ? firstPageEnd : end) - offsets[pageObjects[p]];
+    }
+    long minLength = Arrays.stream(pageLengths).min().getAsLong();
+    int lengthBits = bits(Arrays.stream(pageLengths).max().getAsLong() - minLength);
+    int minObjects = pageCount > 1 ? 2 : sharedObjects;
+    int objectBits = bits(sharedObjects - minObjects);
+    int sharedCountBits = pageCount > 1 ? bits(sharedPerPage) : 0;
+    int sharedIdBits = bits(sharedObjects - 1);
+
+    BitWriter hints = new BitWriter();
+    hints.write(minObjects, 32);
+    hints.write(prefix + offsets[firstPage], 32);
+    hints.write(objectBits, 16);
+    hints.write(minLength, 32);
+    hints.write(lengthBits, 16);
+    // Content stream offsets and lengths are given as viewers read them: no offset, and the
+    // page length standing in for the content length.
+    hints.write(0, 32);
+    hints.write(0, 16);
+    hints.write(minLength, 32);
+    hints.write(lengthBits, 16);
+    hints.write(sharedCountBits, 16);
+    hints.write(sharedIdBits, 16);
+    hints.write(0, 16);
+    hints.write(1, 16);
+    for (int p = 0; p < pageCount; p++) {
+      hints.write((p == 0 ? sharedObjects : 2) - minObjects, objectBits);
+    }
+    hints.align();
+    for (long pageLength : pageLengths) {
+      hints.write(pageLength - minLength, lengthBits);
+    }
+    hints.align();
+    for (int p = 0; p < pageCount; p++) {
+      hints.write(p == 0 ? 0 : sharedPerPage, sharedCountBits);
+    }
+    hints.align();
+    for (int p = 1; p < pageCount; p++) {
+      // Shared object identifiers index the shared object table, whose first entries are the
+      // objects of the first page section; the page and its content are entries 0 and 1.
+      for (int id = 2; id < sharedObjects; id++) {
+        hints.write(id, sharedIdBits);
+      }
+    }
+    hints.align();
+    for (long pageLength : pageLengths) {
+      hints.write(pageLength - minLength, lengthBits);
+    }
+    hints.align();
+    // Taken before the shared object hint table is written, as the stream dictionary gives it.
+    final int sharedTable = hints.size();
+
+    long[] groupLengths = new long[sharedObjects];
+    for (int i = 0; i < sharedObjects; i++) {
+      int number = firstPage + i;
+      long end = number + 1 < size ? offsets[number + 1] : firstPageEnd;
+      groupLengths[i] = end - offsets[number];
+    }
+    long minGroup = Arrays.stream(groupLengths).min().getAsLong();
+    int groupBits = bits(Arrays.stream(groupLengths).max().getAsLong() - minGroup);
+    // No objects lie in a shared objects section of their own: all are in the first page's.
+    hints.write(0, 32);
+    hints.write(0, 32);
+    hints.write(sharedObjects, 32);
+    hints.write(sharedObjects, 32);
+    hints.write(0, 16);
+    hints.write(minGroup, 32);
+    hints.write(groupBits, 16);
+    for (long groupLength : groupLengths) {
+      hints.write(groupLength - minGroup, groupBits);
+    }
+    hints.align();
+    for (int i = 0; i < sharedObjects; i++) {
+      hints.write(0, 1);
+    }
+    hints.align();
+
+    byte[] data = hints.toByteArray();
+    PdfBytes stream = new PdfBytes(data.length + 64);
+    stream.integer(object).ascii(" 0 obj\n<< /Length ").integer(data.length);
+    stream.ascii(" /S ").integer(sharedTable).ascii(" >>\nstream\n");
+    return stream.bytes(data).ascii("\nendstream\nendobj\n");
+  }
+
+  /**
+   * Returns the number of bits needed to write a value.
+   *
+   * @param value the value, not negative
+   * @return the number of bits
+   */
+  private static int bits(long value) {
+    return 64 - Long.numberOfLeadingZeros(value);
+  }
+
+  /** Packs the unsigned numbers of hint tables into bytes, most significant bit first. */
+  private static final class BitWriter {
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+    /** Bits not yet written, in the low end. */
+    private int pending;
+
+    /** Number of pending bits. */
+    private int pendingBits;
+
+    void write(long value, int bits) {
+      for (int i = bits - 1; i >= 0; i--) {
+        pending = pending << 1 | (int) (value >>> i & 1);
+        if (++pendingBits == 8) {
+          bytes.write(pending);
+          pending = 0;
+          pendingBits = 0;
+        }
+      }
+    }
+
+    /** Pads the last byte with zero bits, as each hint table item ends on a byte boundary. */
+    void align() {
+      if (pendingBits > 0) {
+        write(0, 8 - pendingBits);
+      }
+    }
+
+    int size() {
+      return bytes.size();
+    }
+
+    byte[] toByteArray() {
+      return bytes.toByteArray();
+    }
+  }
+}
@@ -0,0 +1,420 @@
+package com.knrhenry.wordsearch;
+
+import com.knrhenry.wordsearch.PdfLayout.FontMeasure;
+import com.knrhenry.wordsearch.PdfLayout.GridPage;
+import com.knrhenry.wordsearch.PdfLayout.Page;
+import com.knrhenry.wordsearch.PdfLayout.PageGeometry;
+import com.knrhenry.wordsearch.PdfLayout.PageKind;
+import com.knrhenry.wordsearch.PdfLayout.PuzzleLayout;
+import com.knrhenry.wordsearch.PdfLayout.TemplateKey;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfTemplate;
+import com.lowagie.text.pdf.PdfTextArray;
+import com.lowagie.text.pdf.PdfWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Renders puzzles with OpenPDF. OpenPDF writes each page as soon as it is finished instead of
+ * keeping the whole document as an object graph until it is saved. Fonts and templates follow
+ * {@link PdfBoxRenderer}: Standard 14 fonts for WinAnsi text, the bundled TrueType fonts embedded
+ * as subsets otherwise, and the static text of each kind of page drawn once into a template.
+ */
+final class OpenPdfRenderer implements PdfRenderer {
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Pages are laid out concurrently on the given pool, then written to the document in order,
+   * since an OpenPDF document must only be modified by one thread.
+   */
+  @Override
+  public void writeBook(
+      List<WordSearch> puzzles,
+      boolean answers,
+      String footerUrl,
+      PdfOptions options,
+      OutputStream out,
+      Executor pool)
+      throws IOException {
+    boolean unicode = PdfLayout.needsUnicode(puzzles, footerUrl);
+    boolean labelled = puzzles.size() > 1 || answers;
+    try {
+      BaseFont boldFont = unicode ? FontHolder.BOLD : standardFont(BaseFont.HELVETICA_BOLD);
+      BaseFont textFont = unicode ? FontHolder.REGULAR : standardFont(BaseFont.HELVETICA);
+      BaseFont gridFont = unicode ? boldFont : standardFont(BaseFont.COURIER_BOLD);
+      BaseFont footerFont = unicode ? textFont : standardFont(BaseFont.HELVETICA_OBLIQUE);
+      List<CompletableFuture<PuzzleLayout>> layouts =
+          PdfLayout.layOut(puzzles, answers, options, measure(boldFont), measure(gridFont), pool);
+      Document document = new Document();
+      PdfWriter pdfWriter = PdfWriter.getInstance(document, out);
+      pdfWriter.setCloseStream(false);
+      PageWriter writer =
+          new PageWriter(
+              document,
+              pdfWriter,
+              boldFont,
+              textFont,
+              gridFont,
+              footerFont,
+              footerUrl,
+              options.isGridLines());
+      for (int i = 0; i < layouts.size(); i++) {
+        String label = labelled ? "Puzzle " + (i + 1) : null;
+        writer.write(PdfLayout.pages(PdfLayout.join(layouts.get(i)), label, false));
+      }
+      if (answers) {
+        for (int i = 0; i < layouts.size(); i++) {
+          String label = "Answers " + (i + 1);
+          writer.write(PdfLayout.pages(PdfLayout.join(layouts.get(i)), label, true));
+        }
+      }
+      // Writes the templates, fonts and cross-reference table, then flushes the stream.
+      document.close();
+    } catch (DocumentException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Returns a Standard 14 font in the WinAnsi encoding.
+   *
+   * @param name the font name
+   * @return the font
+   * @throws IOException if the font metrics cannot be read
+   */
+  private static BaseFont standardFont(String name) throws IOException {
+    return BaseFont.createFont(name, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+  }
+
+  /**
+   * Adapts an OpenPDF font to the layout.
+   *
+   * @param font the font
+   * @return its measurements
+   */
+  private static FontMeasure measure(BaseFont font) {
+    return new FontMeasure() {
+      @Override
+      public String name() {
+        return "OpenPDF/" + font.getPostscriptFontName();
+      }
+
+      @Override
+      public float width(String text) {
+        return font.getWidth(text);
+      }
+
+      @Override
+      public float ascent() {
+        return font.getFontDescriptor(BaseFont.ASCENT, 1000);
+      }
+
+      @Override
+      public float capHeight() {
+        return font.getFontDescriptor(BaseFont.CAPHEIGHT, 1000);
+      }
+    };
+  }
+
+  /** Adds pages to one document. Each kind of page stamps a template drawn once per document. */
+  private static final class PageWriter {
+    /** The document the pages are added to. */
+    private final Document document;
+
+    /** Writer of the document, which hands out the page content once the document is open. */
+    private final PdfWriter pdfWriter;
+
+    /** Content of the current page, or null until the document is open. */
+    private PdfContentByte content;
+
+    /** Font of the header and word list title. */
+    private final BaseFont boldFont;
+
+    /** Font of the word list, page labels and part notes. */
+    private final BaseFont textFont;
+
+    /** Font of the grid letters. */
+    private final BaseFont gridFont;
+
+    /** Font of the footer URL. */
+    private final BaseFont footerFont;
+
+    /** URL shown at the bottom of every page, or null. */
+    private final String footerUrl;
+
+    /** Whether to draw lines between the grid cells. */
+    private final boolean gridLines;
+
+    /** Templates drawn so far. */
+    private final Map<TemplateKey, PdfTemplate> templates = new HashMap<>();
+
+    PageWriter(
+        Document document,
+        PdfWriter pdfWriter,
+        BaseFont boldFont,
+        BaseFont textFont,
+        BaseFont gridFont,
+        BaseFont footerFont,
+        String footerUrl,
+        boolean gridLines) {
+      this.document = document;
+      this.pdfWriter = pdfWriter;
+      this.boldFont = boldFont;
+      this.textFont = textFont;
+      this.gridFont = gridFont;
+      this.footerFont = footerFont;
+      this.footerUrl = footerUrl;
+      this.gridLines = gridLines;
+    }
+
+    /**
+     * Adds pages stamped with their templates.
+     *
+     * @param pages the pages, in order
+     * @throws IOException if a text width cannot be read
+     */
+    void write(List<Page> pages) throws IOException {
+      for (Page page : pages) {
+        PageGeometry geometry = page.template().geometry();
+        // The size applies to the page the next call starts; the first call opens the document.
+        document.setPageSize(new Rectangle(geometry.width(), geometry.height()));
+        if (document.isOpen()) {
+          document.newPage();
+        } else {
+          document.open();
+          content = pdfWriter.getDirectContent();
+        }
+        content.addTemplate(template(page.template()), 0, 0);
+        if (page.label() != null) {
+          showText(
+              content,
+              textFont,
+              PdfLayout.LABEL_FONT_SIZE,
+              PdfLayout.labelX(measure(textFont), page.label(), geometry.width()),
+              geometry.headerY(),
+              page.label());
+        }
+        if (page.gridPage() != null) {
+          drawGrid(page.layout(), page.gridPage(), page.template().answerKey());
+        }
+        if (page.endLine() > page.firstLine()) {
+          List<String> wordLines = page.layout().wordLines();
+          for (int line = page.firstLine(); line < page.endLine(); line++) {
+            showText(
+                content,
+                textFont,
+                PdfLayout.WORD_FONT_SIZE,
+                PdfLayout.MARGIN,
+                page.wordLineY(line),
+                wordLines.get(line));
+          }
+        }
+        if (page.note() != null) {
+          showText(
+              content,
+              textFont,
+              PdfLayout.NOTE_FONT_SIZE,
+              PdfLayout.MARGIN,
+              PdfLayout.PART_NOTE_Y,
+              page.note());
+        }
+      }
+    }
+
+    /**
+     * Draws a grid, or one part of a tiled grid, with its optional cell lines and answer marks.
+     * Each row is one text object, and the cell lines are one path, so the content grows linearly
+     * with the number of cells.
+     *
+     * @param layout the layout of the puzzle
+     * @param gridPage the part of the grid on this page
+     * @param answerKey true to mark every word
+     */
+    private void drawGrid(PuzzleLayout layout, GridPage gridPage, boolean answerKey) {
+      GridTiling.Tile tile = gridPage.tile();
+      float cellSize = layout.cellSize();
+      float[] bounds = layout.bounds(tile);
+      float left = bounds[0];
+      float bottom = bounds[1];
+      float right = bounds[2];
+      float top = bounds[3];
+      if (tile.sharesRight() || tile.sharesBelow()) {
+        // Shades the cells the next part repeats, showing where the parts overlap.
+        float shared = PdfLayout.TILE_OVERLAP * cellSize;
+        content.saveState();
+        content.setGrayFill(PdfLayout.SHARED_CELL_GRAY);
+        if (tile.sharesRight()) {
+          content.rectangle(right - shared, bottom, shared, top - bottom);
+        }
+        if (tile.sharesBelow()) {
+          content.rectangle(left, bottom, right - left, shared);
+        }
+        content.fill();
+        content.restoreState();
+      }
+      if (answerKey) {
+        content.saveState();
+        content.rectangle(left, bottom, right - left, top - bottom);
+        content.clip();
+        content.newPath();
+        content.setGrayStroke(PdfLayout.ANSWER_GRAY);
+        content.setLineWidth(cellSize * PdfLayout.ANSWER_STROKE);
+        content.setLineCap(PdfContentByte.LINE_CAP_ROUND);
+        float[] marks = layout.answerMarks(tile);
+        for (int i = 0; i < marks.length; i += 4) {
+          content.moveTo(marks[i], marks[i + 1]);
+          content.lineTo(marks[i + 2], marks[i + 3]);
+        }
+        content.stroke();
+        content.restoreState();
+      }
+      if (gridLines) {
+        content.saveState();
+        content.setGrayStroke(PdfLayout.GRID_LINE_GRAY);
+        content.setLineWidth(PdfLayout.GRID_LINE_WIDTH);
+        for (int r = 0; r <= tile.rows(); r++) {
+          content.moveTo(left, top - r * cellSize);
+          content.lineTo(right, top - r * cellSize);
+        }
+        for (int c = 0; c <= tile.cols(); c++) {
+          content.moveTo(left + c * cellSize, top);
+          content.lineTo(left + c * cellSize, bottom);
+        }
+        content.stroke();
+        content.restoreState();
+      }
+      content.setFontAndSize(gridFont, layout.gridFontSize());
+      if (layout.characterSpacing() != 0) {
+        content.setCharacterSpacing(layout.characterSpacing());
+      }
+      Object[][] runs = gridPage.runs();
+      for (int row = 0; row < runs.length; row++) {
+        PdfTextArray run = new PdfTextArray();
+        for (Object part : runs[row]) {
+          if (part instanceof String glyphs) {
+            run.add(glyphs);
+          } else {
+            run.add((float) part);
+          }
+        }
+        content.beginText();
+        content.setTextMatrix(gridPage.rowX()[row], layout.rowBaseline(row));
+        content.showText(run);
+        content.endText();
+      }
+      if (layout.characterSpacing() != 0) {
+        content.setCharacterSpacing(0);
+      }
+    }
+
+    /**
+     * Returns the template of a kind of page, drawing it on first use.
+     *
+     * @param key the page size, kind of page and whether it is an answer page
+     * @return the template
+     * @throws IOException if a text width cannot be read
+     */
+    private PdfTemplate template(TemplateKey key) throws IOException {
+      PdfTemplate template = templates.get(key);
+      if (template == null) {
+        template = drawTemplate(key);
+        templates.put(key, template);
+      }
+      return template;
+    }
+
+    /**
+     * Draws the text a kind of page shows whatever its puzzle into a template: the header, the word
+     * list title where the page has one and the footer. Every page of that kind stamps the
+     * template, so the document stores the static content once.
+     *
+     * @param key the page size, kind of page and whether it is an answer page
+     * @return the template
+     * @throws IOException if a text width cannot be read
+     */
+    private PdfTemplate drawTemplate(TemplateKey key) throws IOException {
+      PageGeometry geometry = key.geometry();
+      PdfTemplate template = content.createTemplate(geometry.width(), geometry.height());
+      // Header
+      showText(
+          template,
+          boldFont,
+          PdfLayout.HEADER_FONT_SIZE,
+          key.headerX(),
+          geometry.headerY(),
+          key.header());
+      // Word list title
+      if (key.kind() != PageKind.TILE) {
+        showText(
+            template,
+            boldFont,
+            PdfLayout.TITLE_FONT_SIZE,
+            PdfLayout.MARGIN,
+            key.titleY(),
+            PdfLayout.WORD_LIST_TITLE);
+      }
+      // Draw footer URL if provided
+      if (footerUrl != null && !footerUrl.isBlank()) {
+        float footerX =
+            PdfLayout.centeredX(
+                measure(footerFont), footerUrl, PdfLayout.NOTE_FONT_SIZE, geometry.width());
+        showText(
+            template, footerFont, PdfLayout.NOTE_FONT_SIZE, footerX, PdfLayout.FOOTER_Y, footerUrl);
+      }
+      return template;
+    }
+
+    /**
+     * Shows one line of text in its own text object.
+     *
+     * @param content the content to draw on
+     * @param font the font
+     * @param fontSize the font size
+     * @param x start of the text
+     * @param y baseline of the text
+     * @param text the text
+     */
+    private static void showText(
+        PdfContentByte content, BaseFont font, float fontSize, float x, float y, String text) {
+      content.beginText();
+      content.setFontAndSize(font, fontSize);
+      content.setTextMatrix(x, y);
+      content.showText(text);
+      content.endText();
+    }
+  }
+
+  /**
+   * Loads the bundled fonts on first use. OpenPDF keeps the glyphs each document uses with the
+   * document, so one font instance serves every document.
+   */
+  private static final class FontHolder {
+    private static final BaseFont REGULAR = load(PdfFonts.REGULAR_RESOURCE);
+
+    private static final BaseFont BOLD = load(PdfFonts.BOLD_RESOURCE);
+
+    private static BaseFont load(String resource) {
+      try (InputStream input = OpenPdfRenderer.class.getResourceAsStream(resource)) {
+        if (input == null) {
+          throw new IOException("Missing font resource " + resource);
+        }
+        // The name only tells OpenPDF the bytes are a TrueType font.
+        return BaseFont.createFont(
+            resource, BaseFont.IDENTITY_H, BaseFont.EMBEDDED, false, input.readAllBytes(), null);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read the font " + resource + ".", e);
+      }
+    }
+  }
+}
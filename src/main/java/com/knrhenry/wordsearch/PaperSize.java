@@ -0,0 +1,67 @@
+package com.knrhenry.wordsearch;
+
+/**
+ * Paper sizes a PDF can be laid out on, in points. A grid too large to show readably on one page is
+ * tiled across several pages of the chosen size; {@link #POSTER} instead sizes one page to fit the
+ * whole grid.
+ */
+public enum PaperSize {
+  /** US Letter, 8.5 by 11 inches. */
+  LETTER(612, 792),
+
+  /** US Legal, 8.5 by 14 inches. */
+  LEGAL(612, 1008),
+
+  /** US Tabloid, 11 by 17 inches. */
+  TABLOID(792, 1224),
+
+  /** ISO A4. */
+  A4(595.28f, 841.89f),
+
+  /** ISO A3. */
+  A3(841.89f, 1190.55f),
+
+  /** ISO A2. */
+  A2(1190.55f, 1683.78f),
+
+  /** ISO A1. */
+  A1(1683.78f, 2383.94f),
+
+  /** ISO A0. */
+  A0(2383.94f, 3370.39f),
+
+  /**
+   * A page as wide as the grid needs to be readable, in the proportions of US Letter and never
+   * smaller than it. The grid is never tiled.
+   */
+  POSTER(612, 792);
+
+  /** Page width in points. */
+  private final float width;
+
+  /** Page height in points. */
+  private final float height;
+
+  PaperSize(float width, float height) {
+    this.width = width;
+    this.height = height;
+  }
+
+  /**
+   * Returns the page width.
+   *
+   * @return the width in points; the smallest width for {@link #POSTER}
+   */
+  public float getWidth() {
+    return width;
+  }
+
+  /**
+   * Returns the page height.
+   *
+   * @return the height in points; the smallest height for {@link #POSTER}
+   */
+  public float getHeight() {
+    return height;
+  }
+}
@@ -0,0 +1,39 @@
+package com.knrhenry.wordsearch;
+
+/**
+ * Built-in PDF renderers, selected with the {@code wordsearch.pdf.backend} setting.
+ *
+ * <p>{@code PdfBackendBenchmarkTest} compares them. OpenPDF renders every document of the benchmark
+ * faster than PDFBox, by 1.2 to 2.6 times, and allocates 1.5 to 6 times less, so it is the library
+ * the built-in writer falls back to. PDFBox stays selectable, as its embedded font subsets are
+ * about half the size.
+ */
+public enum PdfBackend {
+  /**
+   * The built-in writer of Standard 14 font documents, falling back to OpenPDF for documents that
+   * need the bundled Unicode fonts.
+   */
+  DIRECT(new DirectPdfRenderer(new OpenPdfRenderer())),
+
+  /** Apache PDFBox. */
+  PDFBOX(new PdfBoxRenderer()),
+
+  /** OpenPDF. */
+  OPENPDF(new OpenPdfRenderer());
+
+  /** The renderer; renderers keep no per-document state, so one instance serves every call. */
+  private final PdfRenderer renderer;
+
+  PdfBackend(PdfRenderer renderer) {
+    this.renderer = renderer;
+  }
+
+  /**
+   * Returns the renderer of the backend.
+   *
+   * @return the renderer
+   */
+  public PdfRenderer renderer() {
+    return renderer;
+  }
+}
@@ -0,0 +1,383 @@
+package com.knrhenry.wordsearch;
+
+import com.knrhenry.wordsearch.PdfLayout.FontMeasure;
+import com.knrhenry.wordsearch.PdfLayout.GridPage;
+import com.knrhenry.wordsearch.PdfLayout.Page;
+import com.knrhenry.wordsearch.PdfLayout.PageGeometry;
+import com.knrhenry.wordsearch.PdfLayout.PageKind;
+import com.knrhenry.wordsearch.PdfLayout.PuzzleLayout;
+import com.knrhenry.wordsearch.PdfLayout.TemplateKey;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDPageContentStream.AppendMode;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+
+/**
+ * Renders puzzles with Apache PDFBox. Puzzles whose text fits the WinAnsi encoding use the Standard
+ * 14 fonts; any other text, such as Greek letters, is set in the bundled TrueType fonts, embedded
+ * as subsets. The header, word list title and footer are drawn once into a template each page
+ * stamps, and the fonts are stored once in a resource dictionary all pages point to.
+ */
+final class PdfBoxRenderer implements PdfRenderer {
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Pages are laid out concurrently on the given pool, then written to the document in order,
+   * since a PDFBox document must only be modified by one thread.
+   */
+  @Override
+  public void writeBook(
+      List<WordSearch> puzzles,
+      boolean answers,
+      String footerUrl,
+      PdfOptions options,
+      OutputStream out,
+      Executor pool)
+      throws IOException {
+    boolean unicode = PdfLayout.needsUnicode(puzzles, footerUrl);
+    boolean labelled = puzzles.size() > 1 || answers;
+    try (PDDocument doc = new PDDocument()) {
+      PDFont boldFont = unicode ? PdfFonts.bold(doc) : PDType1Font.HELVETICA_BOLD;
+      PDFont textFont = unicode ? PdfFonts.regular(doc) : PDType1Font.HELVETICA;
+      PDFont gridFont = unicode ? boldFont : PDType1Font.COURIER_BOLD;
+      PDFont footerFont = unicode ? textFont : PDType1Font.HELVETICA_OBLIQUE;
+      List<CompletableFuture<PuzzleLayout>> layouts =
+          PdfLayout.layOut(puzzles, answers, options, measure(boldFont), measure(gridFont), pool);
+      PageWriter writer =
+          new PageWriter(
+              doc, boldFont, textFont, gridFont, footerFont, footerUrl, options.isGridLines());
+      for (int i = 0; i < layouts.size(); i++) {
+        String label = labelled ? "Puzzle " + (i + 1) : null;
+        writer.write(PdfLayout.pages(PdfLayout.join(layouts.get(i)), label, false));
+      }
+      if (answers) {
+        for (int i = 0; i < layouts.size(); i++) {
+          String label = "Answers " + (i + 1);
+          writer.write(PdfLayout.pages(PdfLayout.join(layouts.get(i)), label, true));
+        }
+      }
+      // PDDocument.save closes its stream, so the caller's stream is shielded from that.
+      OutputStream buffered =
+          new BufferedOutputStream(out) {
+            @Override
+            public void close() throws IOException {
+              flush();
+            }
+          };
+      doc.save(buffered);
+    }
+  }
+
+  /**
+   * Adapts a PDFBox font to the layout.
+   *
+   * @param font the font
+   * @return its measurements
+   */
+  private static FontMeasure measure(PDFont font) {
+    return new FontMeasure() {
+      @Override
+      public String name() {
+        return font.getName();
+      }
+
+      @Override
+      public float width(String text) throws IOException {
+        return font.getStringWidth(text);
+      }
+
+      @Override
+      public float ascent() {
+        return font.getFontDescriptor().getAscent();
+      }
+
+      @Override
+      public float capHeight() {
+        return font.getFontDescriptor().getCapHeight();
+      }
+    };
+  }
+
+  /**
+   * Adds pages to one document. Pages share one resource dictionary, and each kind of page stamps a
+   * template drawn once per document.
+   */
+  private static final class PageWriter {
+    /** The document the pages are added to. */
+    private final PDDocument doc;
+
+    /** Font of the header and word list title. */
+    private final PDFont boldFont;
+
+    /** Font of the word list, page labels and part notes. */
+    private final PDFont textFont;
+
+    /** Font of the grid letters. */
+    private final PDFont gridFont;
+
+    /** Font of the footer URL. */
+    private final PDFont footerFont;
+
+    /** URL shown at the bottom of every page, or null. */
+    private final String footerUrl;
+
+    /** Whether to draw lines between the grid cells. */
+    private final boolean gridLines;
+
+    /** Resource dictionary shared by every page. */
+    private final PDResources resources = new PDResources();
+
+    /** Templates drawn so far. */
+    private final Map<TemplateKey, PDFormXObject> templates = new HashMap<>();
+
+    PageWriter(
+        PDDocument doc,
+        PDFont boldFont,
+        PDFont textFont,
+        PDFont gridFont,
+        PDFont footerFont,
+        String footerUrl,
+        boolean gridLines) {
+      this.doc = doc;
+      this.boldFont = boldFont;
+      this.textFont = textFont;
+      this.gridFont = gridFont;
+      this.footerFont = footerFont;
+      this.footerUrl = footerUrl;
+      this.gridLines = gridLines;
+    }
+
+    /**
+     * Adds pages stamped with their templates.
+     *
+     * @param pages the pages, in order
+     * @throws IOException if a page cannot be written
+     */
+    void write(List<Page> pages) throws IOException {
+      for (Page page : pages) {
+        PageGeometry geometry = page.template().geometry();
+        PDPage pdPage = new PDPage(new PDRectangle(geometry.width(), geometry.height()));
+        pdPage.setResources(resources);
+        doc.addPage(pdPage);
+        try (PDPageContentStream content =
+            new PDPageContentStream(doc, pdPage, AppendMode.APPEND, true, true)) {
+          content.drawForm(template(page.template()));
+          if (page.label() != null) {
+            showText(
+                content,
+                textFont,
+                PdfLayout.LABEL_FONT_SIZE,
+                PdfLayout.labelX(measure(textFont), page.label(), geometry.width()),
+                geometry.headerY(),
+                page.label());
+          }
+          if (page.gridPage() != null) {
+            drawGrid(content, page.layout(), page.gridPage(), page.template().answerKey());
+          }
+          if (page.endLine() > page.firstLine()) {
+            content.setFont(textFont, PdfLayout.WORD_FONT_SIZE);
+            List<String> wordLines = page.layout().wordLines();
+            for (int line = page.firstLine(); line < page.endLine(); line++) {
+              content.beginText();
+              content.newLineAtOffset(PdfLayout.MARGIN, page.wordLineY(line));
+              content.showText(wordLines.get(line));
+              content.endText();
+            }
+          }
+          if (page.note() != null) {
+            showText(
+                content,
+                textFont,
+                PdfLayout.NOTE_FONT_SIZE,
+                PdfLayout.MARGIN,
+                PdfLayout.PART_NOTE_Y,
+                page.note());
+          }
+        }
+      }
+    }
+
+    /**
+     * Draws a grid, or one part of a tiled grid, with its optional cell lines and answer marks.
+     * Each row is one text object, and the cell lines are one path, so the content grows linearly
+     * with the number of cells.
+     *
+     * @param content the page content
+     * @param layout the layout of the puzzle
+     * @param gridPage the part of the grid on this page
+     * @param answerKey true to mark every word
+     * @throws IOException if the grid cannot be written
+     */
+    private void drawGrid(
+        PDPageContentStream content, PuzzleLayout layout, GridPage gridPage, boolean answerKey)
+        throws IOException {
+      GridTiling.Tile tile = gridPage.tile();
+      float cellSize = layout.cellSize();
+      float[] bounds = layout.bounds(tile);
+      float left = bounds[0];
+      float bottom = bounds[1];
+      float right = bounds[2];
+      float top = bounds[3];
+      if (tile.sharesRight() || tile.sharesBelow()) {
+        // Shades the cells the next part repeats, showing where the parts overlap.
+        float shared = PdfLayout.TILE_OVERLAP * cellSize;
+        content.saveGraphicsState();
+        content.setNonStrokingColor(PdfLayout.SHARED_CELL_GRAY);
+        if (tile.sharesRight()) {
+          content.addRect(right - shared, bottom, shared, top - bottom);
+        }
+        if (tile.sharesBelow()) {
+          content.addRect(left, bottom, right - left, shared);
+        }
+        content.fill();
+        content.restoreGraphicsState();
+      }
+      if (answerKey) {
+        content.saveGraphicsState();
+        content.addRect(left, bottom, right - left, top - bottom);
+        content.clip();
+        content.setStrokingColor(PdfLayout.ANSWER_GRAY);
+        content.setLineWidth(cellSize * PdfLayout.ANSWER_STROKE);
+        content.setLineCapStyle(1);
+        float[] marks = layout.answerMarks(tile);
+        for (int i = 0; i < marks.length; i += 4) {
+          content.moveTo(marks[i], marks[i + 1]);
+          content.lineTo(marks[i + 2], marks[i + 3]);
+        }
+        content.stroke();
+        content.restoreGraphicsState();
+      }
+      if (gridLines) {
+        content.saveGraphicsState();
+        content.setStrokingColor(PdfLayout.GRID_LINE_GRAY);
+        content.setLineWidth(PdfLayout.GRID_LINE_WIDTH);
+        for (int r = 0; r <= tile.rows(); r++) {
+          content.moveTo(left, top - r * cellSize);
+          content.lineTo(right, top - r * cellSize);
+        }
+        for (int c = 0; c <= tile.cols(); c++) {
+          content.moveTo(left + c * cellSize, top);
+          content.lineTo(left + c * cellSize, bottom);
+        }
+        content.stroke();
+        content.restoreGraphicsState();
+      }
+      content.setFont(gridFont, layout.gridFontSize());
+      if (layout.characterSpacing() != 0) {
+        content.setCharacterSpacing(layout.characterSpacing());
+      }
+      Object[][] runs = gridPage.runs();
+      for (int row = 0; row < runs.length; row++) {
+        content.beginText();
+        content.newLineAtOffset(gridPage.rowX()[row], layout.rowBaseline(row));
+        content.showTextWithPositioning(runs[row]);
+        content.endText();
+      }
+      if (layout.characterSpacing() != 0) {
+        content.setCharacterSpacing(0);
+      }
+    }
+
+    /**
+     * Returns the template of a kind of page, drawing it on first use.
+     *
+     * @param key the page size, kind of page and whether it is an answer page
+     * @return the template
+     * @throws IOException if the template cannot be written
+     */
+    private PDFormXObject template(TemplateKey key) throws IOException {
+      PDFormXObject template = templates.get(key);
+      if (template == null) {
+        template = drawTemplate(key);
+        templates.put(key, template);
+      }
+      return template;
+    }
+
+    /**
+     * Draws the text a kind of page shows whatever its puzzle into a form XObject: the header, the
+     * word list title where the page has one and the footer. Every page of that kind stamps the
+     * form, so the document stores the static content once. PDFBox writes form content through
+     * appearance streams, which are form XObjects.
+     *
+     * @param key the page size, kind of page and whether it is an answer page
+     * @return the template
+     * @throws IOException if the template cannot be written
+     */
+    private PDFormXObject drawTemplate(TemplateKey key) throws IOException {
+      PageGeometry geometry = key.geometry();
+      PDAppearanceStream template = new PDAppearanceStream(doc);
+      template.setBBox(new PDRectangle(geometry.width(), geometry.height()));
+      template.setResources(new PDResources());
+      try (PDPageContentStream content = new PDPageContentStream(doc, template)) {
+        // Header
+        showText(
+            content,
+            boldFont,
+            PdfLayout.HEADER_FONT_SIZE,
+            key.headerX(),
+            geometry.headerY(),
+            key.header());
+        // Word list title
+        if (key.kind() != PageKind.TILE) {
+          showText(
+              content,
+              boldFont,
+              PdfLayout.TITLE_FONT_SIZE,
+              PdfLayout.MARGIN,
+              key.titleY(),
+              PdfLayout.WORD_LIST_TITLE);
+        }
+        // Draw footer URL if provided
+        if (footerUrl != null && !footerUrl.isBlank()) {
+          float footerX =
+              PdfLayout.centeredX(
+                  measure(footerFont), footerUrl, PdfLayout.NOTE_FONT_SIZE, geometry.width());
+          showText(
+              content,
+              footerFont,
+              PdfLayout.NOTE_FONT_SIZE,
+              footerX,
+              PdfLayout.FOOTER_Y,
+              footerUrl);
+        }
+      }
+      return template;
+    }
+
+    /**
+     * Shows one line of text in its own text object.
+     *
+     * @param content the content to draw on
+     * @param font the font
+     * @param fontSize the font size
+     * @param x start of the text
+     * @param y baseline of the text
+     * @param text the text
+     * @throws IOException if the text cannot be written
+     */
+    private static void showText(
+        PDPageContentStream content, PDFont font, float fontSize, float x, float y, String text)
+        throws IOException {
+      content.beginText();
+      content.setFont(font, fontSize);
+      content.newLineAtOffset(x, y);
+      content.showText(text);
+      content.endText();
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.knrhenry.wordsearch;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+
+/**
+ * Bundled TrueType fonts for PDF text the Standard 14 fonts cannot show, such as Greek letters. The
+ * font files are read into memory once; each document parses its own copy into a {@link
+ * PDType0Font}, since a parsed font reads its tables through one shared stream and is not safe to
+ * subset from several threads, and embeds only the subset of glyphs it actually uses when it is
+ * saved.
+ */
+final class PdfFonts {
+  /** Classpath resource of the regular font. */
+  static final String REGULAR_RESOURCE = "/fonts/DejaVuSans.ttf";
+
+  /** Classpath resource of the bold font. */
+  static final String BOLD_RESOURCE = "/fonts/DejaVuSans-Bold.ttf";
+
+  /** Encoding of the Standard 14 fonts. */
+  private static final Charset WIN_ANSI = Charset.forName("windows-1252");
+
+  private PdfFonts() {}
+
+  /** Reads the bundled fonts if that has not happened yet, so the first PDF does not pay for it. */
+  static void load() {
+    FontHolder.touch();
+  }
+
+  /**
+   * Checks whether text can only be shown with the bundled fonts.
+   *
+   * @param texts the strings the document will show
+   * @return true if a character is outside the WinAnsi encoding of the Standard 14 fonts
+   */
+  static boolean needsUnicode(Iterable<String> texts) {
+    CharsetEncoder encoder = WIN_ANSI.newEncoder();
+    for (String text : texts) {
+      if (text != null && !encoder.canEncode(text)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the regular font for a document.
+   *
+   * @param doc the document the font is used in
+   * @return the font, embedded as a subset when the document is saved
+   * @throws IOException if the font cannot be added to the document
+   */
+  static PDFont regular(PDDocument doc) throws IOException {
+    return PDType0Font.load(doc, new ByteArrayInputStream(FontHolder.REGULAR), true);
+  }
+
+  /**
+   * Returns the bold font for a document.
+   *
+   * @param doc the document the font is used in
+   * @return the font, embedded as a subset when the document is saved
+   * @throws IOException if the font cannot be added to the document
+   */
+  static PDFont bold(PDDocument doc) throws IOException {
+    return PDType0Font.load(doc, new ByteArrayInputStream(FontHolder.BOLD), true);
+  }
+
+  /** Reads the bundled font files on first use. */
+  private static final class FontHolder {
+    private static final byte[] REGULAR = read(REGULAR_RESOURCE);
+
+    private static final byte[] BOLD = read(BOLD_RESOURCE);
+
+    /** Does nothing; calling it initializes the holder. */
+    private static void touch() {}
+
+    private static byte[] read(String resource) {
+      try (InputStream input = PdfFonts.class.getResourceAsStream(resource)) {
+        if (input == null) {
+          throw new IOException("Missing font resource " + resource);
+        }
+        return input.readAllBytes();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not read the font " + resource + ".", e);
+      }
+    }
+  }
+}
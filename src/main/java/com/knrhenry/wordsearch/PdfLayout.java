@@ -0,0 +1,831 @@
+package com.knrhenry.wordsearch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Page layout of puzzle PDFs, shared by every {@link PdfRenderer}. The layout decides what goes on
+ * each page and where, in points, from the font measurements a renderer supplies; the renderer only
+ * turns the pages into PDF with its own library. A grid too large to read on one page is tiled
+ * across several pages, and a word list too long for the grid page continues on pages of its own.
+ */
+final class PdfLayout {
+  /** Page margin, half an inch. */
+  static final float MARGIN = 36;
+
+  /** Font size of the page header. */
+  static final float HEADER_FONT_SIZE = 22f;
+
+  /** Font size of the word list title. */
+  static final float TITLE_FONT_SIZE = 14f;
+
+  /** Font size of the word list. */
+  static final float WORD_FONT_SIZE = 12f;
+
+  /** Font size of the page label beside the header. */
+  static final float LABEL_FONT_SIZE = 10f;
+
+  /** Font size of the footer and of the note naming the part of a tiled grid. */
+  static final float NOTE_FONT_SIZE = 9f;
+
+  /** Baseline of the footer, 8pt above the bottom margin. */
+  static final float FOOTER_Y = MARGIN + 8;
+
+  /** Baseline of the note naming the part of a tiled grid, just above the footer. */
+  static final float PART_NOTE_Y = MARGIN + 20;
+
+  /** Width of the lines between grid cells. */
+  static final float GRID_LINE_WIDTH = 0.5f;
+
+  /** Gray level of the lines between grid cells. */
+  static final float GRID_LINE_GRAY = 0.6f;
+
+  /** Gray level of the cells a tiled part shares with its neighbour. */
+  static final float SHARED_CELL_GRAY = 0.9f;
+
+  /** Gray level of the strokes marking words on answer pages. */
+  static final float ANSWER_GRAY = 0.8f;
+
+  /** Width of the strokes marking words on answer pages, relative to the cell size. */
+  static final float ANSWER_STROKE = 0.7f;
+
+  /** Number of rows or columns neighbouring parts of a tiled grid share. */
+  static final int TILE_OVERLAP = 2;
+
+  /** Header of puzzle pages. */
+  static final String HEADER_TEXT = "Word Search Puzzle";
+
+  /** Header of answer pages. */
+  static final String ANSWER_HEADER_TEXT = "Answer Key";
+
+  /** Title above the word list. */
+  static final String WORD_LIST_TITLE = "Word List:";
+
+  /** Space between the header baseline and the grid, reduced for clarity. */
+  private static final float GRID_TOP_PADDING = 60f;
+
+  /** Space between the bottom of the grid and the word list title. */
+  private static final float WORD_LIST_GAP = 30f;
+
+  /** Space between the word list title and the first line of words. */
+  private static final float WORD_LIST_TITLE_GAP = 18f;
+
+  /** Distance between the lines of the word list. */
+  private static final float WORD_LINE_HEIGHT = 16f;
+
+  /** Lowest baseline of the word list, clear of the footer. */
+  private static final float WORD_LIST_BOTTOM = MARGIN + 24;
+
+  /** Lowest edge of a tiled grid, clear of the part note. */
+  private static final float TILE_BOTTOM = MARGIN + 34;
+
+  /** Width given to each word of the word list; narrow pages still get five words a line. */
+  private static final float WORD_COLUMN_WIDTH = 108f;
+
+  /** Fewest words on a line of the word list. */
+  private static final int MIN_WORDS_PER_LINE = 5;
+
+  /** Smallest cell the smallest grid font still fits in; grids needing less are tiled. */
+  private static final float MIN_CELL_SIZE = 9f;
+
+  /** Cell size of tiled grids. */
+  private static final float TILE_CELL_SIZE = 12f;
+
+  /** Cell size of poster pages, which fits letters at the largest grid font size. */
+  private static final float POSTER_CELL_SIZE = 18f;
+
+  /** Smallest and largest grid font sizes. */
+  private static final int MIN_GRID_FONT_SIZE = 8;
+
+  private static final int MAX_GRID_FONT_SIZE = 18;
+
+  /** Placement of the static page text, by header font name and fixed paper size. */
+  private static final Map<String, PageGeometry> PAGE_GEOMETRIES = new ConcurrentHashMap<>();
+
+  /** Grid letter metrics, by font name and alphabet. */
+  private static final Map<String, LetterMetrics> LETTER_METRICS = new ConcurrentHashMap<>();
+
+  private PdfLayout() {}
+
+  /**
+   * Measurements of a font, in glyph space units of a thousandth of the font size. Renderers adapt
+   * the fonts of their PDF library to it.
+   */
+  interface FontMeasure {
+    /**
+     * Returns a name identifying the font, used to cache measurements across documents.
+     *
+     * @return the font name
+     */
+    String name();
+
+    /**
+     * Measures text.
+     *
+     * @param text the text
+     * @return the advance width of the text
+     * @throws IOException if a glyph width cannot be read
+     */
+    float width(String text) throws IOException;
+
+    /**
+     * Returns the height of the font above the baseline.
+     *
+     * @return the ascent
+     */
+    float ascent();
+
+    /**
+     * Returns the height of the capital letters.
+     *
+     * @return the cap height
+     */
+    float capHeight();
+  }
+
+  /**
+   * Widths of the letters of an alphabet in a grid font, in glyph space units of a thousandth of
+   * the font size, so one table serves every font size.
+   *
+   * @param widths width of each letter, by alphabet index
+   * @param maxWidth width of the widest letter
+   * @param capHeight height of the capital letters
+   * @param monospaced true if every letter has the same width
+   */
+  record LetterMetrics(float[] widths, float maxWidth, float capHeight, boolean monospaced) {
+    float width(int index) {
+      return widths[index];
+    }
+  }
+
+  /**
+   * Size of a page and placement of the text every page of that size shows whatever its puzzle. The
+   * grid of an untiled page always spans the width between the margins, so the word list title sits
+   * at the same height on every such page.
+   *
+   * @param width page width
+   * @param height page height
+   * @param headerY baseline of the header
+   * @param headerX start of the puzzle page header
+   * @param answerHeaderX start of the answer page header
+   * @param startY bottom of the top grid row
+   * @param wordListY baseline of the word list title below an untiled grid
+   */
+  record PageGeometry(
+      float width,
+      float height,
+      float headerY,
+      float headerX,
+      float answerHeaderX,
+      float startY,
+      float wordListY) {
+    float usableWidth() {
+      return width - 2 * MARGIN;
+    }
+  }
+
+  /** Kinds of page, each with its own static content. */
+  enum PageKind {
+    /** A whole grid with the word list title below it. */
+    GRID,
+
+    /** One part of a tiled grid. */
+    TILE,
+
+    /** Word list lines that did not fit on the grid page, below a title at the top. */
+    WORDS
+  }
+
+  /**
+   * Identifies the static content of a kind of page, which renderers draw once per document.
+   *
+   * @param geometry the page size and text placement
+   * @param kind the kind of page
+   * @param answerKey true for answer pages
+   */
+  record TemplateKey(PageGeometry geometry, PageKind kind, boolean answerKey) {
+    /**
+     * Returns the header of the page.
+     *
+     * @return the header text
+     */
+    String header() {
+      return answerKey ? ANSWER_HEADER_TEXT : HEADER_TEXT;
+    }
+
+    /**
+     * Returns the start of the header.
+     *
+     * @return the header x coordinate
+     */
+    float headerX() {
+      return answerKey ? geometry.answerHeaderX() : geometry.headerX();
+    }
+
+    /**
+     * Returns the baseline of the word list title.
+     *
+     * @return the title y coordinate, or NaN if the page has no word list
+     */
+    float titleY() {
+      return switch (kind) {
+        case GRID -> geometry.wordListY();
+        case WORDS -> geometry.startY();
+        case TILE -> Float.NaN;
+      };
+    }
+  }
+
+  /**
+   * Text runs of the part of a grid shown on one page.
+   *
+   * @param tile the rows and columns of the grid on the page
+   * @param rowX start of the text run of each row
+   * @param runs glyphs, and positioning adjustments unless the font is monospaced, of each row; a
+   *     number moves the next glyph left by that many thousandths of the font size, as in the PDF
+   *     TJ operator
+   */
+  record GridPage(GridTiling.Tile tile, float[] rowX, Object[][] runs) {}
+
+  /**
+   * Positions of everything on the pages of one puzzle, computed before the pages are written.
+   *
+   * @param geometry the page size and text placement
+   * @param cellSize width and height of a grid cell
+   * @param gridFontSize font size of the grid letters
+   * @param textOffsetY height of the grid letter baselines above the bottom of their cells
+   * @param characterSpacing space added after each grid letter, for monospaced grid fonts
+   * @param gridPages the grid, as one page or as the parts of a tiled grid
+   * @param wordLines lines of the word list
+   * @param answerCells first and last row and column of each word, or null
+   */
+  record PuzzleLayout(
+      PageGeometry geometry,
+      float cellSize,
+      int gridFontSize,
+      float textOffsetY,
+      float characterSpacing,
+      List<GridPage> gridPages,
+      List<String> wordLines,
+      int[] answerCells) {
+    boolean tiled() {
+      return gridPages.size() > 1;
+    }
+
+    /**
+     * Returns the edges of a part of the grid on its page.
+     *
+     * @param tile the part
+     * @return left, bottom, right and top edge
+     */
+    float[] bounds(GridTiling.Tile tile) {
+      float startY = geometry.startY();
+      return new float[] {
+        MARGIN,
+        startY - (tile.rows() - 1) * cellSize,
+        MARGIN + tile.cols() * cellSize,
+        startY + cellSize
+      };
+    }
+
+    /**
+     * Returns the baseline of a row of a part of the grid.
+     *
+     * @param row the row within the part
+     * @return the baseline y coordinate
+     */
+    float rowBaseline(int row) {
+      return geometry.startY() - row * cellSize + textOffsetY;
+    }
+
+    /**
+     * Returns the marks of the words crossing a part of the grid, from the center of the first
+     * letter to the center of the last. Marks may run past the part, so renderers clip them to its
+     * bounds.
+     *
+     * @param tile the part
+     * @return start and end point of each mark, four values per mark
+     */
+    float[] answerMarks(GridTiling.Tile tile) {
+      int lastRow = tile.firstRow() + tile.rows() - 1;
+      int lastCol = tile.firstCol() + tile.cols() - 1;
+      float startY = geometry.startY();
+      float[] marks = new float[answerCells.length];
+      int n = 0;
+      for (int i = 0; i < answerCells.length; i += 4) {
+        int startRow = answerCells[i];
+        int startCol = answerCells[i + 1];
+        int endRow = answerCells[i + 2];
+        int endCol = answerCells[i + 3];
+        if (Math.max(startRow, endRow) < tile.firstRow()
+            || Math.min(startRow, endRow) > lastRow
+            || Math.max(startCol, endCol) < tile.firstCol()
+            || Math.min(startCol, endCol) > lastCol) {
+          continue;
+        }
+        marks[n++] = MARGIN + (startCol - tile.firstCol() + 0.5f) * cellSize;
+        marks[n++] = startY - (startRow - tile.firstRow()) * cellSize + cellSize / 2;
+        marks[n++] = MARGIN + (endCol - tile.firstCol() + 0.5f) * cellSize;
+        marks[n++] = startY - (endRow - tile.firstRow()) * cellSize + cellSize / 2;
+      }
+      return Arrays.copyOf(marks, n);
+    }
+  }
+
+  /**
+   * Everything on one page.
+   *
+   * @param layout the layout of the puzzle
+   * @param template the static content of the page
+   * @param label page label shown beside the header, or null
+   * @param gridPage the grid, or the part of it, on the page, or null on a word list page
+   * @param firstLine index of the first word list line on the page
+   * @param endLine index after the last word list line on the page
+   * @param note the note naming the part of a tiled grid, or null
+   */
+  record Page(
+      PuzzleLayout layout,
+      TemplateKey template,
+      String label,
+      GridPage gridPage,
+      int firstLine,
+      int endLine,
+      String note) {
+    /**
+     * Returns the baseline of a word list line.
+     *
+     * @param line index of the line
+     * @return the baseline y coordinate
+     */
+    float wordLineY(int line) {
+      return template.titleY() - WORD_LIST_TITLE_GAP - (line - firstLine) * WORD_LINE_HEIGHT;
+    }
+  }
+
+  /**
+   * Checks whether the text of a book can only be shown with the bundled Unicode fonts.
+   *
+   * @param puzzles the puzzles of the book
+   * @param footerUrl URL shown at the bottom of every page, or null
+   * @return true if a word, a grid letter or the footer is outside the WinAnsi encoding
+   */
+  static boolean needsUnicode(List<WordSearch> puzzles, String footerUrl) {
+    List<String> texts = new ArrayList<>();
+    for (WordSearch puzzle : puzzles) {
+      texts.addAll(puzzle.getWords());
+    }
+    // Grid cells only hold alphabet letters, so checking each alphabet once covers every grid.
+    for (Alphabet alphabet : alphabets(puzzles)) {
+      StringBuilder letters = new StringBuilder(alphabet.size());
+      for (int i = 0; i < alphabet.size(); i++) {
+        letters.append(alphabet.letter(i));
+      }
+      texts.add(letters.toString());
+    }
+    texts.add(HEADER_TEXT);
+    texts.add(ANSWER_HEADER_TEXT);
+    texts.add(WORD_LIST_TITLE);
+    texts.add(footerUrl);
+    return PdfFonts.needsUnicode(texts);
+  }
+
+  /**
+   * Returns the alphabets of a book.
+   *
+   * @param puzzles the puzzles of the book
+   * @return the alphabets the grids are written in
+   */
+  static Set<Alphabet> alphabets(List<WordSearch> puzzles) {
+    Set<Alphabet> alphabets = EnumSet.noneOf(Alphabet.class);
+    for (WordSearch puzzle : puzzles) {
+      alphabets.add(puzzle.getAlphabet());
+    }
+    return alphabets;
+  }
+
+  /**
+   * Starts laying out the puzzles of a book on a pool. The fonts are measured on the calling
+   * thread, so the layouts themselves only read the puzzles and cached measurements.
+   *
+   * @param puzzles the puzzles, in page order
+   * @param answers true to also find where each word lies, for the answer pages
+   * @param options the paper size and grid style
+   * @param headerFont the header font
+   * @param gridFont the grid font
+   * @param pool the executor puzzles are laid out on
+   * @return the pending layout of each puzzle, in page order
+   * @throws IOException if a font cannot be measured
+   */
+  static List<CompletableFuture<PuzzleLayout>> layOut(
+      List<WordSearch> puzzles,
+      boolean answers,
+      PdfOptions options,
+      FontMeasure headerFont,
+      FontMeasure gridFont,
+      Executor pool)
+      throws IOException {
+    List<CompletableFuture<PuzzleLayout>> layouts = new ArrayList<>(puzzles.size());
+    for (WordSearch puzzle : puzzles) {
+      PageGeometry geometry =
+          pageGeometry(
+              headerFont,
+              options.getPaperSize(),
+              puzzle.getGrid().length,
+              puzzle.getWords().size());
+      LetterMetrics letters = letterMetrics(gridFont, puzzle.getAlphabet());
+      layouts.add(
+          CompletableFuture.supplyAsync(() -> layOut(puzzle, letters, geometry, answers), pool));
+    }
+    return layouts;
+  }
+
+  /**
+   * Works out where everything on the pages of one puzzle goes. Only reads the puzzle and the
+   * letter metrics, so the layouts of many puzzles can be computed at once. A grid whose cells
+   * would be too small for its letters on one page is split into parts that fit a page each.
+   *
+   * @param wordSearch the puzzle
+   * @param metrics the grid letter metrics of its alphabet
+   * @param geometry the page size and text placement
+   * @param answers true to also find where each word lies, for the answer pages
+   * @return the puzzle layout
+   */
+  private static PuzzleLayout layOut(
+      WordSearch wordSearch, LetterMetrics metrics, PageGeometry geometry, boolean answers) {
+    char[][] grid = wordSearch.getGrid();
+    int gridSize = grid.length;
+    Alphabet alphabet = wordSearch.getAlphabet();
+    float usableWidth = geometry.usableWidth();
+    // Calculate cell size so grid fits page width
+    float cellSize = usableWidth / gridSize;
+    List<GridTiling.Tile> tiles;
+    if (cellSize >= MIN_CELL_SIZE) {
+      tiles = List.of(new GridTiling.Tile(0, 0, gridSize, gridSize, false, false));
+    } else {
+      cellSize = TILE_CELL_SIZE;
+      int maxCols = (int) (usableWidth / cellSize);
+      int maxRows = (int) ((geometry.startY() - TILE_BOTTOM) / cellSize) + 1;
+      tiles = GridTiling.tile(gridSize, maxRows, maxCols, TILE_OVERLAP);
+    }
+    // Calculate grid font size to fit cell
+    float maxFontSizeByWidth = cellSize / (metrics.maxWidth() / 1000);
+    float maxFontSizeByHeight = cellSize / (metrics.capHeight() / 1000);
+    int gridFontSize =
+        (int) Math.min(Math.min(maxFontSizeByWidth, maxFontSizeByHeight), MAX_GRID_FONT_SIZE);
+    if (gridFontSize < MIN_GRID_FONT_SIZE) {
+      gridFontSize = MIN_GRID_FONT_SIZE;
+    }
+    float textHeight = metrics.capHeight() / 1000 * gridFontSize;
+    // A monospaced font reaches the next cell through character spacing alone.
+    float characterSpacing =
+        metrics.monospaced() ? cellSize - metrics.maxWidth() / 1000 * gridFontSize : 0;
+    List<GridPage> gridPages = new ArrayList<>(tiles.size());
+    for (GridTiling.Tile tile : tiles) {
+      gridPages.add(gridPage(grid, alphabet, metrics, tile, cellSize, gridFontSize));
+    }
+    List<String> words = wordSearch.getWords();
+    List<String> wordLines = new ArrayList<>();
+    int wordsPerLine = wordsPerLine(usableWidth);
+    for (int i = 0; i < words.size(); i += wordsPerLine) {
+      wordLines.add(String.join(", ", words.subList(i, Math.min(i + wordsPerLine, words.size()))));
+    }
+    int[] answerCells = answers ? answerCells(grid, words, alphabet) : null;
+    return new PuzzleLayout(
+        geometry,
+        cellSize,
+        gridFontSize,
+        (cellSize - textHeight) / 2,
+        characterSpacing,
+        gridPages,
+        wordLines,
+        answerCells);
+  }
+
+  /**
+   * Lists the pages of one puzzle: its grid, or each part of a tiled grid, then any word list lines
+   * that did not fit below the grid.
+   *
+   * @param layout the layout of the puzzle
+   * @param label page label shown beside the header, or null
+   * @param answerKey true for the answer pages
+   * @return the pages, in order
+   */
+  static List<Page> pages(PuzzleLayout layout, String label, boolean answerKey) {
+    PageGeometry geometry = layout.geometry();
+    List<GridPage> gridPages = layout.gridPages();
+    int lineCount = layout.wordLines().size();
+    List<Page> pages = new ArrayList<>(gridPages.size() + 1);
+    int next = 0;
+    for (int part = 0; part < gridPages.size(); part++) {
+      GridPage gridPage = gridPages.get(part);
+      if (layout.tiled()) {
+        String partLabel =
+            label == null ? null : label + ", part " + (part + 1) + " of " + gridPages.size();
+        TemplateKey template = new TemplateKey(geometry, PageKind.TILE, answerKey);
+        String note = partNote(gridPage.tile(), part, gridPages.size());
+        pages.add(new Page(layout, template, partLabel, gridPage, next, next, note));
+      } else {
+        TemplateKey template = new TemplateKey(geometry, PageKind.GRID, answerKey);
+        int end = wordLinesEnd(next, lineCount, template.titleY());
+        pages.add(new Page(layout, template, label, gridPage, next, end, null));
+        next = end;
+      }
+    }
+    while (next < lineCount) {
+      String wordsLabel = label == null ? null : label + ", word list";
+      TemplateKey template = new TemplateKey(geometry, PageKind.WORDS, answerKey);
+      int end = wordLinesEnd(next, lineCount, template.titleY());
+      pages.add(new Page(layout, template, wordsLabel, null, next, end, null));
+      next = end;
+    }
+    return pages;
+  }
+
+  /**
+   * Waits for a puzzle layout.
+   *
+   * @param layout the pending layout
+   * @return the layout
+   */
+  static PuzzleLayout join(CompletableFuture<PuzzleLayout> layout) {
+    try {
+      return layout.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Returns where text must start to be centered between the margins.
+   *
+   * @param font the font of the text
+   * @param text the text
+   * @param fontSize the font size
+   * @param pageWidth the page width
+   * @return the start of the text
+   * @throws IOException if the text width cannot be read
+   */
+  static float centeredX(FontMeasure font, String text, float fontSize, float pageWidth)
+      throws IOException {
+    return (pageWidth - font.width(text) / 1000 * fontSize) / 2;
+  }
+
+  /**
+   * Returns where a page label must start to end at the right margin.
+   *
+   * @param font the label font
+   * @param label the label
+   * @param pageWidth the page width
+   * @return the start of the label
+   * @throws IOException if the label width cannot be read
+   */
+  static float labelX(FontMeasure font, String label, float pageWidth) throws IOException {
+    return pageWidth - MARGIN - font.width(label) / 1000 * LABEL_FONT_SIZE;
+  }
+
+  /**
+   * Builds the text runs of the rows of one part of a grid, with each letter centered in its cell.
+   * A monospaced font needs one string per row; otherwise each glyph is moved into place by its own
+   * positioning adjustment.
+   *
+   * @param grid the letter grid
+   * @param alphabet the letters of the grid
+   * @param metrics the grid letter metrics
+   * @param tile the rows and columns of the part
+   * @param cellSize width and height of a cell
+   * @param gridFontSize font size of the grid letters
+   * @return the text runs of the part
+   */
+  private static GridPage gridPage(
+      char[][] grid,
+      Alphabet alphabet,
+      LetterMetrics metrics,
+      GridTiling.Tile tile,
+      float cellSize,
+      int gridFontSize) {
+    int cols = tile.cols();
+    float cellGlyphUnits = cellSize * 1000 / gridFontSize;
+    Object[][] runs = new Object[tile.rows()][];
+    float[] rowX = new float[tile.rows()];
+    for (int r = 0; r < tile.rows(); r++) {
+      char[] letters = grid[tile.firstRow() + r];
+      if (metrics.monospaced()) {
+        runs[r] = new Object[] {new String(letters, tile.firstCol(), cols)};
+        rowX[r] = MARGIN + (cellSize - metrics.maxWidth() / 1000 * gridFontSize) / 2;
+        continue;
+      }
+      Object[] run = new Object[2 * cols - 1];
+      float firstWidth = 0;
+      float previousWidth = 0;
+      for (int c = 0; c < cols; c++) {
+        char letter = letters[tile.firstCol() + c];
+        float width = metrics.width(alphabet.indexOf(letter));
+        if (c == 0) {
+          firstWidth = width;
+        } else {
+          // Moves the next glyph from the end of this one to the start of its centered spot.
+          run[2 * c - 1] = (previousWidth + width) / 2 - cellGlyphUnits;
+        }
+        run[2 * c] = String.valueOf(letter);
+        previousWidth = width;
+      }
+      runs[r] = run;
+      rowX[r] = MARGIN + (cellSize - firstWidth / 1000 * gridFontSize) / 2;
+    }
+    return new GridPage(tile, rowX, runs);
+  }
+
+  /**
+   * Finds one occurrence of each word.
+   *
+   * @param grid the letter grid
+   * @param words the words as entered
+   * @param alphabet the alphabet the words were converted to when placed
+   * @return row and column of the first and last letter, four values per word found
+   */
+  private static int[] answerCells(char[][] grid, List<String> words, Alphabet alphabet) {
+    List<String> letterWords = new ArrayList<>(words.size());
+    for (String word : words) {
+      String letters = alphabet.normalize(word);
+      if (letters != null && !letters.isEmpty()) {
+        letterWords.add(letters);
+      }
+    }
+    Set<String> found = new HashSet<>();
+    int[] cells = new int[4 * letterWords.size()];
+    int n = 0;
+    for (WordSearchSolver.Occurrence occurrence : WordSearchSolver.solve(grid, letterWords)) {
+      if (found.add(occurrence.word())) {
+        int last = occurrence.word().length() - 1;
+        WordSearch.Direction direction = occurrence.direction();
+        cells[n++] = occurrence.row();
+        cells[n++] = occurrence.col();
+        cells[n++] = occurrence.row() + last * direction.getRowStep();
+        cells[n++] = occurrence.col() + last * direction.getColStep();
+      }
+    }
+    return Arrays.copyOf(cells, n);
+  }
+
+  /**
+   * Returns how many words share a line of the word list.
+   *
+   * @param usableWidth the width between the margins
+   * @return the number of words per line
+   */
+  private static int wordsPerLine(float usableWidth) {
+    return Math.max(MIN_WORDS_PER_LINE, (int) (usableWidth / WORD_COLUMN_WIDTH));
+  }
+
+  /**
+   * Returns how many word list lines fit below a word list title.
+   *
+   * @param first index of the first line still to place
+   * @param count number of lines of the word list
+   * @param titleY baseline of the word list title
+   * @return index after the last line that fits; at least one line is always placed, so a page that
+   *     is too short cannot stall the word list
+   */
+  private static int wordLinesEnd(int first, int count, float titleY) {
+    float wordY = titleY - WORD_LIST_TITLE_GAP;
+    int next = first;
+    while (next < count && (next == first || wordY >= WORD_LIST_BOTTOM)) {
+      next++;
+      wordY -= WORD_LINE_HEIGHT;
+    }
+    return next;
+  }
+
+  /**
+   * Names the rows and columns of a part of a tiled grid.
+   *
+   * @param tile the part
+   * @param part index of the part
+   * @param parts number of parts
+   * @return the note
+   */
+  private static String partNote(GridTiling.Tile tile, int part, int parts) {
+    String note =
+        String.format(
+            "Part %d of %d: rows %d-%d, columns %d-%d.",
+            part + 1,
+            parts,
+            tile.firstRow() + 1,
+            tile.firstRow() + tile.rows(),
+            tile.firstCol() + 1,
+            tile.firstCol() + tile.cols());
+    if (tile.sharesRight() || tile.sharesBelow()) {
+      note += " Shaded cells repeat on the next part.";
+    }
+    return note;
+  }
+
+  /**
+   * Returns the page size for a puzzle and the placement of the static page text on it. The
+   * placement on a fixed paper size is worked out on first use and kept; poster pages are sized to
+   * each puzzle, so theirs is worked out every time rather than cached per size.
+   *
+   * @param headerFont the header font
+   * @param paperSize the requested paper size
+   * @param gridSize number of cells per side, which sets the width of poster pages
+   * @param wordCount number of words, whose list sets the least height of poster pages
+   * @return the page geometry
+   * @throws IOException if a text width cannot be read
+   */
+  private static PageGeometry pageGeometry(
+      FontMeasure headerFont, PaperSize paperSize, int gridSize, int wordCount) throws IOException {
+    if (paperSize == PaperSize.POSTER) {
+      float width = Math.max(paperSize.getWidth(), gridSize * POSTER_CELL_SIZE + 2 * MARGIN);
+      float usableWidth = width - 2 * MARGIN;
+      int wordsPerLine = wordsPerLine(usableWidth);
+      int lines = Math.max(1, (wordCount + wordsPerLine - 1) / wordsPerLine);
+      // Tall enough for the header, the grid and every word list line above the footer.
+      float wordListHeight =
+          WORD_LIST_GAP + WORD_LIST_TITLE_GAP + (lines - 1) * WORD_LINE_HEIGHT + WORD_LIST_BOTTOM;
+      float contentHeight =
+          MARGIN
+              + headerFont.ascent() / 1000 * HEADER_FONT_SIZE
+              + GRID_TOP_PADDING
+              + usableWidth
+              + wordListHeight;
+      float height =
+          Math.max(
+              width * paperSize.getHeight() / paperSize.getWidth(),
+              (float) Math.ceil(contentHeight));
+      return pageGeometry(headerFont, width, height);
+    }
+    String key = headerFont.name() + "/" + paperSize;
+    PageGeometry geometry = PAGE_GEOMETRIES.get(key);
+    if (geometry == null) {
+      geometry = pageGeometry(headerFont, paperSize.getWidth(), paperSize.getHeight());
+      PAGE_GEOMETRIES.putIfAbsent(key, geometry);
+    }
+    return geometry;
+  }
+
+  /**
+   * Works out the placement of the static page text on a page.
+   *
+   * @param headerFont the header font
+   * @param width the page width
+   * @param height the page height
+   * @return the page geometry
+   * @throws IOException if a text width cannot be read
+   */
+  private static PageGeometry pageGeometry(FontMeasure headerFont, float width, float height)
+      throws IOException {
+    float usableWidth = width - 2 * MARGIN;
+    float headerAscent = headerFont.ascent() / 1000 * HEADER_FONT_SIZE;
+    float headerY = height - MARGIN - headerAscent;
+    float startY = headerY - GRID_TOP_PADDING;
+    return new PageGeometry(
+        width,
+        height,
+        headerY,
+        centeredX(headerFont, HEADER_TEXT, HEADER_FONT_SIZE, width),
+        centeredX(headerFont, ANSWER_HEADER_TEXT, HEADER_FONT_SIZE, width),
+        startY,
+        startY - usableWidth - WORD_LIST_GAP);
+  }
+
+  /**
+   * Returns the grid letter metrics of a font, measuring them on first use. Fonts are identified by
+   * name, so the per-document wrappers of a bundled font share one table.
+   *
+   * @param font the grid font
+   * @param alphabet the letters of the grid
+   * @return the letter metrics
+   * @throws IOException if a glyph width cannot be read
+   */
+  private static LetterMetrics letterMetrics(FontMeasure font, Alphabet alphabet)
+      throws IOException {
+    String key = font.name() + "/" + alphabet;
+    LetterMetrics metrics = LETTER_METRICS.get(key);
+    if (metrics == null) {
+      float[] widths = new float[alphabet.size()];
+      float maxWidth = 0;
+      float minWidth = Float.MAX_VALUE;
+      for (int i = 0; i < widths.length; i++) {
+        widths[i] = font.width(String.valueOf(alphabet.letter(i)));
+        maxWidth = Math.max(maxWidth, widths[i]);
+        minWidth = Math.min(minWidth, widths[i]);
+      }
+      metrics = new LetterMetrics(widths, maxWidth, font.capHeight(), minWidth == maxWidth);
+      LETTER_METRICS.putIfAbsent(key, metrics);
+    }
+    return metrics;
+  }
+}
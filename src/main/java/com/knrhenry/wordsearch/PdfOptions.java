@@ -0,0 +1,40 @@
+package com.knrhenry.wordsearch;
+
+/** Options controlling how a puzzle is laid out as PDF. */
+public class PdfOptions {
+  /** Paper size of the pages. */
+  private PaperSize paperSize = PaperSize.LETTER;
+
+  /** Whether to draw lines between the grid cells. */
+  private boolean gridLines;
+
+  /**
+   * Whether to linearize the file for fast web view, so a viewer can show the first page before the
+   * rest arrives. Only the built-in writer linearizes; the other backends ignore it.
+   */
+  private boolean linearized;
+
+  public PaperSize getPaperSize() {
+    return paperSize;
+  }
+
+  public void setPaperSize(PaperSize paperSize) {
+    this.paperSize = paperSize;
+  }
+
+  public boolean isGridLines() {
+    return gridLines;
+  }
+
+  public void setGridLines(boolean gridLines) {
+    this.gridLines = gridLines;
+  }
+
+  public boolean isLinearized() {
+    return linearized;
+  }
+
+  public void setLinearized(boolean linearized) {
+    this.linearized = linearized;
+  }
+}
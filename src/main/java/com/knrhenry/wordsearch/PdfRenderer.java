@@ -0,0 +1,33 @@
+package com.knrhenry.wordsearch;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Writes puzzles as PDF with one PDF library. Every renderer draws the pages {@link PdfLayout}
+ * plans, so the output of each looks the same and only the cost of writing it differs.
+ */
+public interface PdfRenderer {
+  /**
+   * Writes a book of puzzles to a stream as one PDF, each puzzle on its own pages, optionally
+   * followed by the answer pages of each puzzle. The stream is flushed but left open.
+   *
+   * @param puzzles the puzzles, in page order
+   * @param answers true to add the answer pages of each puzzle after the puzzle pages
+   * @param footerUrl URL shown at the bottom of every page, or null
+   * @param options the paper size and grid style
+   * @param out the stream to write to
+   * @param pool the executor pages are laid out on
+   * @throws IOException If PDF generation or writing fails
+   */
+  void writeBook(
+      List<WordSearch> puzzles,
+      boolean answers,
+      String footerUrl,
+      PdfOptions options,
+      OutputStream out,
+      Executor pool)
+      throws IOException;
+}
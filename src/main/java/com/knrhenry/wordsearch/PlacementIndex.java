@@ -0,0 +1,248 @@
+package com.knrhenry.wordsearch;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Lists every legal starting position of a word, by word length and allowed directions, on a square
+ * grid of a given size. Each slot is a (row, column, direction) triple packed into an int, where
+ * (row, column) is the cell of the first letter. Slot lists of the shared direction masks are built
+ * lazily, cached per grid size and shared across requests, so generators never sample an impossible
+ * slot; lists of other masks are built on every call, which keeps the cache bounded whatever
+ * direction filters requests ask for. Grids larger than {@link #MAX_INDEXED_SIZE} are never listed;
+ * their slots are only drawn at random from the legal bounds of each direction.
+ */
+final class PlacementIndex {
+  /** Indexes already built, by grid size. */
+  private static final ConcurrentMap<Integer, PlacementIndex> CACHE = new ConcurrentHashMap<>();
+
+  /** Directions in ordinal order. */
+  private static final WordSearch.Direction[] DIRECTIONS = WordSearch.Direction.values();
+
+  /** Largest grid size whose slots are listed and cached. */
+  static final int MAX_INDEXED_SIZE = 64;
+
+  /** Direction mask of every direction. */
+  static final int ALL_DIRECTIONS = (1 << DIRECTIONS.length) - 1;
+
+  /** Direction mask of the four directions that read forward. */
+  static final int FORWARD_DIRECTIONS = forwardMask();
+
+  /** Number of bits used for a row or column in a packed slot. */
+  private static final int COORD_BITS = 13;
+
+  /** Mask extracting a row or column from a packed slot. */
+  private static final int COORD_MASK = (1 << COORD_BITS) - 1;
+
+  /** Number of cells per side of the grid. */
+  private final int size;
+
+  /** Packed slots, by word length and direction mask. */
+  private final ConcurrentMap<Integer, int[]> slotsByKey = new ConcurrentHashMap<>();
+
+  private PlacementIndex(int size) {
+    this.size = size;
+  }
+
+  /**
+   * Returns the shared index for a grid size.
+   *
+   * @param size number of cells per side
+   * @return the placement index
+   */
+  static PlacementIndex forSize(int size) {
+    return CACHE.computeIfAbsent(size, PlacementIndex::new);
+  }
+
+  /**
+   * Returns the direction mask for a set of directions.
+   *
+   * @param directions the allowed directions
+   * @return a bit mask with one bit per direction ordinal
+   */
+  static int mask(Set<WordSearch.Direction> directions) {
+    int mask = 0;
+    for (WordSearch.Direction direction : directions) {
+      mask |= 1 << direction.ordinal();
+    }
+    return mask;
+  }
+
+  /**
+   * Returns whether the slot lists of a direction mask are cached across requests. Only every
+   * direction and the forward directions are, so the cache holds at most two lists per word length
+   * and grid size.
+   *
+   * @param directionMask the allowed directions, see {@link #mask(Set)}
+   * @return true for the shared masks
+   */
+  static boolean isShared(int directionMask) {
+    return directionMask == ALL_DIRECTIONS || directionMask == FORWARD_DIRECTIONS;
+  }
+
+  /**
+   * Returns every legal slot for a word of the given length in the allowed directions. The returned
+   * array may be shared and must not be modified. Lists of masks that are not {@link #isShared(int)
+   * shared} are built on every call, so callers should keep them for the request.
+   *
+   * @param length length of the word
+   * @param directionMask the allowed directions, see {@link #mask(Set)}
+   * @return the packed slots
+   */
+  int[] slots(int length, int directionMask) {
+    if (!isShared(directionMask)) {
+      return buildSlots(length, directionMask);
+    }
+    return slotsByKey.computeIfAbsent(
+        length << DIRECTIONS.length | directionMask, key -> buildSlots(length, directionMask));
+  }
+
+  /**
+   * Returns a shuffled copy of the legal slots for a word of the given length.
+   *
+   * @param length length of the word
+   * @param directionMask the allowed directions, see {@link #mask(Set)}
+   * @param random random number generator
+   * @return the packed slots in random order
+   */
+  int[] shuffledSlots(int length, int directionMask, RandomGenerator random) {
+    return shuffled(slots(length, directionMask), random);
+  }
+
+  /**
+   * Returns a shuffled copy of a slot list.
+   *
+   * @param slots the packed slots, left unchanged
+   * @param random random number generator
+   * @return the packed slots in random order
+   */
+  static int[] shuffled(int[] slots, RandomGenerator random) {
+    int[] shuffled = slots.clone();
+    for (int i = slots.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int slot = shuffled[i];
+      shuffled[i] = shuffled[j];
+      shuffled[j] = slot;
+    }
+    return shuffled;
+  }
+
+  /**
+   * Returns whether the slots of this grid size are listed, so {@link #slots(int, int)} may be
+   * used.
+   *
+   * @return true for grids up to {@link #MAX_INDEXED_SIZE} cells per side
+   */
+  boolean isIndexed() {
+    return size <= MAX_INDEXED_SIZE;
+  }
+
+  /**
+   * Draws a uniformly random legal slot for a word of the given length without listing the slots,
+   * so it takes constant time on any grid size.
+   *
+   * @param length length of the word
+   * @param directionMask the allowed directions, see {@link #mask(Set)}
+   * @param random random number generator
+   * @return the packed slot, or -1 if the word fits nowhere
+   */
+  int randomSlot(int length, int directionMask, RandomGenerator random) {
+    int span = length - 1;
+    if (span >= size) {
+      return -1;
+    }
+    long total = 0;
+    for (WordSearch.Direction direction : DIRECTIONS) {
+      if ((directionMask & 1 << direction.ordinal()) != 0) {
+        total += (long) startRows(direction, span) * startCols(direction, span);
+      }
+    }
+    if (total == 0) {
+      return -1;
+    }
+    long pick = random.nextLong(total);
+    for (WordSearch.Direction direction : DIRECTIONS) {
+      if ((directionMask & 1 << direction.ordinal()) == 0) {
+        continue;
+      }
+      int cols = startCols(direction, span);
+      long starts = (long) startRows(direction, span) * cols;
+      if (pick < starts) {
+        int row = Math.max(0, -span * direction.getRowStep()) + (int) (pick / cols);
+        int col = Math.max(0, -span * direction.getColStep()) + (int) (pick % cols);
+        return pack(direction, row, col);
+      }
+      pick -= starts;
+    }
+    throw new IllegalStateException("Slot draw out of range.");
+  }
+
+  private static int forwardMask() {
+    int mask = 0;
+    for (WordSearch.Direction direction : DIRECTIONS) {
+      if (!direction.isReversed()) {
+        mask |= 1 << direction.ordinal();
+      }
+    }
+    return mask;
+  }
+
+  private int startRows(WordSearch.Direction direction, int span) {
+    return direction.getRowStep() == 0 ? size : size - span;
+  }
+
+  private int startCols(WordSearch.Direction direction, int span) {
+    return direction.getColStep() == 0 ? size : size - span;
+  }
+
+  private int[] buildSlots(int length, int directionMask) {
+    int[] slots = new int[Integer.bitCount(directionMask) * size * size];
+    int count = 0;
+    int span = length - 1;
+    for (WordSearch.Direction direction : DIRECTIONS) {
+      if ((directionMask & 1 << direction.ordinal()) == 0) {
+        continue;
+      }
+      // The first letter must leave room for the rest of the word along the step vector.
+      int rowSpan = span * direction.getRowStep();
+      int colSpan = span * direction.getColStep();
+      int rowFrom = Math.max(0, -rowSpan);
+      int rowTo = size - Math.max(0, rowSpan);
+      int colFrom = Math.max(0, -colSpan);
+      int colTo = size - Math.max(0, colSpan);
+      for (int row = rowFrom; row < rowTo; row++) {
+        for (int col = colFrom; col < colTo; col++) {
+          slots[count++] = pack(direction, row, col);
+        }
+      }
+    }
+    return Arrays.copyOf(slots, count);
+  }
+
+  /**
+   * Packs a slot into an int.
+   *
+   * @param direction direction of the word
+   * @param row starting row
+   * @param col starting column
+   * @return the packed slot
+   */
+  static int pack(WordSearch.Direction direction, int row, int col) {
+    return direction.ordinal() << 2 * COORD_BITS | row << COORD_BITS | col;
+  }
+
+  static WordSearch.Direction direction(int slot) {
+    return DIRECTIONS[slot >>> 2 * COORD_BITS];
+  }
+
+  static int row(int slot) {
+    return slot >>> COORD_BITS & COORD_MASK;
+  }
+
+  static int col(int slot) {
+    return slot & COORD_MASK;
+  }
+}
@@ -0,0 +1,141 @@
+package com.knrhenry.wordsearch;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/** Built-in filler strategies. */
+public enum StandardFiller implements FillerStrategy {
+  /**
+   * Every letter equally likely. Each 64-bit draw is split into as many base-n digits as fit, for
+   * an alphabet of n letters, so a grid over A to Z takes one random number per 13 cells.
+   */
+  UNIFORM {
+    @Override
+    public void fill(byte[] letters, int count, Alphabet alphabet, RandomGenerator random) {
+      int base = alphabet.size();
+      int perDraw = 0;
+      long bound = 1;
+      while (bound <= Long.MAX_VALUE / base) {
+        bound *= base;
+        perDraw++;
+      }
+      int i = 0;
+      while (i < count) {
+        long digits = random.nextLong(bound);
+        int end = Math.min(count, i + perDraw);
+        for (; i < end; i++) {
+          letters[i] = (byte) (digits % base);
+          digits /= base;
+        }
+      }
+    }
+  },
+
+  /**
+   * Letters weighted by their frequency in the language of the alphabet, so decoy letters look like
+   * natural words. Letters are drawn from an alias table, two per 64-bit draw.
+   */
+  LETTER_FREQUENCY {
+    @Override
+    public void fill(byte[] letters, int count, Alphabet alphabet, RandomGenerator random) {
+      AliasTable table = ALIAS_TABLES.get(alphabet);
+      int i = 0;
+      while (i < count) {
+        long bits = random.nextLong();
+        letters[i++] = table.letter(bits >>> 32);
+        if (i < count) {
+          letters[i++] = table.letter(bits & AliasTable.LOW_HALF);
+        }
+      }
+    }
+  };
+
+  /** Alias table of each alphabet, built once. */
+  private static final Map<Alphabet, AliasTable> ALIAS_TABLES = new EnumMap<>(Alphabet.class);
+
+  static {
+    for (Alphabet alphabet : Alphabet.values()) {
+      ALIAS_TABLES.put(alphabet, new AliasTable(alphabet));
+    }
+  }
+
+  /**
+   * Alias table over the letter frequencies of an alphabet, built with Vose's method. Every column
+   * is equally likely and holds its own letter with the threshold probability and its alias
+   * otherwise, so a letter costs one multiplication and one comparison whatever the weights.
+   */
+  private static final class AliasTable {
+    /** Mask of the low 32 bits of a draw. */
+    private static final long LOW_HALF = 0xFFFFFFFFL;
+
+    /** Probability, scaled to 2 to the power of 32, of each column keeping its own letter. */
+    private final long[] thresholds;
+
+    /** Letter drawn instead of the column letter when the threshold is not met. */
+    private final byte[] aliases;
+
+    AliasTable(Alphabet alphabet) {
+      int columns = alphabet.size();
+      thresholds = new long[columns];
+      aliases = new byte[columns];
+      long total = 0;
+      for (int i = 0; i < columns; i++) {
+        total += alphabet.weight(i);
+      }
+      // Scaled so the average column holds exactly 2^32.
+      long[] scaled = new long[columns];
+      int[] small = new int[columns];
+      int[] large = new int[columns];
+      int smallCount = 0;
+      int largeCount = 0;
+      for (int i = 0; i < columns; i++) {
+        scaled[i] = ((long) alphabet.weight(i) * columns << 32) / total;
+        if (scaled[i] < 1L << 32) {
+          small[smallCount++] = i;
+        } else {
+          large[largeCount++] = i;
+        }
+      }
+      while (smallCount > 0 && largeCount > 0) {
+        int less = small[--smallCount];
+        int more = large[--largeCount];
+        thresholds[less] = scaled[less];
+        aliases[less] = (byte) more;
+        scaled[more] -= (1L << 32) - scaled[less];
+        if (scaled[more] < 1L << 32) {
+          small[smallCount++] = more;
+        } else {
+          large[largeCount++] = more;
+        }
+      }
+      // Leftover columns are full up to rounding error.
+      while (largeCount > 0) {
+        int column = large[--largeCount];
+        thresholds[column] = 1L << 32;
+        aliases[column] = (byte) column;
+      }
+      while (smallCount > 0) {
+        int column = small[--smallCount];
+        thresholds[column] = 1L << 32;
+        aliases[column] = (byte) column;
+      }
+    }
+
+    /**
+     * Draws a letter. The 32 random bits times the number of columns give the column in the high
+     * bits and, in the low bits, the fraction that picks the column letter or its alias.
+     *
+     * @param half 32 uniformly random bits
+     * @return the alphabet index of the letter
+     */
+    byte letter(long half) {
+      long scaled = half * thresholds.length;
+      int column = (int) (scaled >>> 32);
+      // Branch-free select: keep is 1 when the fraction falls below the threshold, otherwise 0.
+      int keep = (int) (((scaled & LOW_HALF) - thresholds[column]) >>> 63);
+      int alias = aliases[column];
+      return (byte) (alias + keep * (column - alias));
+    }
+  }
+}
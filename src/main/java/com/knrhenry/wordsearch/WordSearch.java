@@ -1,9 +1,21 @@
 package com.knrhenry.wordsearch;
 
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
+import java.util.random.RandomGenerator;
 
 /** WordSearch generates a word search puzzle grid and outputs it to the console or as a PDF. */
 public class WordSearch {
@@ -16,115 +28,393 @@ public class WordSearch {
   /** Maximum number of attempts to place a word. */
   private static final int MAX_ATTEMPTS = 100;
 
-  /** Alphabet length for random fill. */
-  private static final int ALPHABET_LENGTH = 26;
+  /** Number of attempts to generate the whole grid. */
+  private static final int MAX_GRID_ATTEMPTS = 5;
+
+  /** The grid grows by one cell plus this fraction of its size each time the words do not fit. */
+  private static final int GRID_GROWTH_DIVISOR = 8;
+
+  /** Longest word list placed by backtracking; longer lists are placed at random slots. */
+  private static final int MAX_BACKTRACKING_WORDS = 100;
+
+  /** Maximum number of grid sizes probed concurrently in each round of the compact search. */
+  private static final int MAX_COMPACT_PROBES = 4;
+
+  /** Deadline value meaning the generation may run until its attempts are exhausted. */
+  private static final long NO_DEADLINE = Long.MIN_VALUE;
+
+  /** Bounded pool shared by all parallel generation attempts. */
+  private static final ForkJoinPool GENERATION_POOL =
+      new ForkJoinPool(Runtime.getRuntime().availableProcessors());
 
   /** The size of the grid. */
   private final int gridSize;
 
-  /** The grid of characters. */
-  private final char[][] grid;
+  /** Bitboard model the words are placed in. */
+  private final LetterGrid letters;
 
   /** The list of words in the puzzle. */
   private final List<String> words;
 
-  /** Random number generator. */
-  private final Random random = new Random();
+  /** The words compiled to alphabet letters for the bitboard checks, longest first. */
+  private final List<LetterGrid.Word> compiledWords;
+
+  /** Guard against filler letters spelling blocked strings or repeating a word, or null. */
+  private final FillGuard fillGuard;
+
+  /** Legal slots for each word length on this grid size. */
+  private final PlacementIndex index;
+
+  /** Bit mask of the allowed directions, by ordinal. */
+  private final int directionMask;
+
+  /** Legal slots by word length, filled in as the words need them. */
+  private final int[][] slotsByLength;
+
+  /** Options controlling grid generation. */
+  private final WordSearchOptions options;
+
+  /** Seed the puzzle was generated from. */
+  private final long seed;
+
+  /** Attempts of the generation this puzzle belongs to. */
+  private final Attempts attempts;
+
+  /** Index of the attempt currently being generated. */
+  private int attempt;
+
+  /** Random number generator of the current attempt. */
+  private RandomGenerator random;
 
-  /** Enum representing possible word placement directions. */
+  /** Enum representing possible word placement directions as (row, column) step vectors. */
   public enum Direction {
-    HORIZONTAL,
-    VERTICAL,
-    DIAGONAL_DOWN,
-    DIAGONAL_UP
+    HORIZONTAL(0, 1, LetterGrid.ROWS, false),
+    VERTICAL(1, 0, LetterGrid.COLUMNS, false),
+    DIAGONAL_DOWN(1, 1, LetterGrid.DIAGONALS_DOWN, false),
+    DIAGONAL_UP(-1, 1, LetterGrid.DIAGONALS_UP, false),
+    HORIZONTAL_REVERSED(0, -1, LetterGrid.ROWS, true),
+    VERTICAL_REVERSED(-1, 0, LetterGrid.COLUMNS, true),
+    DIAGONAL_DOWN_REVERSED(-1, -1, LetterGrid.DIAGONALS_DOWN, true),
+    DIAGONAL_UP_REVERSED(1, -1, LetterGrid.DIAGONALS_UP, true);
+
+    /** Row increment between consecutive letters. */
+    private final int rowStep;
+
+    /** Column increment between consecutive letters. */
+    private final int colStep;
+
+    /** Bitboard line family the direction runs along. */
+    private final int family;
+
+    /** True if the direction reads towards lower positions of its line. */
+    private final boolean reversed;
+
+    Direction(int rowStep, int colStep, int family, boolean reversed) {
+      this.rowStep = rowStep;
+      this.colStep = colStep;
+      this.family = family;
+      this.reversed = reversed;
+    }
+
+    public int getRowStep() {
+      return rowStep;
+    }
+
+    public int getColStep() {
+      return colStep;
+    }
+
+    int family() {
+      return family;
+    }
+
+    boolean isReversed() {
+      return reversed;
+    }
+  }
+
+  /** Enum representing the available word placement strategies. */
+  public enum PlacementStrategy {
+    /** Tries random positions per word and restarts the whole grid when a word does not fit. */
+    RANDOM,
+    /** Places the most constrained word first and undoes recent placements on a dead end. */
+    BACKTRACKING
   }
 
   /**
    * Constructs a WordSearch grid from the given list of words.
    *
    * @param inputWords List of words to include in the grid
+   * @param letterWords the words in alphabet letters, in the same order
+   * @param options options controlling grid generation
+   * @param gridSize number of cells per side
+   * @param attempts attempts of the generation this puzzle belongs to
    */
-  private WordSearch(final List<String> inputWords) {
+  private WordSearch(
+      final List<String> inputWords,
+      final List<String> letterWords,
+      final WordSearchOptions options,
+      final int gridSize,
+      final Attempts attempts) {
     this.words = new ArrayList<>(inputWords);
-    int maxLen = DEFAULT_GRID_SIZE;
-    for (String word : words) {
-      if (word.length() > maxLen) {
-        maxLen = word.length();
+    this.options = options;
+    this.attempts = attempts;
+    this.seed = attempts.seed;
+    this.gridSize = gridSize;
+    this.letters = new LetterGrid(gridSize, options.getAlphabet());
+    this.index = PlacementIndex.forSize(gridSize);
+    this.directionMask = PlacementIndex.mask(options.getDirections());
+    this.slotsByLength = new int[MAX_WORD_LENGTH + 1][];
+    this.compiledWords = new ArrayList<>(words.size());
+    for (String word : letterWords) {
+      // An empty word, such as one left by a trailing comma, has nothing to place.
+      if (!word.isEmpty()) {
+        compiledWords.add(letters.compile(word));
+      }
+    }
+    compiledWords.sort(Comparator.comparingInt(LetterGrid.Word::length).reversed());
+    List<AhoCorasick> guarded = new ArrayList<>(2);
+    if (options.getBlocklist() != null && options.getBlocklist().automaton() != null) {
+      guarded.add(options.getBlocklist().automaton());
+    }
+    if (options.isUniqueOccurrences()) {
+      guarded.add(new AhoCorasick(distinctWords()));
+    }
+    this.fillGuard = guarded.isEmpty() ? null : new FillGuard(guarded, options.getAlphabet());
+  }
+
+  /**
+   * Returns the distinct words in alphabet letters.
+   *
+   * @return the words, each once
+   */
+  private List<String> distinctWords() {
+    Set<String> distinct = new LinkedHashSet<>();
+    for (LetterGrid.Word word : compiledWords) {
+      distinct.add(word.text());
+    }
+    return new ArrayList<>(distinct);
+  }
+
+  /**
+   * Generates grids for the attempts handed out by the shared budget until one succeeds. Each
+   * attempt has its own seed, derived from the puzzle seed, so its grid never depends on which
+   * thread runs it.
+   */
+  private void runAttempts() {
+    while (true) {
+      int next = attempts.next.getAndIncrement();
+      if (next >= MAX_GRID_ATTEMPTS || next > attempts.winner.get()) {
+        return;
       }
+      attempt = next;
+      random = new SplittableRandom(attempts.seeds[next]);
+      try {
+        generateGrid();
+        attempts.winner.accumulateAndGet(next, Math::min);
+        attempts.results.set(next, this);
+        return;
+      } catch (WordSearchException e) {
+        attempts.failures.set(next, e);
+      } catch (CancellationException e) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Stops the current attempt once an earlier attempt has produced a grid, the deadline of the
+   * generation has passed or the caller has cancelled it.
+   *
+   * @throws CancellationException if the attempt is no longer needed
+   */
+  void checkCancelled() {
+    if (attempts.winner.get() < attempt || attempts.isExpired() || attempts.isCancelled()) {
+      throw new CancellationException("Grid generation was cancelled.");
     }
-    this.gridSize = maxLen;
-    this.grid = new char[gridSize][gridSize];
   }
 
   /** Generates the word search grid by placing words and filling empty spaces. */
   private void generateGrid() throws WordSearchException {
-    for (char[] row : grid) {
-      Arrays.fill(row, ' ');
+    letters.clear();
+    if (options.getPlacementStrategy() == PlacementStrategy.BACKTRACKING
+        && compiledWords.size() <= MAX_BACKTRACKING_WORDS
+        && index.isIndexed()) {
+      new BacktrackingPlacer(this).placeAll(compiledWords);
+    } else {
+      placeWordsRandomly();
     }
-    for (String word : words) {
-      int len = word.length();
+    fillEmptySpaces();
+  }
+
+  /**
+   * Places each word, longest first, at random legal slots, giving up after {@code MAX_ATTEMPTS}
+   * tries per word. Slots are drawn without listing them, so the time taken grows with the number
+   * of letters rather than with the grid area.
+   *
+   * @throws WordSearchException if a word could not be placed
+   */
+  private void placeWordsRandomly() throws WordSearchException {
+    for (LetterGrid.Word word : compiledWords) {
+      checkCancelled();
       boolean placed = false;
       for (int attempt = 0; attempt < MAX_ATTEMPTS && !placed; attempt++) {
-        Direction direction = Direction.values()[random.nextInt(Direction.values().length)];
-        int rowBound;
-        int colBound;
-        switch (direction) {
-          case HORIZONTAL:
-            rowBound = gridSize;
-            colBound = gridSize - len + 1;
-            break;
-          case VERTICAL:
-            rowBound = gridSize - len + 1;
-            colBound = gridSize;
-            break;
-          case DIAGONAL_DOWN, DIAGONAL_UP:
-            rowBound = gridSize - len + 1;
-            colBound = gridSize - len + 1;
-            break;
-          default:
-            rowBound = 0;
-            colBound = 0;
-            break;
-        }
-        if (rowBound <= 0 || colBound <= 0) {
-          continue;
+        int slot = index.randomSlot(word.length(), directionMask, random);
+        if (slot < 0) {
+          break;
         }
-        int row = random.nextInt(rowBound);
-        int col = random.nextInt(colBound);
-        if (canPlace(word.toUpperCase(), row, col, direction)) {
-          placeWord(word.toUpperCase(), row, col, direction);
+        if (canPlace(word, slot)) {
+          placeWord(word, slot);
           placed = true;
         }
       }
       // If not placed after max attempts, throw an exception
       if (!placed) {
-        String msg = String.format("Error: Could not place word '%s' in the grid.", word);
+        String msg = String.format("Error: Could not place word '%s' in the grid.", word.text());
         throw new WordSearchException(msg);
       }
     }
-    fillEmptySpaces();
   }
 
-  /** Fills empty spaces in the grid with random letters. */
-  private void fillEmptySpaces() {
-    for (int r = 0; r < gridSize; r++) {
-      for (int c = 0; c < gridSize; c++) {
-        if (grid[r][c] == ' ') {
-          grid[r][c] = (char) ('A' + random.nextInt(ALPHABET_LENGTH));
+  /**
+   * Returns the legal slots for a word in random order.
+   *
+   * @param word the compiled upper-case word
+   * @return the packed slots, shuffled
+   */
+  int[] shuffledSlots(LetterGrid.Word word) {
+    return PlacementIndex.shuffled(slots(word.length()), random);
+  }
+
+  /**
+   * Returns the legal slots for a word length, keeping the lists of unshared direction masks for
+   * the attempts of this generation.
+   *
+   * @param length length of the word
+   * @return the packed slots, which must not be modified
+   */
+  private int[] slots(int length) {
+    int[] slots = slotsByLength[length];
+    if (slots == null) {
+      slots = index.slots(length, directionMask);
+      slotsByLength[length] = slots;
+    }
+    return slots;
+  }
+
+  /**
+   * Counts the positions where a word can currently be placed, stopping at {@code limit}.
+   *
+   * @param word the compiled upper-case word
+   * @param limit count at which to stop
+   * @return the number of legal placements, at most {@code limit}
+   */
+  int countCandidates(LetterGrid.Word word, int limit) {
+    int count = 0;
+    for (int slot : slots(word.length())) {
+      if (canPlace(word, slot) && ++count >= limit) {
+        break;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Fills empty spaces in the grid with letters drawn in one batch from the filler strategy. With a
+   * fill guard, a letter that completes a blocked string or a repeated word through its cell is
+   * replaced by the next letter of the alphabet until one fits, so only that cell is re-rolled.
+   *
+   * @throws WordSearchException if no letter fits a cell
+   */
+  private void fillEmptySpaces() throws WordSearchException {
+    byte[] cells = letters.cells();
+    int alphabetSize = options.getAlphabet().size();
+    int[] empty = new int[cells.length];
+    int count = 0;
+    for (int i = 0; i < cells.length; i++) {
+      empty[count] = i;
+      count += cells[i] == LetterGrid.EMPTY ? 1 : 0;
+    }
+    byte[] fill = new byte[count];
+    options.getFillerStrategy().fill(fill, count, options.getAlphabet(), random);
+    if (fillGuard == null) {
+      for (int k = 0; k < count; k++) {
+        cells[empty[k]] = fill[k];
+      }
+      return;
+    }
+    // Cells are checked in fill order while later cells are still empty, so every guarded string
+    // is caught exactly when its last filler letter is set.
+    for (int k = 0; k < count; k++) {
+      int cell = empty[k];
+      cells[cell] = fill[k];
+      int tries = 1;
+      while (fillGuard.formsPattern(cells, gridSize, cell / gridSize, cell % gridSize)) {
+        if (tries++ == alphabetSize) {
+          throw new WordSearchException(
+              "Error: Could not fill the grid without a blocked string or repeated word.");
         }
+        cells[cell] = (byte) ((cells[cell] + 1) % alphabetSize);
       }
     }
   }
 
   /**
-   * Returns the word search grid.
+   * Returns the word search grid. The puzzle keeps one byte per cell, so the letters are looked up
+   * in the alphabet on each call.
    *
    * @return the word search grid
    */
   public char[][] getGrid() {
+    byte[] cells = letters.cells();
+    Alphabet alphabet = letters.alphabet();
+    char[][] grid = new char[gridSize][gridSize];
+    for (int r = 0; r < gridSize; r++) {
+      for (int c = 0; c < gridSize; c++) {
+        grid[r][c] = alphabet.letter(cells[r * gridSize + c]);
+      }
+    }
     return grid;
   }
 
+  /**
+   * Returns the alphabet indexes of the cells in row-major order, without copying them as {@link
+   * #getGrid()} does.
+   *
+   * @return the backing cell array, which must not be changed
+   */
+  byte[] cells() {
+    return letters.cells();
+  }
+
+  /**
+   * Returns the number of rows, and of columns, of the grid.
+   *
+   * @return the grid size
+   */
+  int gridSize() {
+    return gridSize;
+  }
+
+  /**
+   * Returns the alphabet the grid is built from.
+   *
+   * @return the alphabet
+   */
+  public Alphabet getAlphabet() {
+    return letters.alphabet();
+  }
+
+  /**
+   * Returns the seed this puzzle was generated from. Generating the same words with the same
+   * options and seed always gives the same grid.
+   *
+   * @return the seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
   /**
    * Returns the word list used in this puzzle.
    *
@@ -135,110 +425,424 @@ public class WordSearch {
   }
 
   /**
-   * Checks if a word can be placed at the given position and orientation in the grid.
+   * Checks if a word can be placed at the given position and orientation in the grid. A word must
+   * cover at least one empty cell, so it never hides entirely inside another word.
    *
-   * @param word the word to check
-   * @param row starting row
-   * @param col starting column
-   * @param direction direction to place the word
+   * @param word the compiled word to check
+   * @param slot the packed slot from the placement index
    * @return true if the word can be placed, false otherwise
    */
-  private boolean canPlace(String word, int row, int col, Direction direction) {
-    int len = word.length();
-    for (int i = 0; i < len; i++) {
-      int r;
-      int c;
-      switch (direction) {
-        case HORIZONTAL:
-          r = row;
-          c = col + i;
-          break;
-        case VERTICAL:
-          r = row + i;
-          c = col;
-          break;
-        case DIAGONAL_DOWN:
-          r = row + i;
-          c = col + i;
-          break;
-        case DIAGONAL_UP:
-          r = row + len - 1 - i;
-          c = col + i;
-          break;
-        default:
-          return false;
-      }
-      if (r < 0 || r >= gridSize || c < 0 || c >= gridSize) {
-        return false;
-      }
-      if (grid[r][c] != ' ' && grid[r][c] != word.charAt(i)) {
-        return false;
-      }
-    }
-    return true;
+  boolean canPlace(LetterGrid.Word word, int slot) {
+    Direction direction = PlacementIndex.direction(slot);
+    // Bitboard lines are read towards higher positions, so reversed words are checked from their
+    // last letter.
+    int anchor = direction.isReversed() ? word.length() - 1 : 0;
+    int row = PlacementIndex.row(slot) + anchor * direction.rowStep;
+    int col = PlacementIndex.col(slot) + anchor * direction.colStep;
+    int family = direction.family;
+    return letters.fits(
+        word,
+        family,
+        letters.lineOf(family, row, col),
+        letters.positionOf(family, row, col),
+        direction.reversed);
   }
 
   /**
-   * Places a word in the grid at the given position and orientation.
+   * Places a word in the grid.
    *
-   * @param word the word to place
-   * @param row starting row
-   * @param col starting column
-   * @param direction direction to place the word
+   * @param word the compiled word to place
+   * @param slot the packed slot from the placement index
    */
-  private void placeWord(String word, int row, int col, Direction direction) {
-    int len = word.length();
-    for (int i = 0; i < len; i++) {
-      switch (direction) {
-        case HORIZONTAL:
-          grid[row][col + i] = word.charAt(i);
-          break;
-        case VERTICAL:
-          grid[row + i][col] = word.charAt(i);
-          break;
-        case DIAGONAL_DOWN:
-          grid[row + i][col + i] = word.charAt(i);
-          break;
-        case DIAGONAL_UP:
-          grid[row + len - 1 - i][col + i] = word.charAt(i);
-          break;
-        default:
-          // Defensive: do nothing
-          break;
-      }
-    }
+  void placeWord(LetterGrid.Word word, int slot) {
+    Direction direction = PlacementIndex.direction(slot);
+    letters.place(
+        word,
+        PlacementIndex.row(slot),
+        PlacementIndex.col(slot),
+        direction.rowStep,
+        direction.colStep);
   }
 
   /**
-   * Creates a new WordSearch instance with the given words.
+   * Removes a previously placed word, keeping letters still used by other words.
+   *
+   * @param word the compiled word to remove
+   * @param slot the packed slot it was placed at
+   */
+  void removeWord(LetterGrid.Word word, int slot) {
+    Direction direction = PlacementIndex.direction(slot);
+    letters.remove(
+        word,
+        PlacementIndex.row(slot),
+        PlacementIndex.col(slot),
+        direction.rowStep,
+        direction.colStep);
+  }
+
+  /**
+   * Creates a new WordSearch instance with the given words using the default options.
    *
    * @param inputWords List of words to include in the grid
    * @return a new WordSearch instance
    * @throws WordSearchException if grid generation fails or any word exceeds MAX_WORD_LENGTH
    */
   public static WordSearch create(List<String> inputWords) throws WordSearchException {
+    return create(inputWords, new WordSearchOptions());
+  }
+
+  /**
+   * Creates a new WordSearch instance with the given words and options. Unless growth is disabled,
+   * word lists estimated to be too dense start on a larger grid, and the grid grows whenever all
+   * attempts on the current size fail, up to the maximum grid size.
+   *
+   * @param inputWords List of words to include in the grid
+   * @param options options controlling grid generation
+   * @return a new WordSearch instance
+   * @throws WordSearchTimeoutException if the time budget of the options ran out
+   * @throws WordSearchCancelledException if the cancellation of the options stopped the generation
+   * @throws WordSearchException if grid generation fails, a word has letters outside the alphabet
+   *     or none in it, or any word exceeds MAX_WORD_LENGTH
+   */
+  public static WordSearch create(List<String> inputWords, WordSearchOptions options)
+      throws WordSearchException {
+    Alphabet alphabet = options.getAlphabet();
+    List<String> letterWords = new ArrayList<>(inputWords.size());
     for (String word : inputWords) {
-      if (word.length() > MAX_WORD_LENGTH) {
+      String letterWord = alphabet.normalize(word);
+      if (letterWord == null) {
+        throw new WordSearchException(
+            String.format("Error: Word '%s' has letters outside the %s alphabet.", word, alphabet));
+      }
+      if (letterWord.isEmpty() && !word.isBlank()) {
+        throw new WordSearchException(
+            String.format("Error: Word '%s' has no letters in the %s alphabet.", word, alphabet));
+      }
+      if (letterWord.length() > MAX_WORD_LENGTH) {
         String msg =
             String.format(
                 "Error: Word '%s' exceeds max length of %d characters.", word, MAX_WORD_LENGTH);
         throw new WordSearchException(msg);
       }
+      letterWords.add(letterWord);
+    }
+    int gridSize = DEFAULT_GRID_SIZE;
+    for (String word : letterWords) {
+      gridSize = Math.max(gridSize, word.length());
+    }
+    int maxGridSize = Math.max(gridSize, options.getMaxGridSize());
+    if (options.isGrowGrid()) {
+      int estimate =
+          FeasibilityEstimator.minimumGridSize(
+              letterWords, options.getDirections(), gridSize, maxGridSize);
+      if (estimate < 0) {
+        throw new WordSearchException(
+            String.format(
+                "Error: Word list exceeds the capacity of the largest %dx%d grid.",
+                maxGridSize, maxGridSize));
+      }
+      gridSize = estimate;
     }
-    WordSearch wordSearch = new WordSearch(inputWords);
-    int attempts = 0;
+    long seed =
+        options.getSeed() != null ? options.getSeed() : ThreadLocalRandom.current().nextLong();
+    long deadline =
+        options.getTimeoutMs() != null
+            ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getTimeoutMs())
+            : NO_DEADLINE;
+    WordSearch wordSearch =
+        generate(inputWords, letterWords, options, gridSize, maxGridSize, seed, deadline);
+    return options.isCompact()
+        ? compact(inputWords, letterWords, options, wordSearch, deadline)
+        : wordSearch;
+  }
+
+  /**
+   * Generates a grid, growing it when allowed until all words fit.
+   *
+   * @param inputWords List of words to include in the grid
+   * @param letterWords the words in alphabet letters, in the same order
+   * @param options options controlling grid generation
+   * @param gridSize number of cells per side to start with
+   * @param maxGridSize largest number of cells per side to grow to
+   * @param seed seed of the puzzle
+   * @param deadline {@link System#nanoTime()} at which to give up, or {@code NO_DEADLINE}
+   * @return the generated puzzle
+   * @throws WordSearchTimeoutException if the deadline passed before a grid was generated
+   * @throws WordSearchCancelledException if the generation was cancelled before a grid was
+   *     generated
+   * @throws WordSearchException if grid generation fails
+   */
+  private static WordSearch generate(
+      List<String> inputWords,
+      List<String> letterWords,
+      WordSearchOptions options,
+      int gridSize,
+      int maxGridSize,
+      long seed,
+      long deadline)
+      throws WordSearchException {
+    SplittableRandom seeds = new SplittableRandom(seed);
     while (true) {
+      Attempts attempts = new Attempts(seed, seeds, deadline, options.getCancellation());
+      if (options.getParallelAttempts() > 1) {
+        runInParallel(inputWords, letterWords, options, gridSize, attempts);
+      } else {
+        new WordSearch(inputWords, letterWords, options, gridSize, attempts).runAttempts();
+      }
+      int winner = attempts.winner.get();
+      if (winner < MAX_GRID_ATTEMPTS) {
+        return attempts.results.get(winner);
+      }
+      if (attempts.isCancelled()) {
+        throw new WordSearchCancelledException("Error: Grid generation was cancelled.");
+      }
+      if (attempts.isExpired()) {
+        throw new WordSearchTimeoutException(
+            String.format("Error: Grid generation timed out after %d ms.", options.getTimeoutMs()));
+      }
+      if (!options.isGrowGrid() || gridSize >= maxGridSize) {
+        WordSearchException lastFailure = attempts.failures.get(MAX_GRID_ATTEMPTS - 1);
+        throw new WordSearchException(
+            "Failed to generate grid after "
+                + MAX_GRID_ATTEMPTS
+                + " attempts: "
+                + lastFailure.getMessage(),
+            lastFailure);
+      }
+      gridSize = Math.min(maxGridSize, gridSize + 1 + gridSize / GRID_GROWTH_DIVISOR);
+    }
+  }
+
+  /**
+   * Searches for the smallest grid the words fit in, starting from an already generated puzzle.
+   * Each round probes several sizes between a lower bound and the smallest grid found so far
+   * concurrently on the generation pool. A probe that fits cancels the probes of larger sizes, and
+   * the round waits for every probe, so it narrows the range around the smallest size that
+   * succeeded whichever probe finishes first. The search stops when the range is empty, the compact
+   * deadline has passed or the generation is cancelled.
+   *
+   * @param inputWords List of words to include in the grid
+   * @param letterWords the words in alphabet letters, in the same order
+   * @param options options controlling grid generation
+   * @param generated puzzle generated with the normal size rule
+   * @param timeout {@link System#nanoTime()} at which the whole generation times out, or {@code
+   *     NO_DEADLINE}
+   * @return the puzzle with the smallest grid found
+   * @throws WordSearchException if the search was interrupted or a probe failed unexpectedly
+   */
+  private static WordSearch compact(
+      List<String> inputWords,
+      List<String> letterWords,
+      WordSearchOptions options,
+      WordSearch generated,
+      long timeout)
+      throws WordSearchException {
+    long deadline =
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(options.getCompactTimeoutMs());
+    if (timeout != NO_DEADLINE && timeout - deadline < 0) {
+      deadline = timeout;
+    }
+    final long probeDeadline = deadline;
+    long letterCount = 0;
+    int low = 1;
+    for (String word : letterWords) {
+      letterCount += word.length();
+      low = Math.max(low, word.length());
+    }
+    low = Math.max(low, (int) Math.ceil(Math.sqrt(letterCount)));
+    WordSearch best = generated;
+    BooleanSupplier cancellation = options.getCancellation();
+    while (low < best.gridSize
+        && System.nanoTime() - deadline < 0
+        && (cancellation == null || !cancellation.getAsBoolean())) {
+      int[] sizes = probeSizes(low, best.gridSize);
+      // Index of the smallest size known to fit this round; larger probes stop once it is set
+      AtomicInteger smallestFit = new AtomicInteger(sizes.length);
+      List<Future<WordSearch>> probes = new ArrayList<>(sizes.length);
+      for (int i = 0; i < sizes.length; i++) {
+        int index = i;
+        BooleanSupplier stop =
+            () ->
+                smallestFit.get() < index || (cancellation != null && cancellation.getAsBoolean());
+        probes.add(
+            GENERATION_POOL.submit(
+                () -> {
+                  WordSearch result =
+                      probe(
+                          inputWords,
+                          letterWords,
+                          options,
+                          sizes[index],
+                          generated.seed,
+                          probeDeadline,
+                          stop);
+                  if (result != null) {
+                    smallestFit.accumulateAndGet(index, Math::min);
+                  }
+                  return result;
+                }));
+      }
       try {
-        wordSearch.generateGrid();
-        break;
-      } catch (WordSearchException e) {
-        attempts++;
-        if (attempts >= 5) {
-          throw new WordSearchException(
-              "Failed to generate grid after 5 attempts: " + e.getMessage(), e);
+        WordSearch[] results = new WordSearch[sizes.length];
+        for (int i = 0; i < sizes.length; i++) {
+          results[i] = probes.get(i).get();
         }
+        int fit = smallestFit.get();
+        if (fit < sizes.length) {
+          best = results[fit];
+        }
+        // Every size below the smallest fit was probed to the end without fitting
+        if (fit > 0) {
+          low = sizes[fit - 1] + 1;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new WordSearchException("Grid generation was interrupted.", e);
+      } catch (ExecutionException e) {
+        throw new WordSearchException("Grid generation failed: " + e.getCause().getMessage(), e);
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Picks the grid sizes to probe in one compact round, spread evenly over {@code [low, high)}.
+   *
+   * @param low smallest size that may still fit
+   * @param high smallest size known to fit
+   * @return the sizes to probe, in ascending order
+   */
+  private static int[] probeSizes(int low, int high) {
+    int range = high - low;
+    int count = Math.min(MAX_COMPACT_PROBES, range);
+    int[] sizes = new int[count];
+    for (int i = 0; i < count; i++) {
+      sizes[i] = count == range ? low + i : low + range * (i + 1) / (count + 1);
+    }
+    return sizes;
+  }
+
+  /**
+   * Tries to generate the puzzle on a fixed grid size, stopping at the deadline.
+   *
+   * @param inputWords List of words to include in the grid
+   * @param letterWords the words in alphabet letters, in the same order
+   * @param options options controlling grid generation
+   * @param gridSize number of cells per side
+   * @param seed seed of the puzzle
+   * @param deadline {@link System#nanoTime()} at which to give up
+   * @param cancellation returns true once the probe is no longer needed
+   * @return the generated puzzle, or null if the words did not fit in time or the probe was
+   *     cancelled
+   */
+  private static WordSearch probe(
+      List<String> inputWords,
+      List<String> letterWords,
+      WordSearchOptions options,
+      int gridSize,
+      long seed,
+      long deadline,
+      BooleanSupplier cancellation) {
+    // Each size draws its attempt seeds from its own stream, so probes never share a layout
+    Attempts attempts =
+        new Attempts(seed, new SplittableRandom(seed + gridSize), deadline, cancellation);
+    new WordSearch(inputWords, letterWords, options, gridSize, attempts).runAttempts();
+    int winner = attempts.winner.get();
+    return winner < MAX_GRID_ATTEMPTS ? attempts.results.get(winner) : null;
+  }
+
+  /**
+   * Races several attempts on the shared generation pool. Attempts are handed out in order and the
+   * earliest successful attempt wins, so the result matches sequential generation with the same
+   * seed; later attempts are cancelled as soon as an earlier one succeeds.
+   *
+   * @param inputWords List of words to include in the grid
+   * @param letterWords the words in alphabet letters, in the same order
+   * @param options options controlling grid generation
+   * @param gridSize number of cells per side
+   * @param attempts the shared attempts
+   * @throws WordSearchException if the generation was interrupted or a racer failed unexpectedly
+   */
+  private static void runInParallel(
+      List<String> inputWords,
+      List<String> letterWords,
+      WordSearchOptions options,
+      int gridSize,
+      Attempts attempts)
+      throws WordSearchException {
+    int racers = Math.min(options.getParallelAttempts(), MAX_GRID_ATTEMPTS);
+    List<Future<?>> futures = new ArrayList<>(racers);
+    for (int i = 0; i < racers; i++) {
+      WordSearch racer = new WordSearch(inputWords, letterWords, options, gridSize, attempts);
+      futures.add(GENERATION_POOL.submit(racer::runAttempts));
+    }
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      attempts.winner.set(-1);
+      Thread.currentThread().interrupt();
+      throw new WordSearchException("Grid generation was interrupted.", e);
+    } catch (ExecutionException e) {
+      attempts.winner.set(-1);
+      throw new WordSearchException("Grid generation failed: " + e.getCause().getMessage(), e);
+    }
+  }
+
+  /** Attempt budget shared by everything generating one puzzle. */
+  private static final class Attempts {
+    /** Seed of the puzzle. */
+    private final long seed;
+
+    /** Seed of each attempt, derived from the puzzle seed. */
+    private final long[] seeds = new long[MAX_GRID_ATTEMPTS];
+
+    /** {@link System#nanoTime()} at which to stop generating, or {@code NO_DEADLINE}. */
+    private final long deadline;
+
+    /** Tells whether the caller has given up on the generation, or null. */
+    private final BooleanSupplier cancellation;
+
+    /** Index of the next attempt to hand out. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** Index of the earliest successful attempt, or {@code MAX_GRID_ATTEMPTS} if none yet. */
+    private final AtomicInteger winner = new AtomicInteger(MAX_GRID_ATTEMPTS);
+
+    /** Generated puzzle of each successful attempt. */
+    private final AtomicReferenceArray<WordSearch> results =
+        new AtomicReferenceArray<>(MAX_GRID_ATTEMPTS);
+
+    /** Failure of each unsuccessful attempt. */
+    private final AtomicReferenceArray<WordSearchException> failures =
+        new AtomicReferenceArray<>(MAX_GRID_ATTEMPTS);
+
+    Attempts(long seed, SplittableRandom seeds, long deadline, BooleanSupplier cancellation) {
+      this.seed = seed;
+      this.deadline = deadline;
+      this.cancellation = cancellation;
+      for (int i = 0; i < MAX_GRID_ATTEMPTS; i++) {
+        this.seeds[i] = seeds.nextLong();
       }
     }
-    return wordSearch;
+
+    /**
+     * Returns whether the deadline of the generation has passed.
+     *
+     * @return true if generation must stop
+     */
+    boolean isExpired() {
+      return deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Returns whether the caller has cancelled the generation.
+     *
+     * @return true if generation must stop
+     */
+    boolean isCancelled() {
+      return cancellation != null && cancellation.getAsBoolean();
+    }
   }
 }
@@ -0,0 +1,8 @@
+package com.knrhenry.wordsearch;
+
+/** Thrown when the caller gives up on grid generation before it finishes. */
+public class WordSearchCancelledException extends WordSearchException {
+  public WordSearchCancelledException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,343 @@
+package com.knrhenry.wordsearch;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Renders a word search puzzle as a PNG or SVG image: the grid, followed by the word list. PNG
+ * cells are copied from a {@link GlyphAtlas} rendered once per alphabet and cell size, so the
+ * rasterizer only runs for the word list, and the raster is encoded without going through ImageIO;
+ * SVG keeps the letters as text, one element per row.
+ */
+@ApplicationScoped
+public class WordSearchImageGenerator {
+  /** Blank space around the grid and the word list, in pixels. */
+  private static final int MARGIN = 16;
+
+  /** Width the grid is sized to before its cells are clamped to the limits below, in pixels. */
+  private static final int GRID_PIXELS = 960;
+
+  /** Smallest side of a cell, in pixels, so the letters of large grids stay legible. */
+  private static final int MIN_CELL_SIZE = 8;
+
+  /** Largest side of a cell, in pixels. */
+  private static final int MAX_CELL_SIZE = 32;
+
+  /** Size of the word list font, in pixels. */
+  private static final float WORD_FONT_SIZE = 16;
+
+  /** Distance between the baselines of the word list, in pixels. */
+  private static final int LINE_HEIGHT = 22;
+
+  /** Space between two words on a line of the word list, in pixels. */
+  private static final int WORD_GAP = 24;
+
+  /** Gray level of the lines between cells. */
+  private static final byte LINE_GRAY = (byte) 0xB0;
+
+  /** Signature every PNG file starts with. */
+  private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+  /** Fonts named in SVG images, the bundled one first. */
+  private static final String FONT_FAMILY = "DejaVu Sans, Verdana, sans-serif";
+
+  /**
+   * Renders an image of the puzzle.
+   *
+   * @param ws the WordSearch puzzle
+   * @param format the image format
+   * @param gridLines true to draw lines between the cells
+   * @return the encoded image
+   * @throws IOException if the image cannot be encoded
+   * @throws NullPointerException if the WordSearch or the format is null
+   */
+  public byte[] generateImage(WordSearch ws, ImageFormat format, boolean gridLines)
+      throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeImage(ws, format, gridLines, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * Renders an image of the puzzle straight to a stream.
+   *
+   * @param ws the WordSearch puzzle
+   * @param format the image format
+   * @param gridLines true to draw lines between the cells
+   * @param out the stream to write to; it is flushed but left open
+   * @throws IOException if the image cannot be encoded or written
+   * @throws NullPointerException if the WordSearch or the format is null
+   */
+  public void writeImage(WordSearch ws, ImageFormat format, boolean gridLines, OutputStream out)
+      throws IOException {
+    if (ws == null) {
+      throw new NullPointerException("WordSearch must not be null");
+    }
+    if (format == null) {
+      throw new NullPointerException("Image format must not be null");
+    }
+    Layout layout = layOut(ws);
+    switch (format) {
+      case PNG -> writePng(ws, layout, gridLines, out);
+      case SVG -> writeSvg(ws, layout, gridLines, out);
+      default -> throw new IllegalArgumentException("Unsupported image format " + format + ".");
+    }
+  }
+
+  /**
+   * Sizes the cells to the grid and wraps the word list to the width of the grid.
+   *
+   * @param ws the puzzle
+   * @return the positions of the grid and the words
+   */
+  private static Layout layOut(WordSearch ws) {
+    int gridSize = ws.gridSize();
+    int cellSize = Math.max(MIN_CELL_SIZE, Math.min(MAX_CELL_SIZE, GRID_PIXELS / gridSize));
+    int width = 2 * MARGIN + gridSize * cellSize;
+    Font font = GlyphAtlas.textFont(WORD_FONT_SIZE);
+    float ascent = font.getLineMetrics("H", GlyphAtlas.RENDER_CONTEXT).getAscent();
+    int top = MARGIN + gridSize * cellSize + MARGIN;
+    List<String> words = ws.getWords();
+    float[] x = new float[words.size()];
+    int[] line = new int[words.size()];
+    float next = MARGIN;
+    int lines = words.isEmpty() ? 0 : 1;
+    for (int i = 0; i < words.size(); i++) {
+      float wordWidth =
+          (float) font.getStringBounds(words.get(i), GlyphAtlas.RENDER_CONTEXT).getWidth();
+      if (next > MARGIN && next + wordWidth > width - MARGIN) {
+        next = MARGIN;
+        lines++;
+      }
+      x[i] = next;
+      line[i] = lines - 1;
+      next += wordWidth + WORD_GAP;
+    }
+    int height = top + lines * LINE_HEIGHT + (lines == 0 ? 0 : MARGIN);
+    int[] baseline = new int[words.size()];
+    for (int i = 0; i < words.size(); i++) {
+      baseline[i] = top + line[i] * LINE_HEIGHT + Math.round(ascent);
+    }
+    return new Layout(gridSize, cellSize, width, height, x, baseline);
+  }
+
+  /**
+   * Writes the puzzle as a grayscale PNG. The cells are copied from the glyph atlas and the grid
+   * lines set directly in the raster; only the word list is drawn through Java2D.
+   */
+  private static void writePng(WordSearch ws, Layout layout, boolean gridLines, OutputStream out)
+      throws IOException {
+    BufferedImage image =
+        new BufferedImage(layout.width(), layout.height(), BufferedImage.TYPE_BYTE_GRAY);
+    byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+    Arrays.fill(pixels, (byte) -1);
+    int gridSize = layout.gridSize();
+    int cellSize = layout.cellSize();
+    GlyphAtlas atlas = GlyphAtlas.of(ws.getAlphabet(), cellSize);
+    byte[] cells = ws.cells();
+    for (int r = 0; r < gridSize; r++) {
+      for (int c = 0; c < gridSize; c++) {
+        atlas.blit(
+            cells[r * gridSize + c],
+            pixels,
+            layout.width(),
+            MARGIN + c * cellSize,
+            MARGIN + r * cellSize);
+      }
+    }
+    if (gridLines) {
+      drawGridLines(pixels, layout);
+    }
+    Graphics2D g = image.createGraphics();
+    try {
+      g.setRenderingHint(
+          RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+      g.setRenderingHint(
+          RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+      g.setColor(Color.BLACK);
+      g.setFont(GlyphAtlas.textFont(WORD_FONT_SIZE));
+      List<String> words = ws.getWords();
+      for (int i = 0; i < words.size(); i++) {
+        g.drawString(words.get(i), layout.wordX()[i], layout.wordY()[i]);
+      }
+    } finally {
+      g.dispose();
+    }
+    encodePng(pixels, layout.width(), layout.height(), out);
+  }
+
+  /**
+   * Encodes a grayscale raster as PNG. The rows are stored unfiltered and deflated at the fastest
+   * level: the image is mostly runs of white, which compress well anyway, while ImageIO's writer
+   * tries every filter on every row, which takes about twice as long.
+   */
+  private static void encodePng(byte[] pixels, int width, int height, OutputStream out)
+      throws IOException {
+    ByteArrayOutputStream data = new ByteArrayOutputStream(pixels.length / 8);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try (DeflaterOutputStream zip = new DeflaterOutputStream(data, deflater, 8192)) {
+      // Each row starts with its filter type, 0 for none.
+      byte[] row = new byte[width + 1];
+      for (int y = 0; y < height; y++) {
+        System.arraycopy(pixels, y * width, row, 1, width);
+        zip.write(row);
+      }
+    } finally {
+      deflater.end();
+    }
+    ByteBuffer header = ByteBuffer.allocate(13);
+    // 8-bit grayscale, deflated, standard filters, not interlaced.
+    header.putInt(width).putInt(height).put((byte) 8).put((byte) 0);
+    header.put((byte) 0).put((byte) 0).put((byte) 0);
+    out.write(PNG_SIGNATURE);
+    writeChunk(out, "IHDR", header.array());
+    writeChunk(out, "IDAT", data.toByteArray());
+    writeChunk(out, "IEND", new byte[0]);
+    out.flush();
+  }
+
+  /** Writes a PNG chunk: its length, type, data and the CRC of the type and data. */
+  private static void writeChunk(OutputStream out, String type, byte[] data) throws IOException {
+    byte[] name = type.getBytes(StandardCharsets.US_ASCII);
+    CRC32 crc = new CRC32();
+    crc.update(name);
+    crc.update(data);
+    out.write(ByteBuffer.allocate(8).putInt(data.length).put(name).array());
+    out.write(data);
+    out.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+  }
+
+  /** Sets the pixels of the lines around and between the cells of a grayscale raster. */
+  private static void drawGridLines(byte[] pixels, Layout layout) {
+    int width = layout.width();
+    int cellSize = layout.cellSize();
+    int end = MARGIN + layout.gridSize() * cellSize;
+    for (int y = MARGIN; y <= end; y++) {
+      if ((y - MARGIN) % cellSize == 0) {
+        Arrays.fill(pixels, y * width + MARGIN, y * width + end + 1, LINE_GRAY);
+      } else {
+        for (int x = MARGIN; x <= end; x += cellSize) {
+          pixels[y * width + x] = LINE_GRAY;
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the puzzle as SVG. Each row is one text element whose letters are centred on their cells
+   * through a list of x positions, shared by every row.
+   */
+  private static void writeSvg(WordSearch ws, Layout layout, boolean gridLines, OutputStream out)
+      throws IOException {
+    int gridSize = layout.gridSize();
+    int cellSize = layout.cellSize();
+    StringBuilder svg = new StringBuilder(128 + gridSize * gridSize * 6);
+    svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"")
+        .append(layout.width())
+        .append("\" height=\"")
+        .append(layout.height())
+        .append("\" viewBox=\"0 0 ")
+        .append(layout.width())
+        .append(' ')
+        .append(layout.height())
+        .append("\">\n<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/>\n");
+    if (gridLines) {
+      int side = gridSize * cellSize;
+      svg.append("<path fill=\"none\" stroke=\"#b0b0b0\" d=\"");
+      for (int i = 0; i <= gridSize; i++) {
+        int at = MARGIN + i * cellSize;
+        svg.append('M').append(MARGIN).append(' ').append(at).append('h').append(side);
+        svg.append('M').append(at).append(' ').append(MARGIN).append('v').append(side);
+      }
+      svg.append("\"/>\n");
+    }
+    StringBuilder x = new StringBuilder(gridSize * 5);
+    for (int c = 0; c < gridSize; c++) {
+      if (c > 0) {
+        x.append(' ');
+      }
+      number(x, MARGIN + c * cellSize + cellSize / 2f);
+    }
+    svg.append("<g font-family=\"")
+        .append(FONT_FAMILY)
+        .append("\" font-weight=\"bold\" font-size=\"");
+    number(svg, cellSize * GlyphAtlas.FONT_SCALE);
+    svg.append("\" text-anchor=\"middle\">\n");
+    float baseline = GlyphAtlas.baseline(cellSize);
+    Alphabet alphabet = ws.getAlphabet();
+    byte[] cells = ws.cells();
+    for (int r = 0; r < gridSize; r++) {
+      svg.append("<text x=\"").append(x).append("\" y=\"");
+      number(svg, MARGIN + r * cellSize + baseline);
+      svg.append("\">");
+      for (int c = 0; c < gridSize; c++) {
+        svg.append(alphabet.letter(cells[r * gridSize + c]));
+      }
+      svg.append("</text>\n");
+    }
+    svg.append("</g>\n<g font-family=\"").append(FONT_FAMILY).append("\" font-size=\"");
+    number(svg, WORD_FONT_SIZE);
+    svg.append("\">\n");
+    List<String> words = ws.getWords();
+    for (int i = 0; i < words.size(); i++) {
+      svg.append("<text x=\"");
+      number(svg, layout.wordX()[i]);
+      svg.append("\" y=\"").append(layout.wordY()[i]).append("\">");
+      escape(svg, words.get(i));
+      svg.append("</text>\n");
+    }
+    svg.append("</g>\n</svg>\n");
+    out.write(svg.toString().getBytes(StandardCharsets.UTF_8));
+    out.flush();
+  }
+
+  /** Appends a coordinate with at most one decimal. */
+  private static void number(StringBuilder svg, float value) {
+    int tenths = Math.round(value * 10);
+    svg.append(tenths / 10);
+    if (tenths % 10 != 0) {
+      svg.append('.').append(tenths % 10);
+    }
+  }
+
+  /** Appends text with the characters XML reserves escaped. */
+  private static void escape(StringBuilder svg, String text) {
+    for (int i = 0; i < text.length(); i++) {
+      char ch = text.charAt(i);
+      switch (ch) {
+        case '&' -> svg.append("&amp;");
+        case '<' -> svg.append("&lt;");
+        case '>' -> svg.append("&gt;");
+        default -> svg.append(ch);
+      }
+    }
+  }
+
+  /**
+   * Positions of an image's parts, in pixels.
+   *
+   * @param gridSize the number of rows and columns
+   * @param cellSize the side of a cell
+   * @param width the width of the image
+   * @param height the height of the image
+   * @param wordX the left edge of each word of the list
+   * @param wordY the baseline of each word of the list
+   */
+  private record Layout(
+      int gridSize, int cellSize, int width, int height, float[] wordX, int[] wordY) {}
+}
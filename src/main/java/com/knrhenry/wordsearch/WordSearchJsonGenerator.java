@@ -24,6 +24,7 @@ public class WordSearchJsonGenerator {
     ObjectNode node = mapper.createObjectNode();
     node.putPOJO("grid", ws.getGrid());
     node.putPOJO("words", ws.getWords());
+    node.put("seed", ws.getSeed());
     return node;
   }
 }
@@ -0,0 +1,186 @@
+package com.knrhenry.wordsearch;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/** Options controlling how a {@link WordSearch} grid is generated. */
+public class WordSearchOptions {
+  /** Strategy used to place the words in the grid. */
+  private WordSearch.PlacementStrategy placementStrategy =
+      WordSearch.PlacementStrategy.BACKTRACKING;
+
+  /** Directions words are placed in unless others are chosen: the four that read forward. */
+  static final Set<WordSearch.Direction> DEFAULT_DIRECTIONS =
+      EnumSet.of(
+          WordSearch.Direction.HORIZONTAL,
+          WordSearch.Direction.VERTICAL,
+          WordSearch.Direction.DIAGONAL_DOWN,
+          WordSearch.Direction.DIAGONAL_UP);
+
+  /** Directions words may be placed in; reversed directions must be asked for. */
+  private Set<WordSearch.Direction> directions = EnumSet.copyOf(DEFAULT_DIRECTIONS);
+
+  /** Number of independently seeded attempts raced in parallel; 1 generates sequentially. */
+  private int parallelAttempts = 1;
+
+  /** Seed for the random number generator; a random seed is used when null. */
+  private Long seed;
+
+  /** Whether to move to a larger grid instead of failing when the words do not fit. */
+  private boolean growGrid = true;
+
+  /** Largest grid size generation may grow to. */
+  private int maxGridSize = 50;
+
+  /** Whether filler letters must never form another occurrence of a word. */
+  private boolean uniqueOccurrences;
+
+  /** Letters the words are written in and the grid is filled with. */
+  private Alphabet alphabet = Alphabet.LATIN;
+
+  /** Strategy choosing the letters of the cells no word covers. */
+  private FillerStrategy fillerStrategy = StandardFiller.UNIFORM;
+
+  /** Strings the filler must never spell, or null to allow any letters. */
+  private Blocklist blocklist;
+
+  /** Time budget of the whole generation in milliseconds; unbounded when null. */
+  private Long timeoutMs;
+
+  /** Whether to search for the smallest grid the words fit in. */
+  private boolean compact;
+
+  /** Time budget of the compact search in milliseconds. */
+  private long compactTimeoutMs = 1000;
+
+  /** Tells whether the caller has given up on the generation; never cancelled when null. */
+  private BooleanSupplier cancellation;
+
+  public WordSearch.PlacementStrategy getPlacementStrategy() {
+    return placementStrategy;
+  }
+
+  public void setPlacementStrategy(WordSearch.PlacementStrategy placementStrategy) {
+    this.placementStrategy = placementStrategy;
+  }
+
+  public Set<WordSearch.Direction> getDirections() {
+    return directions;
+  }
+
+  /**
+   * Restricts the directions words may be placed in.
+   *
+   * @param directions the allowed directions; must not be empty
+   * @throws IllegalArgumentException if no direction is given
+   */
+  public void setDirections(Set<WordSearch.Direction> directions) {
+    if (directions == null || directions.isEmpty()) {
+      throw new IllegalArgumentException("Direction list must not be empty.");
+    }
+    this.directions = EnumSet.copyOf(directions);
+  }
+
+  public int getParallelAttempts() {
+    return parallelAttempts;
+  }
+
+  public void setParallelAttempts(int parallelAttempts) {
+    this.parallelAttempts = parallelAttempts;
+  }
+
+  public Long getSeed() {
+    return seed;
+  }
+
+  public void setSeed(Long seed) {
+    this.seed = seed;
+  }
+
+  public boolean isGrowGrid() {
+    return growGrid;
+  }
+
+  public void setGrowGrid(boolean growGrid) {
+    this.growGrid = growGrid;
+  }
+
+  public int getMaxGridSize() {
+    return maxGridSize;
+  }
+
+  public void setMaxGridSize(int maxGridSize) {
+    this.maxGridSize = maxGridSize;
+  }
+
+  public boolean isCompact() {
+    return compact;
+  }
+
+  public void setCompact(boolean compact) {
+    this.compact = compact;
+  }
+
+  public long getCompactTimeoutMs() {
+    return compactTimeoutMs;
+  }
+
+  public void setCompactTimeoutMs(long compactTimeoutMs) {
+    this.compactTimeoutMs = compactTimeoutMs;
+  }
+
+  public Long getTimeoutMs() {
+    return timeoutMs;
+  }
+
+  public void setTimeoutMs(Long timeoutMs) {
+    this.timeoutMs = timeoutMs;
+  }
+
+  public BooleanSupplier getCancellation() {
+    return cancellation;
+  }
+
+  /**
+   * Lets the caller stop the generation, such as when the client has gone away. The check is made
+   * as often as the deadline, so it must be cheap and thread-safe.
+   *
+   * @param cancellation returns true once the generation is no longer wanted, or null
+   */
+  public void setCancellation(BooleanSupplier cancellation) {
+    this.cancellation = cancellation;
+  }
+
+  public boolean isUniqueOccurrences() {
+    return uniqueOccurrences;
+  }
+
+  public void setUniqueOccurrences(boolean uniqueOccurrences) {
+    this.uniqueOccurrences = uniqueOccurrences;
+  }
+
+  public Blocklist getBlocklist() {
+    return blocklist;
+  }
+
+  public void setBlocklist(Blocklist blocklist) {
+    this.blocklist = blocklist;
+  }
+
+  public Alphabet getAlphabet() {
+    return alphabet;
+  }
+
+  public void setAlphabet(Alphabet alphabet) {
+    this.alphabet = alphabet;
+  }
+
+  public FillerStrategy getFillerStrategy() {
+    return fillerStrategy;
+  }
+
+  public void setFillerStrategy(FillerStrategy fillerStrategy) {
+    this.fillerStrategy = fillerStrategy;
+  }
+}
@@ -1,18 +1,30 @@
 package com.knrhenry.wordsearch;
 
 import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
+import static jakarta.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.knrhenry.wordsearch.dto.WordSearchBookRequest;
+import com.knrhenry.wordsearch.dto.WordSearchBookResult;
 import com.knrhenry.wordsearch.dto.WordSearchRequest;
 import com.knrhenry.wordsearch.dto.WordSearchResult;
+import com.knrhenry.wordsearch.dto.WordSearchSolveRequest;
+import com.knrhenry.wordsearch.dto.WordSearchSolveResult;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.eclipse.microprofile.openapi.annotations.Operation;
 import org.eclipse.microprofile.openapi.annotations.enums.SchemaType;
@@ -31,20 +43,30 @@ public class WordSearchResource {
 
   private static final String APPLICATION_PDF = "application/pdf";
 
+  private static final String IMAGE_PNG = "image/png";
+
+  private static final String IMAGE_SVG = "image/svg+xml";
+
+  /** Response header carrying the seed a puzzle was generated from. */
+  static final String SEED_HEADER = "X-WordSearch-Seed";
+
   @Inject WordSearchService wordSearchService;
 
   /**
-   * Generates a word search puzzle grid or PDF from a list of words.
+   * Generates a word search puzzle grid, PDF or image from a list of words.
    *
    * @param req the word search request
-   * @return the word search grid as text or PDF
+   * @param routing the HTTP exchange; generation stops if its connection closes, and it is closed
+   *     if a streamed document fails part way
+   * @return the word search grid as text, PDF, PNG or SVG
    */
   @POST
   @Consumes(MediaType.APPLICATION_JSON)
-  @Produces({MediaType.APPLICATION_JSON, APPLICATION_PDF})
+  @Produces({MediaType.APPLICATION_JSON, APPLICATION_PDF, IMAGE_PNG, IMAGE_SVG})
   @Operation(
       summary = "Generate a word search puzzle",
-      description = "Generates a word search puzzle as JSON or PDF based on the input word list.")
+      description =
+          "Generates a word search puzzle as JSON, PDF, PNG or SVG based on the input word list.")
   @RequestBody(
       content =
           @Content(
@@ -85,7 +107,8 @@ public class WordSearchResource {
                            ["Y","Z","A","B","C","D","E","F","G","H","I","J","K","L","M"],
                            ["N","O","P","Q","R","S","T","U","V","W","X","Y","Z","A","B"],
                            ["C","D","E","F","G","H","I","J","K","L","M","N","O","P","Q"]],
-                  "words": ["apple", "banana", "cherry"]
+                  "words": ["apple", "banana", "cherry"],
+                  "seed": 42
                 }
                 """),
               schema = @Schema(type = SchemaType.OBJECT)),
@@ -96,7 +119,11 @@ public class WordSearchResource {
                       name = "PDF Example",
                       summary = "PDF binary data",
                       value = "PDF binary data"),
-              schema = @Schema(type = SchemaType.STRING, format = "binary"))
+              schema = @Schema(type = SchemaType.STRING, format = "binary")),
+          @Content(
+              mediaType = IMAGE_PNG,
+              schema = @Schema(type = SchemaType.STRING, format = "binary")),
+          @Content(mediaType = IMAGE_SVG, schema = @Schema(type = SchemaType.STRING))
         }),
     @APIResponse(
         responseCode = "400",
@@ -131,28 +158,55 @@ public class WordSearchResource {
                         name = "PDF Error",
                         summary = "PDF generation failed",
                         value = "{\"error\":\"PDF generation failed.\"}"),
+                schema = @Schema(type = SchemaType.OBJECT, implementation = Map.class))),
+    @APIResponse(
+        responseCode = "503",
+        description = "Generation timed out",
+        content =
+            @Content(
+                mediaType = "application/json",
+                examples =
+                    @ExampleObject(
+                        name = "Timeout",
+                        summary = "Generation timed out",
+                        value =
+                            "{\"error\":\"Failed to generate Puzzle: Error: Grid generation timed"
+                                + " out after 500 ms.\"}"),
                 schema = @Schema(type = SchemaType.OBJECT, implementation = Map.class)))
   })
-  public Response generateWordSearch(WordSearchRequest req) {
-    WordSearchResult result = wordSearchService.generatePuzzle(req);
+  public Response generateWordSearch(WordSearchRequest req, @Context RoutingContext routing) {
+    // The Vert.x response itself, not a proxy, so generation threads can check it as well.
+    HttpServerResponse response = routing.response();
+    WordSearchResult result = wordSearchService.generatePuzzle(req, true, response::closed);
     if (result.isError()) {
-      int status =
-          result.getError().contains("Too many words")
-                  || result.getError().contains("empty")
-                  || result.getError().contains("exceeds")
-              ? BAD_REQUEST.getStatusCode()
-              : 500;
-      return Response.status(status)
+      return Response.status(statusOf(result.getError(), result.isTimedOut()))
           .entity(Collections.singletonMap("error", result.getError()))
           .type(MediaType.APPLICATION_JSON)
           .build();
     }
-    if (result.isPdf()) {
-      return Response.ok(result.getPdfBytes(), APPLICATION_PDF)
+    if (result.getImage() != null) {
+      ImageFormat format = result.getImage();
+      WordSearch puzzle = result.getPuzzle();
+      StreamingOutput image =
+          streamed("Image", output -> wordSearchService.writeImage(puzzle, req, output), response);
+      return Response.ok(image, format.getMediaType())
+          .header("Content-Disposition", "inline; filename=wordsearch." + format.getExtension())
+          .header("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0")
+          .header("Pragma", "no-cache")
+          .header("Expires", "0")
+          .header(SEED_HEADER, result.getSeed())
+          .build();
+    } else if (result.isPdf()) {
+      // The PDF is saved straight to the response stream instead of being buffered as bytes.
+      WordSearch puzzle = result.getPuzzle();
+      StreamingOutput pdf =
+          streamed("PDF", output -> wordSearchService.writePdf(puzzle, req, output), response);
+      return Response.ok(pdf, APPLICATION_PDF)
           .header("Content-Disposition", "inline; filename=wordsearch.pdf")
           .header("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0")
           .header("Pragma", "no-cache")
           .header("Expires", "0")
+          .header(SEED_HEADER, result.getSeed())
           .build();
     } else {
       ObjectNode json = result.getJson();
@@ -168,4 +222,209 @@ public class WordSearchResource {
       return Response.ok(json, MediaType.APPLICATION_JSON).build();
     }
   }
+
+  /**
+   * Generates a book of word search puzzles as one PDF, optionally with answer pages.
+   *
+   * @param req the book request
+   * @param routing the HTTP exchange; generation stops if its connection closes, and it is closed
+   *     if the streamed book fails part way
+   * @return the PDF with one page per puzzle, followed by the answer pages if requested
+   */
+  @POST
+  @Path("/book")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces({APPLICATION_PDF, MediaType.APPLICATION_JSON})
+  @Operation(
+      summary = "Generate a book of word search puzzles",
+      description =
+          "Generates one PDF with a page for each word list, optionally followed by an answer page"
+              + " for each puzzle.")
+  @RequestBody(
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON,
+              schema = @Schema(implementation = WordSearchBookRequest.class),
+              examples = {
+                @ExampleObject(
+                    name = "Basic Example",
+                    summary = "A two-puzzle book with answers",
+                    value =
+                        "{\"puzzles\":[{\"words\":[\"apple\",\"banana\"]},"
+                            + "{\"words\":[\"cherry\",\"grape\"]}],\"answers\":true}")
+              }))
+  @APIResponses({
+    @APIResponse(
+        responseCode = "200",
+        description = "Book generated successfully",
+        content =
+            @Content(
+                mediaType = APPLICATION_PDF,
+                schema = @Schema(type = SchemaType.STRING, format = "binary"))),
+    @APIResponse(
+        responseCode = "400",
+        description = "Invalid input",
+        content =
+            @Content(
+                mediaType = "application/json",
+                examples =
+                    @ExampleObject(
+                        name = "Too Many Puzzles",
+                        summary = "Too many puzzles error",
+                        value = "{\"error\":\"Too many puzzles. Maximum allowed is 100.\"}"),
+                schema = @Schema(type = SchemaType.OBJECT, implementation = Map.class))),
+    @APIResponse(
+        responseCode = "503",
+        description = "Generation timed out",
+        content =
+            @Content(
+                mediaType = "application/json",
+                schema = @Schema(type = SchemaType.OBJECT, implementation = Map.class)))
+  })
+  public Response generateBook(WordSearchBookRequest req, @Context RoutingContext routing) {
+    HttpServerResponse response = routing.response();
+    WordSearchBookResult result = wordSearchService.generateBook(req, response::closed);
+    if (result.isError()) {
+      return Response.status(statusOf(result.getError(), result.isTimedOut()))
+          .entity(Collections.singletonMap("error", result.getError()))
+          .type(MediaType.APPLICATION_JSON)
+          .build();
+    }
+    List<WordSearch> puzzles = result.getPuzzles();
+    StreamingOutput pdf =
+        streamed("PDF", output -> wordSearchService.writeBook(puzzles, req, output), response);
+    return Response.ok(pdf, APPLICATION_PDF)
+        .header("Content-Disposition", "inline; filename=wordsearch-book.pdf")
+        .header("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0")
+        .header("Pragma", "no-cache")
+        .header("Expires", "0")
+        .build();
+  }
+
+  /**
+   * Finds every occurrence of a list of words in an existing grid.
+   *
+   * @param req the solve request
+   * @return the occurrences and the words that were not found
+   */
+  @POST
+  @Path("/solve")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  @Operation(
+      summary = "Solve a word search puzzle",
+      description =
+          "Finds every occurrence of the words in the grid, in all eight directions, and lists the"
+              + " words that do not occur.")
+  @RequestBody(
+      content =
+          @Content(
+              mediaType = MediaType.APPLICATION_JSON,
+              schema = @Schema(implementation = WordSearchSolveRequest.class),
+              examples = {
+                @ExampleObject(
+                    name = "Basic Example",
+                    summary = "A simple solve request",
+                    value = "{\"grid\":[\"CATX\",\"XDOG\",\"XXXX\"],\"words\":[\"cat\",\"dog\"]}")
+              }))
+  @APIResponses({
+    @APIResponse(
+        responseCode = "200",
+        description = "Grid solved successfully",
+        content =
+            @Content(
+                mediaType = MediaType.APPLICATION_JSON,
+                schema = @Schema(implementation = WordSearchSolveResult.class))),
+    @APIResponse(
+        responseCode = "400",
+        description = "Invalid input",
+        content =
+            @Content(
+                mediaType = "application/json",
+                examples =
+                    @ExampleObject(
+                        name = "Empty Grid",
+                        summary = "Empty grid error",
+                        value = "{\"error\":\"Grid must not be empty.\"}"),
+                schema = @Schema(type = SchemaType.OBJECT, implementation = Map.class)))
+  })
+  public Response solveWordSearch(WordSearchSolveRequest req) {
+    WordSearchSolveResult result = wordSearchService.solvePuzzle(req);
+    if (result.isError()) {
+      return Response.status(BAD_REQUEST)
+          .entity(Collections.singletonMap("error", result.getError()))
+          .type(MediaType.APPLICATION_JSON)
+          .build();
+    }
+    return Response.ok(result, MediaType.APPLICATION_JSON).build();
+  }
+
+  /**
+   * Streams a document to the response, holding back its first {@link
+   * DeferredOutputStream#BUFFER_SIZE} bytes. A document that fails within them has sent nothing, so
+   * the failure becomes the JSON error response. One that fails later has already sent a 200
+   * status, so the connection is closed instead of ending the body: the client sees a truncated
+   * transfer, never a short document that looks complete.
+   *
+   * @param output what is being rendered, such as {@code PDF}
+   * @param document writes the document
+   * @param response the HTTP response, closed if the document fails after being committed
+   * @return the streaming output
+   */
+  private static StreamingOutput streamed(
+      String output, StreamingOutput document, HttpServerResponse response) {
+    return out -> {
+      DeferredOutputStream deferred = new DeferredOutputStream(out);
+      try {
+        document.write(deferred);
+        deferred.finish();
+      } catch (IOException e) {
+        if (deferred.isCommitted()) {
+          response.close();
+          throw e;
+        }
+        throw renderFailure(output, e);
+      }
+    };
+  }
+
+  /**
+   * Turns a failure while rendering a PDF or image, before any of it was sent, into the JSON error
+   * response.
+   *
+   * @param output what was being rendered, such as {@code PDF}
+   * @param e the rendering failure
+   * @return the exception carrying the error response
+   */
+  private static WebApplicationException renderFailure(String output, IOException e) {
+    return new WebApplicationException(
+        e,
+        Response.serverError()
+            .entity(
+                Collections.singletonMap("error", output + " generation failed: " + e.getMessage()))
+            .type(MediaType.APPLICATION_JSON)
+            .build());
+  }
+
+  /**
+   * Maps a generation error to its HTTP status.
+   *
+   * @param error the error message
+   * @param timedOut whether generation ran out of time
+   * @return 503 for timeouts, 400 for invalid input and 500 otherwise
+   */
+  private static int statusOf(String error, boolean timedOut) {
+    if (timedOut) {
+      return SERVICE_UNAVAILABLE.getStatusCode();
+    }
+    if (error.contains("Too many")
+        || error.contains("empty")
+        || error.contains("exceeds")
+        || error.contains("alphabet")
+        || error.contains("must be positive")
+        || error.contains("not enabled")) {
+      return BAD_REQUEST.getStatusCode();
+    }
+    return 500;
+  }
 }
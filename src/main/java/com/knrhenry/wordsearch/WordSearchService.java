@@ -1,12 +1,35 @@
 package com.knrhenry.wordsearch;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.knrhenry.wordsearch.dto.WordSearchBookRequest;
+import com.knrhenry.wordsearch.dto.WordSearchBookResult;
 import com.knrhenry.wordsearch.dto.WordSearchRequest;
 import com.knrhenry.wordsearch.dto.WordSearchResult;
+import com.knrhenry.wordsearch.dto.WordSearchSolveRequest;
+import com.knrhenry.wordsearch.dto.WordSearchSolveResult;
 import com.lowagie.text.DocumentException;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 /** Service for generating word search puzzles and PDFs. */
 @ApplicationScoped
@@ -18,6 +41,77 @@ public class WordSearchService {
   /** JSON generator for word search puzzles. */
   @Inject WordSearchJsonGenerator jsonGenerator;
 
+  /** PNG and SVG generator for word search puzzles. */
+  @Inject WordSearchImageGenerator imageGenerator;
+
+  /** Maximum number of words in a standard puzzle. */
+  private static final int MAX_WORDS = 20;
+
+  /** Maximum number of rows or columns of a grid to solve. */
+  private static final int MAX_SOLVE_GRID_SIZE = 500;
+
+  /** Maximum number of words to look for in a grid. */
+  private static final int MAX_SOLVE_WORDS = 5000;
+
+  /** Bounded pool the puzzles and pages of books are generated on. */
+  private static final ForkJoinPool BOOK_POOL =
+      new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+  /**
+   * Whether requests may ask for the large tier. Off by default, since a client could otherwise
+   * choose the costliest generation itself; enable it where callers are trusted.
+   */
+  @ConfigProperty(name = "wordsearch.large.enabled", defaultValue = "false")
+  boolean largeEnabled;
+
+  /** Maximum number of words in a large-tier puzzle. */
+  @ConfigProperty(name = "wordsearch.large.max-words", defaultValue = "5000")
+  int largeMaxWords;
+
+  /** Largest grid size of a large-tier puzzle. */
+  @ConfigProperty(name = "wordsearch.large.max-grid-size", defaultValue = "500")
+  int largeMaxGridSize;
+
+  /** Maximum number of puzzles in a book. */
+  @ConfigProperty(name = "wordsearch.book.max-puzzles", defaultValue = "100")
+  int bookMaxPuzzles;
+
+  /** Number of generation attempts raced in parallel per puzzle; 1 or less is sequential. */
+  @ConfigProperty(name = "wordsearch.generation.parallel-attempts", defaultValue = "1")
+  int parallelAttempts;
+
+  /** Time budget in milliseconds of the search for the smallest grid in compact mode. */
+  @ConfigProperty(name = "wordsearch.generation.compact-timeout-ms", defaultValue = "1000")
+  long compactTimeoutMs;
+
+  /** Largest time budget in milliseconds of one generation; 0 or less leaves it unbounded. */
+  @ConfigProperty(name = "wordsearch.generation.timeout-ms", defaultValue = "10000")
+  long maxTimeoutMs;
+
+  /** File with the strings the filler must never spell; the built-in list is used when unset. */
+  @ConfigProperty(name = "wordsearch.filler.blocklist")
+  Optional<String> blocklistPath;
+
+  /** Blocklist loaded from {@code blocklistPath}, or null to use the built-in list. */
+  private Blocklist blocklist;
+
+  /**
+   * Loads the configured blocklist once, so every request shares its automaton.
+   *
+   * @throws UncheckedIOException if the configured file cannot be read
+   */
+  @PostConstruct
+  void loadBlocklist() {
+    if (blocklistPath == null || blocklistPath.isEmpty()) {
+      return;
+    }
+    try (InputStream input = Files.newInputStream(Path.of(blocklistPath.get()))) {
+      blocklist = Blocklist.load(input);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not read blocklist " + blocklistPath.get(), e);
+    }
+  }
+
   /**
    * Generates a word search puzzle based on the provided request.
    *
@@ -25,25 +119,71 @@ public class WordSearchService {
    * @return the generated word search result
    */
   public WordSearchResult generatePuzzle(WordSearchRequest request) {
+    return generatePuzzle(request, false);
+  }
+
+  /**
+   * Generates a word search puzzle, optionally leaving a requested PDF or image for the caller to
+   * stream.
+   *
+   * @param request the word search request containing words and output format
+   * @param streamPdf true to skip rendering a requested PDF or image and return the puzzle for
+   *     {@link #writePdf} or {@link #writeImage} instead
+   * @return the generated word search result
+   */
+  public WordSearchResult generatePuzzle(WordSearchRequest request, boolean streamPdf) {
+    return generatePuzzle(request, streamPdf, null);
+  }
+
+  /**
+   * Generates a word search puzzle that the caller may give up on, such as when the client has
+   * disconnected.
+   *
+   * @param request the word search request containing words and output format
+   * @param streamPdf true to skip rendering a requested PDF or image and return the puzzle for
+   *     {@link #writePdf} or {@link #writeImage} instead
+   * @param cancellation returns true once the puzzle is no longer wanted, or null
+   * @return the generated word search result
+   */
+  public WordSearchResult generatePuzzle(
+      WordSearchRequest request, boolean streamPdf, BooleanSupplier cancellation) {
     WordSearchResult result = new WordSearchResult();
-    if (request == null || request.getWords() == null || request.getWords().isEmpty()) {
-      result.setError("Word list must not be empty.");
-      return result;
-    }
-    if (request.getWords().size() > 20) {
-      result.setError("Too many words. Maximum allowed is 20.");
+    String invalid = validate(request);
+    if (invalid != null) {
+      result.setError(invalid);
       return result;
     }
     try {
-      WordSearch ws = WordSearch.create(request.getWords());
+      WordSearchOptions options = toOptions(request);
+      options.setCancellation(cancellation);
+      WordSearch ws = WordSearch.create(request.getWords(), options);
       result.setGrid(ws.getGrid());
       result.setWords(request.getWords());
-      result.setPdf(request.isPdf());
-      if (request.isPdf()) {
-        result.setPdfBytes(pdfGenerator.generatePdf(ws, request.getFooterUrl()));
+      result.setSeed(ws.getSeed());
+      result.setImage(request.getImage());
+      result.setPdf(request.getImage() == null && request.isPdf());
+      if (streamPdf && (request.getImage() != null || request.isPdf())) {
+        result.setPuzzle(ws);
+      } else if (request.getImage() != null) {
+        try {
+          result.setImageBytes(
+              imageGenerator.generateImage(ws, request.getImage(), request.isGridLines()));
+        } catch (IOException e) {
+          result.setError("Image generation failed: " + e.getMessage());
+        }
+      } else if (request.isPdf()) {
+        result.setPdfBytes(
+            pdfGenerator.generatePdf(
+                ws,
+                request.getFooterUrl(),
+                toPdfOptions(
+                    request.getPaperSize(), request.isGridLines(), request.isLinearized())));
       } else {
         result.setJson(jsonGenerator.generateJson(ws));
       }
+    } catch (WordSearchTimeoutException e) {
+      result.setError("Failed to generate Puzzle: " + e.getMessage());
+      result.setTimedOut(true);
     } catch (WordSearchException e) {
       result.setError("Failed to generate Puzzle: " + e.getMessage());
     } catch (JsonProcessingException e) {
@@ -53,4 +193,303 @@ public class WordSearchService {
     }
     return result;
   }
+
+  /**
+   * Renders a puzzle as PDF straight to a stream.
+   *
+   * @param puzzle the puzzle returned by {@link #generatePuzzle(WordSearchRequest, boolean)}
+   * @param request the request the puzzle was generated for, giving the footer and page layout
+   * @param out the stream to write to; it is left open
+   * @throws IOException if PDF generation or writing fails
+   */
+  public void writePdf(WordSearch puzzle, WordSearchRequest request, OutputStream out)
+      throws IOException {
+    pdfGenerator.writePdf(
+        puzzle,
+        request.getFooterUrl(),
+        toPdfOptions(request.getPaperSize(), request.isGridLines(), request.isLinearized()),
+        out);
+  }
+
+  /**
+   * Renders a puzzle as PNG or SVG straight to a stream.
+   *
+   * @param puzzle the puzzle returned by {@link #generatePuzzle(WordSearchRequest, boolean)}
+   * @param request the request the puzzle was generated for, giving the format and grid lines
+   * @param out the stream to write to; it is left open
+   * @throws IOException if image generation or writing fails
+   */
+  public void writeImage(WordSearch puzzle, WordSearchRequest request, OutputStream out)
+      throws IOException {
+    imageGenerator.writeImage(puzzle, request.getImage(), request.isGridLines(), out);
+  }
+
+  /**
+   * Generates the puzzles of a book. The puzzles are generated concurrently on a bounded pool; a
+   * failure stops the puzzles still being generated through their cancellation check, since
+   * interrupting a pool thread does not reach them, and is reported with its puzzle number.
+   *
+   * @param request the book request containing the puzzle requests
+   * @return the generated puzzles and their seeds, in page order, or the first error
+   */
+  public WordSearchBookResult generateBook(WordSearchBookRequest request) {
+    return generateBook(request, null);
+  }
+
+  /**
+   * Generates the puzzles of a book that the caller may give up on, such as when the client has
+   * disconnected.
+   *
+   * @param request the book request containing the puzzle requests
+   * @param cancellation returns true once the book is no longer wanted, or null
+   * @return the generated puzzles and their seeds, in page order, or the first error
+   */
+  public WordSearchBookResult generateBook(
+      WordSearchBookRequest request, BooleanSupplier cancellation) {
+    WordSearchBookResult result = new WordSearchBookResult();
+    if (request == null || request.getPuzzles() == null || request.getPuzzles().isEmpty()) {
+      result.setError("Puzzle list must not be empty.");
+      return result;
+    }
+    List<WordSearchRequest> requests = request.getPuzzles();
+    if (requests.size() > bookMaxPuzzles) {
+      result.setError("Too many puzzles. Maximum allowed is " + bookMaxPuzzles + ".");
+      return result;
+    }
+    for (int i = 0; i < requests.size(); i++) {
+      String invalid = validate(requests.get(i));
+      if (invalid != null) {
+        result.setError("Puzzle " + (i + 1) + ": " + invalid);
+        return result;
+      }
+    }
+    AtomicBoolean abandoned = new AtomicBoolean();
+    BooleanSupplier stop =
+        cancellation == null
+            ? abandoned::get
+            : () -> abandoned.get() || cancellation.getAsBoolean();
+    List<Future<WordSearch>> futures = new ArrayList<>(requests.size());
+    for (WordSearchRequest puzzle : requests) {
+      WordSearchOptions options = toOptions(puzzle);
+      options.setCancellation(stop);
+      futures.add(
+          BOOK_POOL.submit(
+              () -> {
+                try {
+                  return WordSearch.create(puzzle.getWords(), options);
+                } catch (WordSearchException e) {
+                  if (!(e instanceof WordSearchCancelledException)) {
+                    abandoned.set(true);
+                  }
+                  throw e;
+                }
+              }));
+    }
+    List<WordSearch> puzzles = new ArrayList<>(requests.size());
+    List<Long> seeds = new ArrayList<>(requests.size());
+    try {
+      for (int i = 0; i < futures.size(); i++) {
+        try {
+          WordSearch puzzle = futures.get(i).get();
+          puzzles.add(puzzle);
+          seeds.add(puzzle.getSeed());
+        } catch (ExecutionException e) {
+          Throwable cause = causeOf(e);
+          if (cause instanceof WordSearchCancelledException) {
+            // Stopped because a later puzzle failed or the client went away; report the cause.
+            continue;
+          }
+          result.setError("Failed to generate Puzzle " + (i + 1) + ": " + cause.getMessage());
+          result.setTimedOut(cause instanceof WordSearchTimeoutException);
+          return result;
+        }
+      }
+      if (puzzles.size() < futures.size()) {
+        result.setError("Failed to generate Puzzle: Book generation was cancelled.");
+        return result;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.setError("Failed to generate Puzzle: Book generation was interrupted.");
+      return result;
+    } finally {
+      abandoned.set(true);
+      for (Future<WordSearch> future : futures) {
+        future.cancel(false);
+      }
+    }
+    result.setPuzzles(puzzles);
+    result.setSeeds(seeds);
+    return result;
+  }
+
+  /**
+   * Returns the exception a book puzzle failed with. The pool wraps the checked exceptions of a
+   * task in {@link RuntimeException}s, which are unwrapped here.
+   *
+   * @param e the failure of the task
+   * @return the exception thrown by the generation
+   */
+  private static Throwable causeOf(ExecutionException e) {
+    for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+      if (cause instanceof WordSearchException) {
+        return cause;
+      }
+    }
+    return e.getCause();
+  }
+
+  /**
+   * Renders a book of puzzles as one PDF straight to a stream, laying out its pages on the same
+   * bounded pool the puzzles were generated on.
+   *
+   * @param puzzles the puzzles returned by {@link #generateBook(WordSearchBookRequest)}
+   * @param request the book request, giving the answer pages, footer and page layout
+   * @param out the stream to write to; it is left open
+   * @throws IOException if PDF generation or writing fails
+   */
+  public void writeBook(List<WordSearch> puzzles, WordSearchBookRequest request, OutputStream out)
+      throws IOException {
+    pdfGenerator.writeBook(
+        puzzles,
+        request.isAnswers(),
+        request.getFooterUrl(),
+        toPdfOptions(request.getPaperSize(), request.isGridLines(), request.isLinearized()),
+        out,
+        BOOK_POOL);
+  }
+
+  /**
+   * Maps the page layout fields of a request to PDF options.
+   *
+   * @param paperSize the requested paper size, or null for Letter
+   * @param gridLines whether to draw lines between the grid cells
+   * @param linearized whether to linearize the file for fast web view
+   * @return the PDF options
+   */
+  private static PdfOptions toPdfOptions(
+      PaperSize paperSize, boolean gridLines, boolean linearized) {
+    PdfOptions options = new PdfOptions();
+    if (paperSize != null) {
+      options.setPaperSize(paperSize);
+    }
+    options.setGridLines(gridLines);
+    options.setLinearized(linearized);
+    return options;
+  }
+
+  /**
+   * Finds every occurrence of the requested words in the requested grid.
+   *
+   * @param request the solve request containing the grid rows and the words
+   * @return the occurrences and the words that were not found
+   */
+  public WordSearchSolveResult solvePuzzle(WordSearchSolveRequest request) {
+    WordSearchSolveResult result = new WordSearchSolveResult();
+    if (request == null || request.getGrid() == null || request.getGrid().isEmpty()) {
+      result.setError("Grid must not be empty.");
+      return result;
+    }
+    if (request.getWords() == null || request.getWords().isEmpty()) {
+      result.setError("Word list must not be empty.");
+      return result;
+    }
+    if (request.getWords().size() > MAX_SOLVE_WORDS) {
+      result.setError("Too many words. Maximum allowed is " + MAX_SOLVE_WORDS + ".");
+      return result;
+    }
+    List<String> rows = request.getGrid();
+    char[][] grid = new char[rows.size()][];
+    for (int i = 0; i < grid.length; i++) {
+      grid[i] = rows.get(i) == null ? new char[0] : rows.get(i).toCharArray();
+      if (grid.length > MAX_SOLVE_GRID_SIZE || grid[i].length > MAX_SOLVE_GRID_SIZE) {
+        result.setError(
+            String.format(
+                "Grid exceeds the maximum size of %dx%d.",
+                MAX_SOLVE_GRID_SIZE, MAX_SOLVE_GRID_SIZE));
+        return result;
+      }
+    }
+    try {
+      List<WordSearchSolver.Occurrence> occurrences =
+          WordSearchSolver.solve(grid, request.getWords());
+      Set<String> found = new HashSet<>();
+      for (WordSearchSolver.Occurrence occurrence : occurrences) {
+        found.add(occurrence.word().toUpperCase(Locale.ROOT));
+      }
+      List<String> notFound = new ArrayList<>();
+      for (String word : request.getWords()) {
+        if (!found.contains(word.toUpperCase(Locale.ROOT))) {
+          notFound.add(word);
+        }
+      }
+      result.setOccurrences(occurrences);
+      result.setNotFound(notFound);
+    } catch (IllegalArgumentException e) {
+      result.setError(e.getMessage());
+    }
+    return result;
+  }
+
+  /**
+   * Checks a puzzle request against the service limits.
+   *
+   * @param request the word search request
+   * @return the error message, or null if the request is valid
+   */
+  private String validate(WordSearchRequest request) {
+    if (request == null || request.getWords() == null || request.getWords().isEmpty()) {
+      return "Word list must not be empty.";
+    }
+    if (request.isLarge() && !largeEnabled) {
+      return "The large tier is not enabled on this server.";
+    }
+    int maxWords = request.isLarge() ? largeMaxWords : MAX_WORDS;
+    if (request.getWords().size() > maxWords) {
+      return "Too many words. Maximum allowed is " + maxWords + ".";
+    }
+    if (request.getDirections() != null && request.getDirections().isEmpty()) {
+      return "Direction list must not be empty.";
+    }
+    if (request.getTimeoutMs() != null && request.getTimeoutMs() <= 0) {
+      return "Timeout must be positive.";
+    }
+    return null;
+  }
+
+  /**
+   * Builds the generation options for a request.
+   *
+   * @param request the word search request
+   * @return the generation options
+   */
+  private WordSearchOptions toOptions(WordSearchRequest request) {
+    WordSearchOptions options = new WordSearchOptions();
+    options.setParallelAttempts(parallelAttempts);
+    options.setSeed(request.getSeed());
+    options.setCompact(request.isCompact());
+    options.setUniqueOccurrences(request.isUniqueOccurrences());
+    if (request.isBlocklist()) {
+      options.setBlocklist(blocklist != null ? blocklist : Blocklist.defaults());
+    }
+    if (request.getAlphabet() != null) {
+      options.setAlphabet(request.getAlphabet());
+    }
+    if (request.getFiller() != null) {
+      options.setFillerStrategy(request.getFiller());
+    }
+    if (request.isLarge()) {
+      options.setMaxGridSize(largeMaxGridSize);
+    }
+    options.setCompactTimeoutMs(compactTimeoutMs);
+    Long timeoutMs = request.getTimeoutMs();
+    if (maxTimeoutMs > 0 && (timeoutMs == null || timeoutMs > maxTimeoutMs)) {
+      timeoutMs = maxTimeoutMs;
+    }
+    options.setTimeoutMs(timeoutMs);
+    if (request.getDirections() != null) {
+      options.setDirections(EnumSet.copyOf(request.getDirections()));
+    }
+    return options;
+  }
 }
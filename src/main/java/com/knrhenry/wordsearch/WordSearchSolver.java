@@ -0,0 +1,154 @@
+package com.knrhenry.wordsearch;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds every occurrence of a list of words in a letter grid. All words are compiled into one
+ * Aho-Corasick automaton, and each line of the grid (every row, column and diagonal) is read once
+ * in each direction, so the time taken grows with the grid area and the number of matches rather
+ * than with the number of words.
+ */
+public final class WordSearchSolver {
+  /** Directions each line is read in from its first cell. */
+  private static final WordSearch.Direction[] FORWARD = {
+    WordSearch.Direction.HORIZONTAL,
+    WordSearch.Direction.VERTICAL,
+    WordSearch.Direction.DIAGONAL_DOWN,
+    WordSearch.Direction.DIAGONAL_UP
+  };
+
+  /** Opposite of each forward direction, used when reading a line from its last cell. */
+  private static final WordSearch.Direction[] BACKWARD = {
+    WordSearch.Direction.HORIZONTAL_REVERSED,
+    WordSearch.Direction.VERTICAL_REVERSED,
+    WordSearch.Direction.DIAGONAL_DOWN_REVERSED,
+    WordSearch.Direction.DIAGONAL_UP_REVERSED
+  };
+
+  /**
+   * A word found in the grid.
+   *
+   * @param word the word as given in the word list
+   * @param row row of the first letter
+   * @param col column of the first letter
+   * @param direction direction the word reads in
+   */
+  public record Occurrence(String word, int row, int col, WordSearch.Direction direction) {}
+
+  private WordSearchSolver() {}
+
+  /**
+   * Finds every occurrence of the words in the grid, ignoring case. Single-letter words are only
+   * reported once per cell, as horizontal occurrences. Words longer than the longest line of the
+   * grid, or with a letter the grid does not contain, cannot occur and are left out of the
+   * automaton, which keeps its size bound by the grid rather than by the word list.
+   *
+   * @param grid the rectangular letter grid
+   * @param words the words to look for
+   * @return the occurrences, in the order they were found
+   * @throws IllegalArgumentException if the grid rows differ in length, a word is null or blank, or
+   *     the words that can occur are too many to search
+   */
+  public static List<Occurrence> solve(char[][] grid, List<String> words) {
+    int rows = grid.length;
+    int cols = rows == 0 ? 0 : grid[0].length;
+    for (char[] row : grid) {
+      if (row.length != cols) {
+        throw new IllegalArgumentException("Grid rows must all have the same length.");
+      }
+    }
+    int longestLine = Math.max(rows, cols);
+    BitSet letters = new BitSet();
+    for (char[] row : grid) {
+      for (char c : row) {
+        letters.set(Character.toUpperCase(c));
+      }
+    }
+    Map<String, String> patterns = new LinkedHashMap<>();
+    for (String word : words) {
+      if (word == null || word.isBlank()) {
+        throw new IllegalArgumentException("Words must not be empty.");
+      }
+      String pattern = word.toUpperCase(Locale.ROOT);
+      if (pattern.length() <= longestLine && inGrid(pattern, letters)) {
+        patterns.putIfAbsent(pattern, word);
+      }
+    }
+    List<Occurrence> occurrences = new ArrayList<>();
+    if (patterns.isEmpty()) {
+      return occurrences;
+    }
+    List<String> names = new ArrayList<>(patterns.values());
+    AhoCorasick automaton = new AhoCorasick(new ArrayList<>(patterns.keySet()));
+    char[] line = new char[longestLine];
+    for (int d = 0; d < FORWARD.length; d++) {
+      int rowStep = FORWARD[d].getRowStep();
+      int colStep = FORWARD[d].getColStep();
+      for (int row = 0; row < rows; row++) {
+        for (int col = 0; col < cols; col++) {
+          if (inside(row - rowStep, col - colStep, rows, cols)) {
+            continue;
+          }
+          // (row, col) is the first cell of a line; read it into the buffer once.
+          int length = 0;
+          for (int r = row, c = col; inside(r, c, rows, cols); r += rowStep, c += colStep) {
+            line[length++] = Character.toUpperCase(grid[r][c]);
+          }
+          int state = AhoCorasick.ROOT;
+          for (int i = 0; i < length; i++) {
+            state = automaton.step(state, line[i]);
+            for (int m = automaton.firstMatch(state); m >= 0; m = automaton.nextMatch(m)) {
+              int pattern = automaton.pattern(m);
+              int wordLength = automaton.length(pattern);
+              if (wordLength > 1 || d == 0) {
+                int start = i - wordLength + 1;
+                occurrences.add(
+                    new Occurrence(
+                        names.get(pattern),
+                        row + start * rowStep,
+                        col + start * colStep,
+                        FORWARD[d]));
+              }
+            }
+          }
+          state = AhoCorasick.ROOT;
+          for (int i = length - 1; i >= 0; i--) {
+            state = automaton.step(state, line[i]);
+            for (int m = automaton.firstMatch(state); m >= 0; m = automaton.nextMatch(m)) {
+              int pattern = automaton.pattern(m);
+              int wordLength = automaton.length(pattern);
+              if (wordLength > 1) {
+                int start = i + wordLength - 1;
+                occurrences.add(
+                    new Occurrence(
+                        names.get(pattern),
+                        row + start * rowStep,
+                        col + start * colStep,
+                        BACKWARD[d]));
+              }
+            }
+          }
+        }
+      }
+    }
+    return occurrences;
+  }
+
+  private static boolean inGrid(String pattern, BitSet letters) {
+    for (int i = 0; i < pattern.length(); i++) {
+      if (!letters.get(pattern.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean inside(int row, int col, int rows, int cols) {
+    return row >= 0 && row < rows && col >= 0 && col < cols;
+  }
+}
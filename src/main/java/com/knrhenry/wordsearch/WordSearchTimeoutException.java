@@ -0,0 +1,8 @@
+package com.knrhenry.wordsearch;
+
+/** Thrown when grid generation does not finish within its time budget. */
+public class WordSearchTimeoutException extends WordSearchException {
+  public WordSearchTimeoutException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,97 @@
+package com.knrhenry.wordsearch.dto;
+
+import com.knrhenry.wordsearch.PaperSize;
+import java.util.List;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/** DTO for requests to generate a book of word search puzzles as one PDF. */
+public class WordSearchBookRequest {
+  @Schema(
+      description =
+          "Puzzles of the book, one per page, in order. Each takes the same fields as a single"
+              + " puzzle request; its pdf, footerUrl, paperSize, gridLines and linearized fields"
+              + " are ignored.",
+      minItems = 1,
+      examples = {"[{\"words\":[\"apple\",\"banana\"]},{\"words\":[\"cherry\",\"grape\"]}]"})
+  private List<WordSearchRequest> puzzles;
+
+  @Schema(
+      description = "Set to true to add an answer page for each puzzle after the puzzle pages.",
+      defaultValue = "false",
+      examples = {"true"})
+  private boolean answers;
+
+  @Schema(
+      description = "URL for the footer. This will be appended at the bottom of every page.",
+      examples = {"http://example.com/footer"})
+  private String footerUrl;
+
+  @Schema(
+      description =
+          "Paper size of every page. Grids too large to read on one page are split into parts;"
+              + " POSTER sizes each page to its grid instead. Defaults to LETTER.",
+      examples = {"A4"})
+  private PaperSize paperSize;
+
+  @Schema(
+      description = "Set to true to draw lines between the grid cells.",
+      defaultValue = "false",
+      examples = {"false"})
+  private boolean gridLines;
+
+  @Schema(
+      description =
+          "Set to true for a linearized (fast web view) PDF, which a browser can start showing"
+              + " before the whole book has arrived. Applies to puzzles in the Latin-1 range.",
+      defaultValue = "false",
+      examples = {"false"})
+  private boolean linearized;
+
+  public List<WordSearchRequest> getPuzzles() {
+    return puzzles;
+  }
+
+  public void setPuzzles(List<WordSearchRequest> puzzles) {
+    this.puzzles = puzzles;
+  }
+
+  public boolean isAnswers() {
+    return answers;
+  }
+
+  public void setAnswers(boolean answers) {
+    this.answers = answers;
+  }
+
+  public String getFooterUrl() {
+    return footerUrl;
+  }
+
+  public void setFooterUrl(String footerUrl) {
+    this.footerUrl = footerUrl;
+  }
+
+  public PaperSize getPaperSize() {
+    return paperSize;
+  }
+
+  public void setPaperSize(PaperSize paperSize) {
+    this.paperSize = paperSize;
+  }
+
+  public boolean isGridLines() {
+    return gridLines;
+  }
+
+  public void setGridLines(boolean gridLines) {
+    this.gridLines = gridLines;
+  }
+
+  public boolean isLinearized() {
+    return linearized;
+  }
+
+  public void setLinearized(boolean linearized) {
+    this.linearized = linearized;
+  }
+}
@@ -0,0 +1,58 @@
+package com.knrhenry.wordsearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.knrhenry.wordsearch.WordSearch;
+import java.util.List;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/** DTO for the results of generating a book of word search puzzles. */
+public class WordSearchBookResult {
+  @Schema(description = "Seed each puzzle was generated from, in page order.")
+  private List<Long> seeds;
+
+  @Schema(description = "Error message if an error occurred, otherwise null.")
+  private String error;
+
+  @Schema(description = "True if the error is that generation ran out of time.")
+  private boolean timedOut;
+
+  /** Generated puzzles, in page order, whose PDF is still to be written. */
+  private List<WordSearch> puzzles;
+
+  public List<Long> getSeeds() {
+    return seeds;
+  }
+
+  public void setSeeds(List<Long> seeds) {
+    this.seeds = seeds;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  public boolean isError() {
+    return error != null;
+  }
+
+  public boolean isTimedOut() {
+    return timedOut;
+  }
+
+  public void setTimedOut(boolean timedOut) {
+    this.timedOut = timedOut;
+  }
+
+  @JsonIgnore
+  public List<WordSearch> getPuzzles() {
+    return puzzles;
+  }
+
+  public void setPuzzles(List<WordSearch> puzzles) {
+    this.puzzles = puzzles;
+  }
+}
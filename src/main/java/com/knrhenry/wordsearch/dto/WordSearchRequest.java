@@ -1,5 +1,10 @@
 package com.knrhenry.wordsearch.dto;
 
+import com.knrhenry.wordsearch.Alphabet;
+import com.knrhenry.wordsearch.ImageFormat;
+import com.knrhenry.wordsearch.PaperSize;
+import com.knrhenry.wordsearch.StandardFiller;
+import com.knrhenry.wordsearch.WordSearch;
 import java.util.List;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
@@ -7,8 +12,8 @@ import org.eclipse.microprofile.openapi.annotations.media.Schema;
 public class WordSearchRequest {
   @Schema(
       description =
-          "List of words to include in the puzzle. Max 20 words, each up to 30 characters.",
-      maxItems = 20,
+          "List of words to include in the puzzle. Max 20 words, or the large-tier limit when"
+              + " large is set, each up to 30 characters.",
       minItems = 1,
       examples = {"[\"apple\",\"banana\",\"cherry\"]"})
   private List<String> words;
@@ -24,6 +29,106 @@ public class WordSearchRequest {
       examples = {"http://example.com/footer"})
   private String footerUrl;
 
+  @Schema(
+      description =
+          "Directions words may be placed in. Defaults to the four forward directions"
+              + " (HORIZONTAL, VERTICAL, DIAGONAL_DOWN, DIAGONAL_UP); list the _REVERSED ones to"
+              + " also place words backwards.",
+      examples = {"[\"HORIZONTAL\",\"VERTICAL\"]"})
+  private List<WordSearch.Direction> directions;
+
+  @Schema(
+      description =
+          "Seed for the puzzle generator. The same words, options and seed always give the same"
+              + " grid. A random seed is used when omitted.",
+      examples = {"42"})
+  private Long seed;
+
+  @Schema(
+      description =
+          "Set to true to search for the smallest grid the words fit in. The search is bounded by"
+              + " a time budget, so the tightest grid found in time is returned.",
+      defaultValue = "false",
+      examples = {"false"})
+  private boolean compact;
+
+  @Schema(
+      description =
+          "Set to true for the large tier, which allows thousands of words and grids of up to"
+              + " 500x500 for posters. Rejected unless the server enables the large tier.",
+      defaultValue = "false",
+      examples = {"false"})
+  private boolean large;
+
+  @Schema(
+      description =
+          "Set to true so the filler letters never form a second occurrence of a word, in any"
+              + " direction.",
+      defaultValue = "false",
+      examples = {"false"})
+  private boolean uniqueOccurrences;
+
+  @Schema(
+      description =
+          "Set to true so the filler letters never spell an entry of the blocklist, such as an"
+              + " offensive word, in any direction. Off by default, so a seed keeps giving the same"
+              + " grid.",
+      defaultValue = "false",
+      examples = {"false"})
+  private boolean blocklist;
+
+  @Schema(
+      description =
+          "How the cells no word covers are filled. UNIFORM makes every letter equally likely;"
+              + " LETTER_FREQUENCY weights letters as in the language of the alphabet, so the"
+              + " decoys look more natural. Defaults to UNIFORM.",
+      examples = {"LETTER_FREQUENCY"})
+  private StandardFiller filler;
+
+  @Schema(
+      description =
+          "Letters the puzzle is written in. Words are upper-cased in its language, accents the"
+              + " alphabet lacks are dropped, and spaces and punctuation are ignored. Defaults to"
+              + " LATIN.",
+      examples = {"SPANISH"})
+  private Alphabet alphabet;
+
+  @Schema(
+      description =
+          "Time budget for generating the puzzle in milliseconds. Generation stops with a timeout"
+              + " error once it runs out. Defaults to the server limit, which also caps it.",
+      examples = {"2000"})
+  private Long timeoutMs;
+
+  @Schema(
+      description =
+          "Paper size of the PDF. A grid too large to read on one page is split into parts, one"
+              + " page each, that share two rows or columns with their neighbours. POSTER sizes"
+              + " the page to the grid instead, for large-format printing. Defaults to LETTER.",
+      examples = {"A4"})
+  private PaperSize paperSize;
+
+  @Schema(
+      description = "Set to true to draw lines between the grid cells in the PDF.",
+      defaultValue = "false",
+      examples = {"false"})
+  private boolean gridLines;
+
+  @Schema(
+      description =
+          "Set to true for a linearized (fast web view) PDF, which a browser can start showing"
+              + " before the whole file has arrived. Applies to puzzles in the Latin-1 range.",
+      defaultValue = "false",
+      examples = {"false"})
+  private boolean linearized;
+
+  @Schema(
+      description =
+          "Image format to render the puzzle in: PNG or SVG, showing the grid and the word list."
+              + " Takes precedence over pdf. The gridLines option applies as for PDF.",
+      examples = {"PNG"})
+  private ImageFormat image;
+
   public List<String> getWords() {
     return words;
   }
@@ -47,4 +152,108 @@ public class WordSearchRequest {
   public void setFooterUrl(String footerUrl) {
     this.footerUrl = footerUrl;
   }
+
+  public List<WordSearch.Direction> getDirections() {
+    return directions;
+  }
+
+  public void setDirections(List<WordSearch.Direction> directions) {
+    this.directions = directions;
+  }
+
+  public Long getSeed() {
+    return seed;
+  }
+
+  public void setSeed(Long seed) {
+    this.seed = seed;
+  }
+
+  public boolean isCompact() {
+    return compact;
+  }
+
+  public void setCompact(boolean compact) {
+    this.compact = compact;
+  }
+
+  public Long getTimeoutMs() {
+    return timeoutMs;
+  }
+
+  public void setTimeoutMs(Long timeoutMs) {
+    this.timeoutMs = timeoutMs;
+  }
+
+  public boolean isLarge() {
+    return large;
+  }
+
+  public void setLarge(boolean large) {
+    this.large = large;
+  }
+
+  public boolean isUniqueOccurrences() {
+    return uniqueOccurrences;
+  }
+
+  public void setUniqueOccurrences(boolean uniqueOccurrences) {
+    this.uniqueOccurrences = uniqueOccurrences;
+  }
+
+  public boolean isBlocklist() {
+    return blocklist;
+  }
+
+  public void setBlocklist(boolean blocklist) {
+    this.blocklist = blocklist;
+  }
+
+  public StandardFiller getFiller() {
+    return filler;
+  }
+
+  public void setFiller(StandardFiller filler) {
+    this.filler = filler;
+  }
+
+  public Alphabet getAlphabet() {
+    return alphabet;
+  }
+
+  public void setAlphabet(Alphabet alphabet) {
+    this.alphabet = alphabet;
+  }
+
+  public PaperSize getPaperSize() {
+    return paperSize;
+  }
+
+  public void setPaperSize(PaperSize paperSize) {
+    this.paperSize = paperSize;
+  }
+
+  public boolean isGridLines() {
+    return gridLines;
+  }
+
+  public void setGridLines(boolean gridLines) {
+    this.gridLines = gridLines;
+  }
+
+  public boolean isLinearized() {
+    return linearized;
+  }
+
+  public void setLinearized(boolean linearized) {
+    this.linearized = linearized;
+  }
+
+  public ImageFormat getImage() {
+    return image;
+  }
+
+  public void setImage(ImageFormat image) {
+    this.image = image;
+  }
 }
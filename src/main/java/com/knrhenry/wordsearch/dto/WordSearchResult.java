@@ -1,6 +1,9 @@
 package com.knrhenry.wordsearch.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.knrhenry.wordsearch.ImageFormat;
+import com.knrhenry.wordsearch.WordSearch;
 import java.util.List;
 import org.eclipse.microprofile.openapi.annotations.media.Schema;
 
@@ -12,18 +15,35 @@ public class WordSearchResult {
   @Schema(description = "The list of words included in the puzzle.")
   private List<String> words;
 
+  @Schema(description = "Seed the puzzle was generated from; reuse it to reproduce the grid.")
+  private Long seed;
+
   @Schema(description = "PDF bytes if a PDF was requested, otherwise null.")
   private byte[] pdfBytes;
 
   @Schema(description = "Error message if an error occurred, otherwise null.")
   private String error;
 
+  @Schema(description = "True if the error is that generation ran out of time.")
+  private boolean timedOut;
+
   @Schema(description = "True if the result is a PDF, false for JSON.")
   private boolean isPdf;
 
   @Schema(description = "JSON representation of the puzzle, if requested.")
   private ObjectNode json;
 
+  @Schema(description = "Image format of the result if an image was requested, otherwise null.")
+  private ImageFormat image;
+
+  @Schema(description = "Image bytes if an image was requested, otherwise null.")
+  private byte[] imageBytes;
+
+  /**
+   * Generated puzzle whose PDF or image is still to be streamed, or null once it has been rendered.
+   */
+  private WordSearch puzzle;
+
   public char[][] getGrid() {
     return grid;
   }
@@ -75,4 +95,45 @@ public class WordSearchResult {
   public boolean isError() {
     return error != null;
   }
+
+  public boolean isTimedOut() {
+    return timedOut;
+  }
+
+  public void setTimedOut(boolean timedOut) {
+    this.timedOut = timedOut;
+  }
+
+  public ImageFormat getImage() {
+    return image;
+  }
+
+  public void setImage(ImageFormat image) {
+    this.image = image;
+  }
+
+  public byte[] getImageBytes() {
+    return imageBytes;
+  }
+
+  public void setImageBytes(byte[] imageBytes) {
+    this.imageBytes = imageBytes;
+  }
+
+  public Long getSeed() {
+    return seed;
+  }
+
+  public void setSeed(Long seed) {
+    this.seed = seed;
+  }
+
+  @JsonIgnore
+  public WordSearch getPuzzle() {
+    return puzzle;
+  }
+
+  public void setPuzzle(WordSearch puzzle) {
+    this.puzzle = puzzle;
+  }
 }
@@ -0,0 +1,35 @@
+package com.knrhenry.wordsearch.dto;
+
+import java.util.List;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/** DTO for word search solve requests. */
+public class WordSearchSolveRequest {
+  @Schema(
+      description =
+          "Rows of the grid to search, top to bottom. All rows must have the same length. Max"
+              + " 500x500.",
+      examples = {"[\"CATX\",\"XDOG\",\"XXXX\"]"})
+  private List<String> grid;
+
+  @Schema(
+      description = "Words to look for, in any of the eight directions. Case is ignored.",
+      examples = {"[\"cat\",\"dog\",\"fox\"]"})
+  private List<String> words;
+
+  public List<String> getGrid() {
+    return grid;
+  }
+
+  public void setGrid(List<String> grid) {
+    this.grid = grid;
+  }
+
+  public List<String> getWords() {
+    return words;
+  }
+
+  public void setWords(List<String> words) {
+    this.words = words;
+  }
+}
@@ -0,0 +1,49 @@
+package com.knrhenry.wordsearch.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.knrhenry.wordsearch.WordSearchSolver;
+import java.util.List;
+import org.eclipse.microprofile.openapi.annotations.media.Schema;
+
+/** DTO for word search solve results. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WordSearchSolveResult {
+  @Schema(description = "Every occurrence of the words in the grid.")
+  private List<WordSearchSolver.Occurrence> occurrences;
+
+  @Schema(description = "Words that do not occur in the grid.")
+  private List<String> notFound;
+
+  @Schema(description = "Error message if an error occurred, otherwise null.")
+  private String error;
+
+  public List<WordSearchSolver.Occurrence> getOccurrences() {
+    return occurrences;
+  }
+
+  public void setOccurrences(List<WordSearchSolver.Occurrence> occurrences) {
+    this.occurrences = occurrences;
+  }
+
+  public List<String> getNotFound() {
+    return notFound;
+  }
+
+  public void setNotFound(List<String> notFound) {
+    this.notFound = notFound;
+  }
+
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+
+  @JsonIgnore
+  public boolean isError() {
+    return error != null;
+  }
+}
@@ -0,0 +1,47 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the puzzle alphabets. */
+class AlphabetTest {
+
+  @Test
+  void testNormalizeUpperCasesAndDropsSeparators() {
+    assertThat("Latin", Alphabet.LATIN.normalize("ice-cream sundae"), is("ICECREAMSUNDAE"));
+  }
+
+  @Test
+  void testNormalizeKeepsLettersOfTheAlphabet() {
+    assertThat("Spanish keeps Ñ", Alphabet.SPANISH.normalize("niño"), is("NIÑO"));
+    assertThat("German keeps umlauts", Alphabet.GERMAN.normalize("Bär"), is("BÄR"));
+    assertThat("Greek", Alphabet.GREEK.normalize("λέξη"), is("ΛΕΞΗ"));
+  }
+
+  @Test
+  void testNormalizeDropsAccentsTheAlphabetLacks() {
+    assertThat("Latin drops the tilde", Alphabet.LATIN.normalize("niño"), is("NINO"));
+    assertThat(
+        "Spanish drops the acute accent", Alphabet.SPANISH.normalize("canción"), is("CANCION"));
+    assertThat("German sharp s", Alphabet.GERMAN.normalize("Straße"), is("STRASSE"));
+  }
+
+  @Test
+  void testNormalizeRejectsForeignLetters() {
+    assertThat("Greek in Latin", Alphabet.LATIN.normalize("λέξη"), is(nullValue()));
+    assertThat("Digits", Alphabet.LATIN.normalize("route66"), is(nullValue()));
+  }
+
+  @Test
+  void testIndexOfMatchesLetter() {
+    for (Alphabet alphabet : Alphabet.values()) {
+      for (int i = 0; i < alphabet.size(); i++) {
+        assertThat(alphabet + " index", alphabet.indexOf(alphabet.letter(i)), is(i));
+      }
+    }
+    assertThat("Not a letter", Alphabet.LATIN.indexOf('?'), is(-1));
+  }
+}
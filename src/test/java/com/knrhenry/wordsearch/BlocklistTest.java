@@ -0,0 +1,68 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the filler blocklist. */
+class BlocklistTest {
+
+  @Test
+  void testDefaultBlocklistIsLoaded() {
+    assertThat("Default list should not be empty", Blocklist.defaults().size(), greaterThan(0));
+  }
+
+  @Test
+  void testLoadSkipsCommentsAndDuplicates() throws Exception {
+    String text = "# comment\nfoo\n\nFOO\n bar \n";
+    Blocklist blocklist =
+        Blocklist.load(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    assertThat("Two distinct entries", blocklist.size(), is(2));
+  }
+
+  @Test
+  void testFillerNeverSpellsBlockedString() throws Exception {
+    List<String> words = List.of("apple", "banana", "cherry");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setBlocklist(Blocklist.of(List.of("q")));
+    for (long seed = 0; seed < 10; seed++) {
+      options.setSeed(seed);
+      WordSearch ws = WordSearch.create(words, options);
+      for (char[] row : ws.getGrid()) {
+        assertThat("Blocked letter should never be filled", new String(row).indexOf('Q'), is(-1));
+      }
+    }
+  }
+
+  @Test
+  void testEntriesIgnoreTheDefaultLocale() throws Exception {
+    Locale locale = Locale.getDefault();
+    Locale.setDefault(Locale.forLanguageTag("tr"));
+    try {
+      WordSearchOptions options = new WordSearchOptions();
+      options.setBlocklist(Blocklist.of(List.of("i")));
+      options.setSeed(1L);
+      WordSearch ws = WordSearch.create(List.of("apple", "banana", "cherry"), options);
+      for (char[] row : ws.getGrid()) {
+        assertThat("Blocked letter should never be filled", new String(row).indexOf('I'), is(-1));
+      }
+    } finally {
+      Locale.setDefault(locale);
+    }
+  }
+
+  @Test
+  void testBlocklistIsOffByDefault() {
+    assertThat(
+        "Options should not filter the filler unless asked",
+        new WordSearchOptions().getBlocklist(),
+        nullValue());
+  }
+}
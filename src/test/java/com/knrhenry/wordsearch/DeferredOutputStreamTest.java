@@ -0,0 +1,38 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayOutputStream;
+import org.junit.jupiter.api.Test;
+
+class DeferredOutputStreamTest {
+
+  @Test
+  void testSmallDocumentIsHeldUntilFinished() throws Exception {
+    ByteArrayOutputStream target = new ByteArrayOutputStream();
+    DeferredOutputStream out = new DeferredOutputStream(target);
+    out.write(new byte[100]);
+    out.write('x');
+    out.flush();
+    assertThat("Nothing should be passed on yet", target.size(), is(0));
+    assertThat("Stream should not be committed", out.isCommitted(), is(false));
+    out.finish();
+    assertThat("Everything should be passed on", target.size(), is(101));
+    assertThat("Stream should be committed", out.isCommitted(), is(true));
+  }
+
+  @Test
+  void testLargeDocumentIsPassedOnPastTheBuffer() throws Exception {
+    ByteArrayOutputStream target = new ByteArrayOutputStream();
+    DeferredOutputStream out = new DeferredOutputStream(target);
+    out.write(new byte[DeferredOutputStream.BUFFER_SIZE]);
+    assertThat("A full buffer should be held", out.isCommitted(), is(false));
+    out.write(new byte[10], 2, 5);
+    assertThat("Stream should be committed", out.isCommitted(), is(true));
+    assertThat(
+        "Held and new bytes should be passed on",
+        target.size(),
+        is(DeferredOutputStream.BUFFER_SIZE + 5));
+  }
+}
@@ -0,0 +1,58 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the grid size estimate. */
+class FeasibilityEstimatorTest {
+
+  private static final Set<WordSearch.Direction> ALL_DIRECTIONS =
+      EnumSet.allOf(WordSearch.Direction.class);
+
+  @Test
+  void testTypicalWordListKeepsMinimumSize() {
+    List<String> words = List.of("apple", "banana", "cherry", "grape", "lemon", "orange");
+    assertThat(
+        "Typical list should fit the default size",
+        FeasibilityEstimator.minimumGridSize(words, ALL_DIRECTIONS, 15, 50),
+        is(15));
+  }
+
+  @Test
+  void testTooManyLettersSkipToLargerGrid() {
+    List<String> words = new ArrayList<>();
+    for (char letter = 'A'; letter <= 'P'; letter++) {
+      words.add(String.valueOf(letter).repeat(15));
+    }
+    // 240 letters need at least 267 cells at the maximum fill ratio
+    assertThat(
+        "Dense list should skip to a 17x17 grid",
+        FeasibilityEstimator.minimumGridSize(words, ALL_DIRECTIONS, 15, 50),
+        is(17));
+    assertThat(
+        "No size up to the maximum should pass",
+        FeasibilityEstimator.minimumGridSize(words, ALL_DIRECTIONS, 15, 16),
+        is(-1));
+  }
+
+  @Test
+  void testLengthHistogramRespectsAllowedDirections() {
+    List<String> words = Collections.nCopies(16, "ABCDEFGH");
+    assertThat(
+        "Sixteen 8-letter words fit a 15x15 grid in all directions",
+        FeasibilityEstimator.minimumGridSize(words, ALL_DIRECTIONS, 15, 50),
+        is(15));
+    assertThat(
+        "Fifteen rows only hold fifteen 8-letter words",
+        FeasibilityEstimator.minimumGridSize(
+            words, EnumSet.of(WordSearch.Direction.HORIZONTAL), 15, 50),
+        is(16));
+  }
+}
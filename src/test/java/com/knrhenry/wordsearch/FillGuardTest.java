@@ -0,0 +1,67 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the incremental fill check. */
+class FillGuardTest {
+
+  private static byte[] cells(String... rows) {
+    String letters = String.join("", rows);
+    byte[] cells = new byte[letters.length()];
+    for (int i = 0; i < cells.length; i++) {
+      char letter = letters.charAt(i);
+      cells[i] = letter == ' ' ? LetterGrid.EMPTY : (byte) Alphabet.LATIN.indexOf(letter);
+    }
+    return cells;
+  }
+
+  private static FillGuard guard(String... patterns) {
+    return new FillGuard(List.of(new AhoCorasick(List.of(patterns))), Alphabet.LATIN);
+  }
+
+  @Test
+  void testDetectsPatternThroughCellInEveryDirection() {
+    FillGuard guard = guard("CAT");
+    assertThat("Horizontal", guard.formsPattern(cells("CAT", "   ", "   "), 3, 0, 1), is(true));
+    assertThat("Reversed", guard.formsPattern(cells("TAC", "   ", "   "), 3, 0, 2), is(true));
+    assertThat("Vertical", guard.formsPattern(cells("C  ", "A  ", "T  "), 3, 2, 0), is(true));
+    assertThat("Diagonal", guard.formsPattern(cells("  T", " A ", "C  "), 3, 1, 1), is(true));
+  }
+
+  @Test
+  void testIgnoresPatternsNotCoveringCell() {
+    FillGuard guard = guard("CAT");
+    byte[] cells = cells("CATX", "    ", "    ", "    ");
+    assertThat("Pattern elsewhere on the line", guard.formsPattern(cells, 4, 0, 3), is(false));
+  }
+
+  @Test
+  void testEmptyCellsBreakLines() {
+    FillGuard guard = guard("CAT");
+    byte[] cells = cells("C T", "   ", "   ");
+    assertThat("Gap in the word", guard.formsPattern(cells, 3, 0, 2), is(false));
+  }
+
+  @Test
+  void testChecksEveryAutomaton() {
+    FillGuard guard =
+        new FillGuard(
+            List.of(new AhoCorasick(List.of("DOG")), new AhoCorasick(List.of("CAT"))),
+            Alphabet.LATIN);
+    byte[] cells = cells("CAT", "   ", "   ");
+    assertThat("Second automaton", guard.formsPattern(cells, 3, 0, 2), is(true));
+  }
+
+  @Test
+  void testEmptyPatternsNeverMatch() {
+    byte[] cells = cells("CAT", "   ", "   ");
+    assertThat("Only an empty pattern", guard("").formsPattern(cells, 3, 0, 1), is(false));
+    assertThat("Empty beside another", guard("", "DOG").formsPattern(cells, 3, 0, 1), is(false));
+    assertThat(
+        "Other pattern still found", guard("", "CAT").formsPattern(cells, 3, 0, 1), is(true));
+  }
+}
@@ -0,0 +1,65 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for splitting large grids into page-sized parts. */
+class GridTilingTest {
+
+  @Test
+  void testGridThatFitsIsOnePart() {
+    assertThat(
+        "Whole grid should be one part",
+        GridTiling.tile(40, 45, 45, 2),
+        contains(new GridTiling.Tile(0, 0, 40, 40, false, false)));
+  }
+
+  @Test
+  void testPartsCoverEveryCellWithinLimits() {
+    int size = 200;
+    List<GridTiling.Tile> tiles = GridTiling.tile(size, 50, 45, 2);
+    int[][] covered = new int[size][size];
+    for (GridTiling.Tile tile : tiles) {
+      assertThat("Part should fit the row limit", tile.rows(), lessThanOrEqualTo(50));
+      assertThat("Part should fit the column limit", tile.cols(), lessThanOrEqualTo(45));
+      for (int r = tile.firstRow(); r < tile.firstRow() + tile.rows(); r++) {
+        for (int c = tile.firstCol(); c < tile.firstCol() + tile.cols(); c++) {
+          covered[r][c]++;
+        }
+      }
+    }
+    for (int[] row : covered) {
+      for (int count : row) {
+        assertThat("Every cell should be on a part", count >= 1, is(true));
+      }
+    }
+  }
+
+  @Test
+  void testNeighbouringPartsShareOverlap() {
+    List<GridTiling.Tile> tiles = GridTiling.tile(100, 100, 45, 2);
+    for (int i = 0; i + 1 < tiles.size(); i++) {
+      GridTiling.Tile left = tiles.get(i);
+      GridTiling.Tile right = tiles.get(i + 1);
+      assertThat("Only the last part shares nothing", left.sharesRight(), is(true));
+      assertThat(
+          "Neighbours should share two columns",
+          left.firstCol() + left.cols() - right.firstCol(),
+          is(2));
+    }
+    GridTiling.Tile last = tiles.get(tiles.size() - 1);
+    assertThat("Last part should reach the edge", last.firstCol() + last.cols(), is(100));
+    assertThat("Last part shares nothing", last.sharesRight(), is(false));
+  }
+
+  @Test
+  void testPartNoLargerThanOverlapIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> GridTiling.tile(100, 2, 2, 2));
+  }
+}
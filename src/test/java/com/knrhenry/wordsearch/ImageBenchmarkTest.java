@@ -0,0 +1,86 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import com.sun.management.ThreadMXBean;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares rendering a puzzle as JSON, PNG and SVG on throughput, allocation and output size, for a
+ * puzzle of the standard tier and a large-tier grid. Excluded from the default build; run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ImageBenchmarkTest {
+
+  private static final int WARM_UP = 20;
+
+  private static final int REPETITIONS = 50;
+
+  @Test
+  void benchmarkOutputs() throws Exception {
+    SplittableRandom random = new SplittableRandom(1);
+    WordSearch standard = puzzle(random, 20, 50);
+    WordSearch large = puzzle(random, 2000, 500);
+    System.out.println("output  puzzle    renders/s  KB alloc/render  KB output");
+    for (String output : List.of("JSON", "PNG", "SVG")) {
+      run(output, "standard", standard);
+      run(output, "large", large);
+    }
+  }
+
+  private static void run(String output, String name, WordSearch puzzle) throws Exception {
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    int size = 0;
+    for (int i = 0; i < WARM_UP; i++) {
+      size = render(output, puzzle);
+    }
+    long threadId = Thread.currentThread().getId();
+    long allocated = threads.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    for (int i = 0; i < REPETITIONS; i++) {
+      render(output, puzzle);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+    System.out.printf(
+        "%-6s  %-8s  %11.1f  %15.0f  %9.1f%n",
+        output, name, REPETITIONS / seconds, allocated / 1024.0 / REPETITIONS, size / 1024.0);
+    assertThat("Output should be written", size, greaterThan(0));
+  }
+
+  private static int render(String output, WordSearch puzzle) throws Exception {
+    if (output.equals("JSON")) {
+      String json = new WordSearchJsonGenerator().generateJson(puzzle).toString();
+      return json.getBytes(StandardCharsets.UTF_8).length;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new WordSearchImageGenerator().writeImage(puzzle, ImageFormat.valueOf(output), false, out);
+    return out.size();
+  }
+
+  private static WordSearch puzzle(SplittableRandom random, int wordCount, int maxGridSize)
+      throws Exception {
+    List<String> words = new ArrayList<>(wordCount);
+    for (int i = 0; i < wordCount; i++) {
+      StringBuilder word = new StringBuilder();
+      int length = 4 + random.nextInt(7);
+      for (int j = 0; j < length; j++) {
+        word.append((char) ('A' + random.nextInt(26)));
+      }
+      words.add(word.toString());
+    }
+    WordSearchOptions options = new WordSearchOptions();
+    options.setMaxGridSize(maxGridSize);
+    options.setSeed(random.nextLong());
+    return WordSearch.create(words, options);
+  }
+}
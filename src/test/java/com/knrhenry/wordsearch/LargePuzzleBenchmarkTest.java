@@ -0,0 +1,62 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Shows how large-tier generation scales with the number of letters. Excluded from the default
+ * build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class LargePuzzleBenchmarkTest {
+
+  private static final int[] WORD_COUNTS = {250, 500, 1000, 2000, 4000, 8000, 16000};
+
+  private static final int REPETITIONS = 5;
+
+  @Test
+  void benchmarkGenerationScalesWithLetters() throws Exception {
+    SplittableRandom random = new SplittableRandom(1);
+    System.out.println("words  letters  grid      ms  letters/ms");
+    for (int wordCount : WORD_COUNTS) {
+      List<String> words = randomWords(random, wordCount);
+      WordSearchOptions options = new WordSearchOptions();
+      options.setMaxGridSize(500);
+      options.setSeed(3L);
+      // Warm up before timing
+      WordSearch ws = WordSearch.create(words, options);
+      long start = System.nanoTime();
+      for (int i = 0; i < REPETITIONS; i++) {
+        ws = WordSearch.create(words, options);
+      }
+      double millis = (System.nanoTime() - start) / 1e6 / REPETITIONS;
+      long letters = words.stream().mapToLong(String::length).sum();
+      System.out.printf(
+          "%5d  %7d  %4d  %6.1f  %10.0f%n",
+          wordCount, letters, ws.getGrid().length, millis, letters / millis);
+      assertThat(
+          "Grid should stay within the large tier", ws.getGrid().length, lessThanOrEqualTo(500));
+      assertThat("All words should be kept", ws.getWords().size(), is(wordCount));
+    }
+  }
+
+  private static List<String> randomWords(SplittableRandom random, int count) {
+    List<String> words = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      StringBuilder word = new StringBuilder();
+      int length = 4 + random.nextInt(9);
+      for (int j = 0; j < length; j++) {
+        word.append((char) ('A' + random.nextInt(26)));
+      }
+      words.add(word.toString());
+    }
+    return words;
+  }
+}
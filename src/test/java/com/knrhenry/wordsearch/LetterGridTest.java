@@ -0,0 +1,69 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the bitboard grid model. */
+class LetterGridTest {
+
+  @Test
+  void testCrossingWordMustShareLetter() {
+    LetterGrid grid = new LetterGrid(15);
+    LetterGrid.Word cat = grid.compile("CAT");
+    grid.place(cat, 0, 0, 0, 1);
+    LetterGrid.Word ant = grid.compile("ANT");
+    LetterGrid.Word bee = grid.compile("BEE");
+    int line = grid.lineOf(LetterGrid.COLUMNS, 0, 1);
+    assertThat(
+        "ANT should cross CAT on the shared A", grid.fits(ant, LetterGrid.COLUMNS, line, 0, false));
+    assertThat(
+        "BEE should not overwrite the A of CAT",
+        grid.fits(bee, LetterGrid.COLUMNS, line, 0, false),
+        is(false));
+  }
+
+  @Test
+  void testWordMustCoverAnEmptyCell() {
+    LetterGrid grid = new LetterGrid(15);
+    LetterGrid.Word cat = grid.compile("CAT");
+    grid.place(cat, 3, 0, 0, 1);
+    assertThat(
+        "A word should not hide entirely inside a placed word",
+        grid.fits(cat, LetterGrid.ROWS, 3, 0, false),
+        is(false));
+  }
+
+  @Test
+  void testRemoveKeepsSharedLetters() {
+    LetterGrid grid = new LetterGrid(70);
+    LetterGrid.Word cat = grid.compile("CAT");
+    LetterGrid.Word ant = grid.compile("ANT");
+    grid.place(cat, 0, 62, 0, 1);
+    grid.place(ant, 0, 63, 1, 0);
+    grid.remove(cat, 0, 62, 0, 1);
+    assertThat(
+        "Shared letter should stay", grid.cells()[63], is((byte) Alphabet.LATIN.indexOf('A')));
+    assertThat("Unshared letter should be cleared", grid.cells()[62], is(LetterGrid.EMPTY));
+    assertThat(
+        "A word spanning two bitset words should fit again",
+        grid.fits(cat, LetterGrid.ROWS, 0, 62, false));
+  }
+
+  @Test
+  void testReversedWordIsCheckedBackwards() {
+    LetterGrid grid = new LetterGrid(15);
+    grid.place(grid.compile("TAC"), 0, 0, 0, 1);
+    LetterGrid.Word cat = grid.compile("CATS");
+    assertThat(
+        "CATS read right to left should extend TAC",
+        grid.fits(cat, LetterGrid.ROWS, 0, 0, false),
+        is(false));
+    grid.remove(grid.compile("TAC"), 0, 0, 0, 1);
+    grid.place(grid.compile("TAC"), 0, 1, 0, 1);
+    assertThat(
+        "CATS read right to left should end on the shared letters",
+        grid.fits(cat, LetterGrid.ROWS, 0, 0, true));
+  }
+}
@@ -0,0 +1,118 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+import com.sun.management.ThreadMXBean;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the PDF backends on throughput, allocation and output size, for a single puzzle of the
+ * standard tier, a book of standard puzzles, a large-tier grid tiled across pages and a Greek
+ * puzzle, which needs the bundled Unicode fonts. Excluded from the default build; run with {@code
+ * mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class PdfBackendBenchmarkTest {
+
+  private static final int WARM_UP = 20;
+
+  private static final int REPETITIONS = 50;
+
+  @Test
+  void benchmarkBackends() throws Exception {
+    SplittableRandom random = new SplittableRandom(1);
+    List<WordSearch> single = List.of(puzzle(random, 20, 50));
+    List<WordSearch> book = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      book.add(puzzle(random, 20, 50));
+    }
+    List<WordSearch> tiled = List.of(puzzle(random, 2000, 500));
+    List<WordSearch> greek = List.of(greekPuzzle(random));
+    ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    System.out.println("backend  document   pdfs/s  KB alloc/pdf  KB output");
+    for (PdfBackend backend : PdfBackend.values()) {
+      run(threads, backend, "single", single, false);
+      run(threads, backend, "book", book, true);
+      run(threads, backend, "tiled", tiled, false);
+      run(threads, backend, "greek", greek, false);
+    }
+  }
+
+  private static void run(
+      ThreadMXBean threads,
+      PdfBackend backend,
+      String name,
+      List<WordSearch> puzzles,
+      boolean answers)
+      throws Exception {
+    PdfRenderer renderer = backend.renderer();
+    PdfOptions options = new PdfOptions();
+    int size = 0;
+    for (int i = 0; i < WARM_UP; i++) {
+      size = render(renderer, puzzles, answers, options);
+    }
+    long threadId = Thread.currentThread().getId();
+    long allocated = threads.getThreadAllocatedBytes(threadId);
+    long start = System.nanoTime();
+    for (int i = 0; i < REPETITIONS; i++) {
+      render(renderer, puzzles, answers, options);
+    }
+    double seconds = (System.nanoTime() - start) / 1e9;
+    allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+    System.out.printf(
+        "%-7s  %-8s  %7.1f  %12.0f  %9.1f%n",
+        backend, name, REPETITIONS / seconds, allocated / 1024.0 / REPETITIONS, size / 1024.0);
+    assertThat("PDF should be written", size, greaterThan(0));
+  }
+
+  private static int render(
+      PdfRenderer renderer, List<WordSearch> puzzles, boolean answers, PdfOptions options)
+      throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    // Laid out on the calling thread, so the allocation counter sees all of the work.
+    renderer.writeBook(puzzles, answers, "https://example.com/", options, out, Runnable::run);
+    return out.size();
+  }
+
+  private static WordSearch greekPuzzle(SplittableRandom random) throws Exception {
+    Alphabet greek = Alphabet.GREEK;
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      StringBuilder word = new StringBuilder();
+      int length = 4 + random.nextInt(7);
+      for (int j = 0; j < length; j++) {
+        word.append(greek.letter(random.nextInt(greek.size())));
+      }
+      words.add(word.toString());
+    }
+    WordSearchOptions options = new WordSearchOptions();
+    options.setAlphabet(greek);
+    options.setMaxGridSize(50);
+    options.setSeed(random.nextLong());
+    return WordSearch.create(words, options);
+  }
+
+  private static WordSearch puzzle(SplittableRandom random, int wordCount, int maxGridSize)
+      throws Exception {
+    List<String> words = new ArrayList<>(wordCount);
+    for (int i = 0; i < wordCount; i++) {
+      StringBuilder word = new StringBuilder();
+      int length = 4 + random.nextInt(7);
+      for (int j = 0; j < length; j++) {
+        word.append((char) ('A' + random.nextInt(26)));
+      }
+      words.add(word.toString());
+    }
+    WordSearchOptions options = new WordSearchOptions();
+    options.setMaxGridSize(maxGridSize);
+    options.setSeed(random.nextLong());
+    return WordSearch.create(words, options);
+  }
+}
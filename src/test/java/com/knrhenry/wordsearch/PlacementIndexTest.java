@@ -0,0 +1,93 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.EnumSet;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the cached placement index. */
+class PlacementIndexTest {
+
+  private static final int ALL_DIRECTIONS =
+      PlacementIndex.mask(EnumSet.allOf(WordSearch.Direction.class));
+
+  @Test
+  void testIndexIsSharedPerGridSize() {
+    assertThat(
+        "Index should be cached per grid size",
+        PlacementIndex.forSize(15),
+        sameInstance(PlacementIndex.forSize(15)));
+    assertThat(
+        "Slots should be cached per word length",
+        PlacementIndex.forSize(15).slots(5, ALL_DIRECTIONS),
+        sameInstance(PlacementIndex.forSize(15).slots(5, ALL_DIRECTIONS)));
+  }
+
+  @Test
+  void testOnlySharedDirectionMasksAreCached() {
+    PlacementIndex index = PlacementIndex.forSize(15);
+    assertThat(
+        "Forward directions should be cached",
+        index.slots(5, PlacementIndex.FORWARD_DIRECTIONS),
+        sameInstance(index.slots(5, PlacementIndex.FORWARD_DIRECTIONS)));
+    int mask = PlacementIndex.mask(EnumSet.of(WordSearch.Direction.VERTICAL_REVERSED));
+    int[] slots = index.slots(5, mask);
+    assertThat(
+        "Other masks should be built per call", index.slots(5, mask), not(sameInstance(slots)));
+    assertThat("Rebuilt slots should be equal", index.slots(5, mask), is(slots));
+  }
+
+  @Test
+  void testEverySlotKeepsTheWordInsideTheGrid() {
+    int size = 15;
+    int length = 15;
+    int[] slots = PlacementIndex.forSize(size).slots(length, ALL_DIRECTIONS);
+    // 15 rows, 15 columns and one diagonal per diagonal direction, each read both ways
+    assertThat("Full-length word should have 64 slots", slots.length, is(64));
+    for (int slot : slots) {
+      WordSearch.Direction direction = PlacementIndex.direction(slot);
+      int lastRow = PlacementIndex.row(slot) + (length - 1) * direction.getRowStep();
+      int lastCol = PlacementIndex.col(slot) + (length - 1) * direction.getColStep();
+      assertThat("Slot should end inside the grid", lastRow >= 0 && lastRow < size);
+      assertThat("Slot should end inside the grid", lastCol >= 0 && lastCol < size);
+    }
+  }
+
+  @Test
+  void testSlotsOnlyUseAllowedDirections() {
+    int mask = PlacementIndex.mask(EnumSet.of(WordSearch.Direction.HORIZONTAL));
+    int[] slots = PlacementIndex.forSize(15).slots(5, mask);
+    assertThat("Five-letter word should fit 11 times in each of 15 rows", slots.length, is(165));
+    for (int slot : slots) {
+      assertThat(
+          "Slot should be horizontal",
+          PlacementIndex.direction(slot),
+          is(WordSearch.Direction.HORIZONTAL));
+    }
+  }
+
+  @Test
+  void testRandomSlotsOnLargeGridStayInBounds() {
+    int size = 500;
+    int length = 30;
+    PlacementIndex index = PlacementIndex.forSize(size);
+    assertThat("Large grid should not list its slots", index.isIndexed(), is(false));
+    SplittableRandom random = new SplittableRandom(1);
+    for (int i = 0; i < 10_000; i++) {
+      int slot = index.randomSlot(length, ALL_DIRECTIONS, random);
+      WordSearch.Direction direction = PlacementIndex.direction(slot);
+      int lastRow = PlacementIndex.row(slot) + (length - 1) * direction.getRowStep();
+      int lastCol = PlacementIndex.col(slot) + (length - 1) * direction.getColStep();
+      assertThat("Slot should end inside the grid", lastRow >= 0 && lastRow < size);
+      assertThat("Slot should end inside the grid", lastCol >= 0 && lastCol < size);
+    }
+    assertThat(
+        "Too long word should have no slot",
+        index.randomSlot(size + 1, ALL_DIRECTIONS, random),
+        is(-1));
+  }
+}
@@ -0,0 +1,64 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the built-in filler strategies. */
+class StandardFillerTest {
+  private static final int SAMPLES = 260_000;
+
+  private static int[] letterCounts(StandardFiller filler, Alphabet alphabet) {
+    byte[] letters = new byte[SAMPLES];
+    filler.fill(letters, SAMPLES, alphabet, new SplittableRandom(7));
+    int[] counts = new int[alphabet.size()];
+    for (byte letter : letters) {
+      assertThat(
+          "Filler should only write alphabet indexes",
+          (int) letter,
+          allOf(greaterThan(-1), lessThan(alphabet.size())));
+      counts[letter]++;
+    }
+    return counts;
+  }
+
+  @Test
+  void testUniformFillerIsEven() {
+    for (int count : letterCounts(StandardFiller.UNIFORM, Alphabet.LATIN)) {
+      assertThat(
+          "Each letter should be near 1/26", count, allOf(greaterThan(9_000), lessThan(11_000)));
+    }
+  }
+
+  @Test
+  void testEnglishFrequencyFillerFavoursCommonLetters() {
+    int[] counts = letterCounts(StandardFiller.LETTER_FREQUENCY, Alphabet.LATIN);
+    assertThat(
+        "E should be about 12.7%",
+        counts[Alphabet.LATIN.indexOf('E')], allOf(greaterThan(31_000), lessThan(35_000)));
+    assertThat("Z should be rare", counts[Alphabet.LATIN.indexOf('Z')], lessThan(1_000));
+  }
+
+  @Test
+  void testFillersCoverWholeAlphabet() {
+    for (StandardFiller filler : StandardFiller.values()) {
+      for (int count : letterCounts(filler, Alphabet.GERMAN)) {
+        assertThat(filler + " should draw every letter", count, greaterThan(0));
+      }
+    }
+  }
+
+  @Test
+  void testFillerWritesOnlyRequestedCount() {
+    byte[] letters = new byte[20];
+    Arrays.fill(letters, LetterGrid.EMPTY);
+    StandardFiller.UNIFORM.fill(letters, 15, Alphabet.LATIN, new SplittableRandom(1));
+    assertThat("Cells past the count should be untouched", letters[15], is(LetterGrid.EMPTY));
+  }
+}
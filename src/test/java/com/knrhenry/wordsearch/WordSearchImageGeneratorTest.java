@@ -0,0 +1,87 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+
+class WordSearchImageGeneratorTest {
+
+  @Test
+  void testPngShowsGridAndWordList() throws Exception {
+    WordSearch ws = WordSearch.create(List.of("apple", "banana", "cherry"));
+    byte[] png = new WordSearchImageGenerator().generateImage(ws, ImageFormat.PNG, true);
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+    assertThat("PNG should decode", image, notNullValue());
+    int gridSize = ws.getGrid().length;
+    assertThat("Image should fit the grid", image.getWidth(), greaterThan(gridSize * 8));
+    assertThat(
+        "Image should be taller than wide, for the word list",
+        image.getHeight(),
+        greaterThan(image.getWidth()));
+    int dark = 0;
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        if ((image.getRGB(x, y) & 0xFF) < 128) {
+          dark++;
+        }
+      }
+    }
+    assertThat("Letters should be drawn", dark, greaterThan(gridSize * gridSize * 4));
+    assertThat(
+        "Most of the image should stay white",
+        dark,
+        lessThan(image.getWidth() * image.getHeight() / 2));
+  }
+
+  @Test
+  void testPngOfGreekPuzzleDecodes() throws Exception {
+    WordSearchOptions options = new WordSearchOptions();
+    options.setAlphabet(Alphabet.GREEK);
+    WordSearch ws = WordSearch.create(List.of("ΑΛΦΑ", "ΒΗΤΑ", "ΓΑΜΜΑ"), options);
+    byte[] png = new WordSearchImageGenerator().generateImage(ws, ImageFormat.PNG, false);
+    assertThat("PNG should decode", ImageIO.read(new ByteArrayInputStream(png)), notNullValue());
+  }
+
+  @Test
+  void testGlyphAtlasIsRenderedOncePerAlphabetAndCellSize() {
+    GlyphAtlas atlas = GlyphAtlas.of(Alphabet.LATIN, 20);
+    assertThat("Atlas should be cached", GlyphAtlas.of(Alphabet.LATIN, 20), sameInstance(atlas));
+    assertThat(
+        "Each cell size should have its own atlas",
+        GlyphAtlas.of(Alphabet.LATIN, 21),
+        not(sameInstance(atlas)));
+  }
+
+  @Test
+  void testSvgKeepsRowsAndWordsAsText() throws Exception {
+    WordSearch ws = WordSearch.create(List.of("apple", "fish & chips"));
+    byte[] bytes = new WordSearchImageGenerator().generateImage(ws, ImageFormat.SVG, true);
+    String svg = new String(bytes, StandardCharsets.UTF_8);
+    assertThat("SVG should start with the svg element", svg, containsString("<svg xmlns="));
+    for (char[] row : ws.getGrid()) {
+      assertThat("Each row should be one text element", svg, containsString(">" + new String(row)));
+    }
+    assertThat("Words should be listed", svg, containsString(">apple</text>"));
+    assertThat("Words should be escaped", svg, containsString(">fish &amp; chips</text>"));
+    assertThat("Grid lines should be drawn", svg, containsString("<path"));
+  }
+
+  @Test
+  void testGenerateImageWithNullThrowsException() {
+    WordSearchImageGenerator generator = new WordSearchImageGenerator();
+    assertThrows(
+        NullPointerException.class, () -> generator.generateImage(null, ImageFormat.PNG, false));
+  }
+}
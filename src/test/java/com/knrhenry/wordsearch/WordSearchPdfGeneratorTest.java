@@ -4,9 +4,30 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.iterableWithSize;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.jupiter.api.Test;
@@ -77,6 +98,265 @@ class WordSearchPdfGeneratorTest {
     }
   }
 
+  @Test
+  void testGridRowsAreSingleTextObjects() throws Exception {
+    WordSearch ws = WordSearch.create(List.of("apple", "banana", "cherry"));
+    byte[] pdfBytes = new WordSearchPdfGenerator().generatePdf(ws, null);
+    try (PDDocument doc = PDDocument.load(pdfBytes)) {
+      PDFStreamParser parser = new PDFStreamParser(doc.getPage(0));
+      parser.parse();
+      long textObjects =
+          parser.getTokens().stream()
+              .filter(token -> token instanceof Operator)
+              .filter(token -> "BT".equals(((Operator) token).getName()))
+              .count();
+      assertThat(
+          "One text object per grid row plus the word line; the rest is in the template",
+          textObjects,
+          is((long) ws.getGrid().length + 1));
+    }
+  }
+
+  @Test
+  void testPagesStampOneSharedTemplate() throws Exception {
+    List<WordSearch> puzzles =
+        List.of(
+            WordSearch.create(List.of("apple")),
+            WordSearch.create(List.of("banana")),
+            WordSearch.create(List.of("cherry")));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new WordSearchPdfGenerator()
+        .writeBook(puzzles, false, "https://example.com/", new PdfOptions(), out, Runnable::run);
+    try (PDDocument doc = PDDocument.load(out.toByteArray())) {
+      assertThat(
+          "Every puzzle page should stamp the same template",
+          doc.getPage(2).getResources().getXObjectNames(),
+          iterableWithSize(1));
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setStartPage(3);
+      String lastPage = stripper.getText(doc);
+      assertThat("Template should show the header", lastPage, containsString("Word Search Puzzle"));
+      assertThat("Template should show the footer", lastPage, containsString("example.com"));
+    }
+  }
+
+  @Test
+  void testWritePdfStreamsWithoutClosing() throws Exception {
+    WordSearch ws = WordSearch.create(List.of("apple", "banana", "cherry"));
+    boolean[] closed = {false};
+    ByteArrayOutputStream out =
+        new ByteArrayOutputStream() {
+          @Override
+          public void close() {
+            closed[0] = true;
+          }
+        };
+    new WordSearchPdfGenerator().writePdf(ws, null, out);
+    assertThat("PDF should start with %PDF-", new String(out.toByteArray(), 0, 5), is("%PDF-"));
+    assertThat("Caller's stream should stay open", closed[0], is(false));
+  }
+
+  @Test
+  void testBookHasPuzzlePagesThenAnswerPages() throws Exception {
+    List<WordSearch> puzzles =
+        List.of(
+            WordSearch.create(List.of("apple", "banana")),
+            WordSearch.create(List.of("cherry", "grape")));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new WordSearchPdfGenerator()
+        .writeBook(puzzles, true, null, new PdfOptions(), out, Runnable::run);
+    try (PDDocument doc = PDDocument.load(out.toByteArray())) {
+      assertThat("Two puzzle pages and two answer pages", doc.getNumberOfPages(), is(4));
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setStartPage(2);
+      stripper.setEndPage(2);
+      assertThat("Second page is puzzle 2", stripper.getText(doc), containsString("cherry"));
+      stripper.setStartPage(3);
+      stripper.setEndPage(3);
+      String answerPage = stripper.getText(doc);
+      assertThat("Third page is an answer page", answerPage, containsString("Answer Key"));
+      assertThat("Answers start with puzzle 1", answerPage, containsString("apple"));
+      assertThat(
+          "Pages should share one resource dictionary",
+          doc.getPage(3).getCOSObject().getDictionaryObject(COSName.RESOURCES),
+          sameInstance(doc.getPage(0).getCOSObject().getDictionaryObject(COSName.RESOURCES)));
+    }
+  }
+
+  @Test
+  void testHugeGridIsTiledAcrossPages() throws Exception {
+    WordSearch ws = hugePuzzle();
+    PdfOptions options = new PdfOptions();
+    options.setGridLines(true);
+    byte[] pdfBytes = new WordSearchPdfGenerator().generatePdf(ws, null, options);
+    try (PDDocument doc = PDDocument.load(pdfBytes)) {
+      assertThat("Grid should be split into parts", doc.getNumberOfPages(), greaterThan(1));
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setStartPage(1);
+      stripper.setEndPage(1);
+      String firstPage = stripper.getText(doc);
+      assertThat("Part should be named", firstPage, containsString("Part 1 of"));
+      assertThat("Overlap should be explained", firstPage, containsString("Shaded cells repeat"));
+    }
+  }
+
+  @Test
+  void testPosterFitsHugeGridOnOnePage() throws Exception {
+    WordSearch ws = hugePuzzle();
+    PdfOptions options = new PdfOptions();
+    options.setPaperSize(PaperSize.POSTER);
+    byte[] pdfBytes = new WordSearchPdfGenerator().generatePdf(ws, null, options);
+    try (PDDocument doc = PDDocument.load(pdfBytes)) {
+      assertThat("Poster should be one page", doc.getNumberOfPages(), is(1));
+      assertThat(
+          "Poster should be wider than Letter",
+          doc.getPage(0).getMediaBox().getWidth(),
+          greaterThan(PaperSize.LETTER.getWidth()));
+    }
+  }
+
+  private static WordSearch hugePuzzle() throws Exception {
+    SplittableRandom random = new SplittableRandom(1);
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      StringBuilder word = new StringBuilder();
+      for (int j = 0; j < 8; j++) {
+        word.append((char) ('A' + random.nextInt(26)));
+      }
+      words.add(word.toString());
+    }
+    WordSearchOptions options = new WordSearchOptions();
+    options.setMaxGridSize(100);
+    options.setSeed(1L);
+    return WordSearch.create(words, options);
+  }
+
+  @Test
+  void testOpenPdfBackendWritesSamePages() throws Exception {
+    List<WordSearch> puzzles =
+        List.of(
+            WordSearch.create(List.of("apple", "banana")),
+            WordSearch.create(List.of("cherry", "grape")));
+    WordSearchPdfGenerator pdfGen = new WordSearchPdfGenerator();
+    pdfGen.backend = PdfBackend.OPENPDF;
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pdfGen.writeBook(puzzles, true, "https://example.com/", new PdfOptions(), out, Runnable::run);
+    try (PDDocument doc = PDDocument.load(out.toByteArray())) {
+      assertThat("Two puzzle pages and two answer pages", doc.getNumberOfPages(), is(4));
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setStartPage(3);
+      stripper.setEndPage(3);
+      String answerPage = stripper.getText(doc);
+      assertThat("Third page is an answer page", answerPage, containsString("Answer Key"));
+      assertThat("Answers start with puzzle 1", answerPage, containsString("apple"));
+      assertThat("Template should show the footer", answerPage, containsString("example.com"));
+      assertThat(
+          "Grid should be drawn",
+          new PDFTextStripper().getText(doc).replace(" ", ""),
+          containsString(new String(puzzles.get(1).getGrid()[0])));
+    }
+  }
+
+  @Test
+  void testPdfBoxBackendWritesSamePages() throws Exception {
+    List<WordSearch> puzzles =
+        List.of(
+            WordSearch.create(List.of("apple", "banana")),
+            WordSearch.create(List.of("cherry", "grape")));
+    WordSearchPdfGenerator pdfGen = new WordSearchPdfGenerator();
+    pdfGen.backend = PdfBackend.PDFBOX;
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pdfGen.writeBook(puzzles, true, "https://example.com/", new PdfOptions(), out, Runnable::run);
+    try (PDDocument doc = PDDocument.load(out.toByteArray())) {
+      assertThat("Two puzzle pages and two answer pages", doc.getNumberOfPages(), is(4));
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setStartPage(3);
+      stripper.setEndPage(3);
+      String answerPage = stripper.getText(doc);
+      assertThat("Third page is an answer page", answerPage, containsString("Answer Key"));
+      assertThat("Answers start with puzzle 1", answerPage, containsString("apple"));
+      assertThat("Template should show the footer", answerPage, containsString("example.com"));
+    }
+  }
+
+  @Test
+  void testDirectWriterCrossReferencesEveryObject() throws Exception {
+    List<WordSearch> puzzles =
+        List.of(
+            WordSearch.create(List.of("apple", "café")),
+            WordSearch.create(List.of("cherry", "grape")));
+    WordSearchPdfGenerator pdfGen = new WordSearchPdfGenerator();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    pdfGen.writeBook(puzzles, true, "https://example.com/", new PdfOptions(), out, Runnable::run);
+    // PDFBox repairs a broken cross-reference table silently, so the offsets are checked by hand.
+    String pdf = out.toString(StandardCharsets.ISO_8859_1);
+    int startXref = pdf.lastIndexOf("startxref\n") + "startxref\n".length();
+    int xref = Integer.parseInt(pdf.substring(startXref, pdf.indexOf('\n', startXref)));
+    assertCrossReferences(pdf, xref);
+    try (PDDocument doc = PDDocument.load(out.toByteArray())) {
+      assertThat("Two puzzle pages and two answer pages", doc.getNumberOfPages(), is(4));
+      String text = new PDFTextStripper().getText(doc);
+      assertThat("Word list should keep accents", text, containsString("café"));
+      assertThat("Template should show the footer", text, containsString("example.com"));
+      assertThat(
+          "Grid should be drawn",
+          text.replace(" ", ""),
+          containsString(new String(puzzles.get(1).getGrid()[0])));
+    }
+  }
+
+  @Test
+  void testLinearizedPdfLeadsWithFirstPage() throws Exception {
+    List<WordSearch> puzzles =
+        List.of(
+            WordSearch.create(List.of("apple", "banana")),
+            WordSearch.create(List.of("cherry", "grape")));
+    PdfOptions options = new PdfOptions();
+    options.setLinearized(true);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new WordSearchPdfGenerator()
+        .writeBook(puzzles, true, "https://example.com/", options, out, Runnable::run);
+    String pdf = out.toString(StandardCharsets.ISO_8859_1);
+    Matcher dictionary =
+        Pattern.compile("<< /Linearized 1 /L (\\d+) +/H .*? /E (\\d+) +/N 4 +/T \\d+ +>>\nendobj\n")
+            .matcher(pdf);
+    assertThat("Linearization dictionary should come first", dictionary.find(), is(true));
+    assertThat("Dictionary should follow the header", dictionary.start() < 32, is(true));
+    assertThat(
+        "File length should be given", Integer.parseInt(dictionary.group(1)), is(pdf.length()));
+    assertCrossReferences(pdf, dictionary.end());
+    int prev = pdf.indexOf("/Prev ", dictionary.end()) + "/Prev ".length();
+    assertCrossReferences(pdf, Integer.parseInt(pdf.substring(prev, pdf.indexOf(' ', prev))));
+    assertThat(
+        "First page section should end where the second page starts",
+        pdf.startsWith("2 0 obj\n<< /Type /Page ", Integer.parseInt(dictionary.group(2))),
+        is(true));
+    try (PDDocument doc = PDDocument.load(out.toByteArray())) {
+      assertThat("Two puzzle pages and two answer pages", doc.getNumberOfPages(), is(4));
+      PDFTextStripper stripper = new PDFTextStripper();
+      stripper.setEndPage(1);
+      assertThat("First page is puzzle 1", stripper.getText(doc), containsString("apple"));
+    }
+  }
+
+  private static void assertCrossReferences(String pdf, int xref) {
+    assertThat("Section should start at its offset", pdf.startsWith("xref\n", xref), is(true));
+    String[] lines = pdf.substring(xref).split("\n");
+    String[] subsection = lines[1].split(" ");
+    int first = Integer.parseInt(subsection[0]);
+    int count = Integer.parseInt(subsection[1]);
+    for (int i = 0; i < count; i++) {
+      int object = first + i;
+      if (object == 0) {
+        assertThat("Object 0 heads the free list", lines[2], is("0000000000 65535 f "));
+        continue;
+      }
+      int offset = Integer.parseInt(lines[2 + i].substring(0, 10));
+      assertThat(
+          "Offset of object " + object, pdf.startsWith(object + " 0 obj\n", offset), is(true));
+    }
+  }
+
   @Test
   void testNullGrid() {
     WordSearchPdfGenerator pdfGen = new WordSearchPdfGenerator();
@@ -96,6 +376,81 @@ class WordSearchPdfGeneratorTest {
     assertThat("PDF should start with %PDF-", new String(pdfBytes, 0, 5), is("%PDF-"));
   }
 
+  @Test
+  void testBundledFontsArePackaged() throws Exception {
+    // Runs against the classes the default profile builds, so a resources override that drops
+    // the fonts fails here rather than on the first Unicode puzzle in production.
+    for (String font : List.of(PdfFonts.REGULAR_RESOURCE, PdfFonts.BOLD_RESOURCE)) {
+      try (InputStream input = PdfFonts.class.getResourceAsStream(font)) {
+        assertThat("Font " + font + " should be on the classpath", input, notNullValue());
+      }
+    }
+  }
+
+  @Test
+  void testGreekPuzzleEmbedsFontSubset() throws Exception {
+    WordSearchOptions options = new WordSearchOptions();
+    options.setAlphabet(Alphabet.GREEK);
+    WordSearch ws = WordSearch.create(List.of("λέξη", "ήλιος", "θάλασσα"), options);
+    WordSearchPdfGenerator pdfGen = new WordSearchPdfGenerator();
+    byte[] pdfBytes = pdfGen.generatePdf(ws, null);
+    assertThat("Only the used glyphs should be embedded", pdfBytes.length, lessThan(100_000));
+    try (PDDocument doc = PDDocument.load(pdfBytes)) {
+      String pdfText = new PDFTextStripper().getText(doc);
+      assertThat("PDF should contain the words", pdfText, containsString("θάλασσα"));
+      assertThat(
+          "PDF should contain the first grid row",
+          pdfText.replace(" ", ""),
+          containsString(new String(ws.getGrid()[0])));
+    }
+  }
+
+  @Test
+  void testConcurrentGreekPuzzlesEmbedTheSameGlyphsAsAlone() throws Exception {
+    WordSearchPdfGenerator pdfGen = new WordSearchPdfGenerator();
+    pdfGen.backend = PdfBackend.PDFBOX;
+    List<List<String>> wordLists =
+        List.of(
+            List.of("λέξη", "ήλιος"),
+            List.of("θάλασσα", "ψάρι"),
+            List.of("βουνό", "ζώνη"),
+            List.of("φως", "χώρα"));
+    List<WordSearch> puzzles = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      WordSearchOptions options = new WordSearchOptions();
+      options.setAlphabet(Alphabet.GREEK);
+      options.setSeed((long) i);
+      puzzles.add(WordSearch.create(wordLists.get(i % wordLists.size()), options));
+    }
+    List<byte[]> alone = new ArrayList<>();
+    for (WordSearch puzzle : puzzles) {
+      alone.add(pdfGen.generatePdf(puzzle, null));
+    }
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<byte[]>> together = new ArrayList<>();
+      for (WordSearch puzzle : puzzles) {
+        together.add(pool.submit(() -> pdfGen.generatePdf(puzzle, null)));
+      }
+      for (int i = 0; i < puzzles.size(); i++) {
+        List<String> fonts = embeddedFontFiles(alone.get(i));
+        assertThat("Both bundled fonts should be embedded", fonts, iterableWithSize(2));
+        assertThat(
+            "Puzzle " + i + " should embed the same glyphs as when rendered alone",
+            embeddedFontFiles(together.get(i).get()),
+            is(fonts));
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    try (PDDocument doc = PDDocument.load(alone.get(0))) {
+      assertThat(
+          "PDF should contain the first grid row",
+          new PDFTextStripper().getText(doc).replace(" ", ""),
+          containsString(new String(puzzles.get(0).getGrid()[0])));
+    }
+  }
+
   @Test
   void testGeneratePdfWithFooterUrl() throws Exception {
     List<String> words = List.of("apple", "banana", "cherry");
@@ -111,4 +466,23 @@ class WordSearchPdfGeneratorTest {
       assertThat("PDF should contain the footer URL", pdfText, containsString(footerUrl));
     }
   }
+
+  /**
+   * Returns the embedded TrueType font files of a document, sorted so documents compare by content.
+   */
+  private static List<String> embeddedFontFiles(byte[] pdf) throws IOException {
+    List<String> files = new ArrayList<>();
+    try (PDDocument doc = PDDocument.load(pdf)) {
+      for (COSObject object : doc.getDocument().getObjectsByType(COSName.FONT_DESC)) {
+        COSStream file =
+            (COSStream)
+                ((COSDictionary) object.getObject()).getDictionaryObject(COSName.FONT_FILE2);
+        try (InputStream input = file.createInputStream()) {
+          files.add(new String(input.readAllBytes(), StandardCharsets.ISO_8859_1));
+        }
+      }
+    }
+    files.sort(null);
+    return files;
+  }
 }
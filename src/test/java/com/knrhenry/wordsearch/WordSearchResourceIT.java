@@ -5,6 +5,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -16,6 +18,8 @@ import jakarta.annotation.Priority;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Alternative;
 import java.io.IOException;
+import java.io.OutputStream;
+import org.apache.http.ConnectionClosedException;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -88,6 +92,17 @@ public class WordSearchResourceIT {
         .body(containsString("Too many words"));
   }
 
+  @Test
+  public void testLargeTierIsRefusedByDefault() throws Exception {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"words\":[\"apple\"],\"pdf\":false,\"large\":true}")
+        .post(WORDSEARCH_ENDPOINT_PATH)
+        .then()
+        .statusCode(400)
+        .body(containsString("The large tier is not enabled"));
+  }
+
   @Test
   public void testEmptyWordList() throws Exception {
     given()
@@ -141,6 +156,30 @@ public class WordSearchResourceIT {
         .header("Content-Disposition", containsString("wordsearch.pdf"));
   }
 
+  @Test
+  public void testPngResponseHeaders() throws Exception {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"words\":[\"apple\",\"banana\"],\"image\":\"PNG\"}")
+        .post(WORDSEARCH_ENDPOINT_PATH)
+        .then()
+        .statusCode(200)
+        .header("Content-Type", containsString("image/png"))
+        .header("Content-Disposition", containsString("wordsearch.png"));
+  }
+
+  @Test
+  public void testSvgResponseListsWords() throws Exception {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"words\":[\"apple\",\"banana\"],\"image\":\"SVG\",\"pdf\":true}")
+        .post(WORDSEARCH_ENDPOINT_PATH)
+        .then()
+        .statusCode(200)
+        .header("Content-Type", containsString("image/svg+xml"))
+        .body(containsString("<svg"), containsString(">apple</text>"));
+  }
+
   @Test
   public void testPdfGenerationFailureErrorStructure() throws Exception {
     given()
@@ -152,6 +191,33 @@ public class WordSearchResourceIT {
         .body(containsString("PDF generation failed"));
   }
 
+  @Test
+  public void testPdfFailureAfterFirstBytesIsStillJsonError() throws Exception {
+    given()
+        .contentType(ContentType.JSON)
+        .body(createRequestAsJsonString(new String[] {"partial", "banana"}, true))
+        .post(WORDSEARCH_ENDPOINT_PATH)
+        .then()
+        .statusCode(500)
+        .header("Content-Type", containsString("application/json"))
+        .body(startsWith("{\"error\":\"PDF generation failed"));
+  }
+
+  @Test
+  public void testPdfFailureAfterCommitTruncatesTransfer() throws Exception {
+    String body = createRequestAsJsonString(new String[] {"truncated", "banana"}, true);
+    assertThrows(
+        ConnectionClosedException.class,
+        () ->
+            given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .post(WORDSEARCH_ENDPOINT_PATH)
+                .then()
+                .extract()
+                .asByteArray());
+  }
+
   @Test
   public void testJsonGenerationFailureErrorStructure() throws Exception {
     given()
@@ -163,19 +229,97 @@ public class WordSearchResourceIT {
         .body(containsString("JSON generation failed"));
   }
 
-  /** Alternative PDF generator that simulates a failure when the first word is "exception". */
+  @Test
+  public void testGenerateBookPdf() throws Exception {
+    byte[] pdf =
+        given()
+            .contentType(ContentType.JSON)
+            .body(
+                "{\"puzzles\":[{\"words\":[\"apple\",\"banana\"]},"
+                    + "{\"words\":[\"cherry\"]}],\"answers\":true}")
+            .post(WORDSEARCH_ENDPOINT_PATH + "/book")
+            .then()
+            .statusCode(200)
+            .header("Content-Type", containsString("application/pdf"))
+            .header("Content-Disposition", containsString("wordsearch-book.pdf"))
+            .extract()
+            .asByteArray();
+    assertThat("PDF should be larger than 100 bytes", pdf.length, greaterThan(100));
+  }
+
+  @Test
+  public void testGenerateBookWithEmptyPuzzle() throws Exception {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"puzzles\":[{\"words\":[\"apple\"]},{\"words\":[]}]}")
+        .post(WORDSEARCH_ENDPOINT_PATH + "/book")
+        .then()
+        .statusCode(400)
+        .body(containsString("Puzzle 2: Word list must not be empty"));
+  }
+
+  @Test
+  public void testSolveWordSearch() throws Exception {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"grid\":[\"CATX\",\"XDOG\",\"XXXX\"],\"words\":[\"cat\",\"fox\"]}")
+        .post(WORDSEARCH_ENDPOINT_PATH + "/solve")
+        .then()
+        .statusCode(200)
+        .body(
+            allOf(
+                containsString("\"word\":\"cat\""),
+                containsString("\"direction\":\"HORIZONTAL\""),
+                containsString("\"notFound\":[\"fox\"]")));
+  }
+
+  @Test
+  public void testSolveEmptyGrid() throws Exception {
+    given()
+        .contentType(ContentType.JSON)
+        .body("{\"grid\":[],\"words\":[\"cat\"]}")
+        .post(WORDSEARCH_ENDPOINT_PATH + "/solve")
+        .then()
+        .statusCode(400)
+        .body(containsString("Grid must not be empty"));
+  }
+
+  /**
+   * Alternative PDF generator that simulates a failure when the first word is "exception", and a
+   * failure after writing part of the document when it is "partial" or "truncated".
+   */
   @Alternative
   @Priority(1)
   @ApplicationScoped
   public static class TestPdfGeneratorFailure extends WordSearchPdfGenerator {
     @Override
-    public byte[] generatePdf(WordSearch wordSearch, String footerUrl) throws IOException {
+    public byte[] generatePdf(WordSearch wordSearch, String footerUrl, PdfOptions options)
+        throws IOException {
+      if (wordSearch != null
+          && !wordSearch.getWords().isEmpty()
+          && wordSearch.getWords().get(0).equals("exception")) {
+        throw new IOException("PDF generation failed");
+      } else {
+        return super.generatePdf(wordSearch, footerUrl, options);
+      }
+    }
+
+    @Override
+    public void writePdf(
+        WordSearch wordSearch, String footerUrl, PdfOptions options, OutputStream out)
+        throws IOException {
       if (wordSearch != null
           && !wordSearch.getWords().isEmpty()
           && wordSearch.getWords().get(0).equals("exception")) {
         throw new IOException("PDF generation failed");
+      } else if (wordSearch != null && wordSearch.getWords().get(0).equals("partial")) {
+        out.write(new byte[100]);
+        throw new IOException("PDF generation failed");
+      } else if (wordSearch != null && wordSearch.getWords().get(0).equals("truncated")) {
+        out.write(new byte[DeferredOutputStream.BUFFER_SIZE + 1]);
+        throw new IOException("PDF generation failed");
       } else {
-        return super.generatePdf(wordSearch, footerUrl);
+        super.writePdf(wordSearch, footerUrl, options, out);
       }
     }
   }
@@ -9,18 +9,28 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.knrhenry.wordsearch.dto.WordSearchBookRequest;
+import com.knrhenry.wordsearch.dto.WordSearchBookResult;
 import com.knrhenry.wordsearch.dto.WordSearchRequest;
 import com.knrhenry.wordsearch.dto.WordSearchResult;
+import com.knrhenry.wordsearch.dto.WordSearchSolveRequest;
+import com.knrhenry.wordsearch.dto.WordSearchSolveResult;
 import com.lowagie.text.DocumentException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
 import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +43,7 @@ class WordSearchServiceTest {
 
   @Mock WordSearchPdfGenerator pdfGenerator;
   @Mock WordSearchJsonGenerator jsonGenerator;
+  @Mock WordSearchImageGenerator imageGenerator;
 
   @InjectMocks WordSearchService service;
 
@@ -53,6 +64,86 @@ class WordSearchServiceTest {
     assertThat("Expected JSON should be returned", result.getJson(), is(expectedJson));
   }
 
+  @Test
+  void testGeneratePuzzleEchoesSeed() throws Exception {
+    WordSearchRequest req = new WordSearchRequest();
+    req.setWords(List.of("apple", "banana"));
+    req.setSeed(7L);
+    WordSearchResult first = service.generatePuzzle(req);
+    WordSearchResult second = service.generatePuzzle(req);
+    assertThat("Seed should be echoed", first.getSeed(), is(7L));
+    assertThat("Same seed should give same grid", second.getGrid(), is(first.getGrid()));
+  }
+
+  @Test
+  void testGeneratePuzzleReturnsErrorForNonPositiveTimeout() {
+    WordSearchRequest req = new WordSearchRequest();
+    req.setWords(List.of("apple", "banana"));
+    req.setTimeoutMs(0L);
+    WordSearchResult result = service.generatePuzzle(req);
+    assertThat("Should be error for zero timeout", result.isError(), is(true));
+    assertThat(
+        "Error message should mention the timeout",
+        result.getError(),
+        containsString("Timeout must be positive"));
+  }
+
+  @Test
+  void testGeneratePuzzleStopsWhenCancelled() {
+    WordSearchRequest req = new WordSearchRequest();
+    req.setWords(List.of("apple", "banana"));
+    WordSearchResult result = service.generatePuzzle(req, false, () -> true);
+    assertThat("Should be error when cancelled", result.isError(), is(true));
+    assertThat("Cancellation is not a timeout", result.isTimedOut(), is(false));
+    assertThat(
+        "Error message should mention the cancellation",
+        result.getError(),
+        containsString("cancelled"));
+  }
+
+  @Test
+  void testSolvePuzzleListsOccurrencesAndMissingWords() {
+    WordSearchSolveRequest req = new WordSearchSolveRequest();
+    req.setGrid(List.of("CATX", "XDOG", "XXXX"));
+    req.setWords(List.of("cat", "dog", "fox"));
+    WordSearchSolveResult result = service.solvePuzzle(req);
+    assertThat("Should not be error", result.isError(), is(false));
+    assertThat("Two words should be found", result.getOccurrences().size(), is(2));
+    assertThat("Fox should be missing", result.getNotFound(), is(List.of("fox")));
+  }
+
+  @Test
+  void testSolvePuzzleReturnsErrorForBlankWord() {
+    WordSearchSolveRequest req = new WordSearchSolveRequest();
+    req.setGrid(List.of("CATX", "XDOG"));
+    req.setWords(Arrays.asList("cat", null));
+    WordSearchSolveResult result = service.solvePuzzle(req);
+    assertThat("Should be error for a null word", result.isError(), is(true));
+    assertThat("Error message should mention empty", result.getError(), containsString("empty"));
+  }
+
+  @Test
+  void testSolvePuzzleReturnsErrorForEmptyGrid() {
+    WordSearchSolveRequest req = new WordSearchSolveRequest();
+    req.setWords(List.of("cat"));
+    WordSearchSolveResult result = service.solvePuzzle(req);
+    assertThat("Should be error for empty grid", result.isError(), is(true));
+    assertThat("Error message should mention empty", result.getError(), containsString("empty"));
+  }
+
+  @Test
+  void testSolvePuzzleReturnsErrorForRaggedGrid() {
+    WordSearchSolveRequest req = new WordSearchSolveRequest();
+    req.setGrid(List.of("CAT", "DO"));
+    req.setWords(List.of("cat"));
+    WordSearchSolveResult result = service.solvePuzzle(req);
+    assertThat("Should be error for ragged grid", result.isError(), is(true));
+    assertThat(
+        "Error message should mention the row length",
+        result.getError(),
+        containsString("same length"));
+  }
+
   @Test
   void testGeneratePuzzleReturnsErrorForNullRequest() {
     WordSearchResult result = service.generatePuzzle(null);
@@ -93,6 +184,20 @@ class WordSearchServiceTest {
         containsString("Too many words"));
   }
 
+  @Test
+  void testGeneratePuzzleRejectsLargeTierUnlessEnabled() {
+    service.largeMaxWords = 5000;
+    WordSearchRequest req = new WordSearchRequest();
+    req.setWords(range(0, 21).mapToObj(i -> "word" + i).toList());
+    req.setLarge(true);
+    req.setPdf(false);
+    WordSearchResult result = service.generatePuzzle(req);
+    assertThat(
+        "Large tier should be refused while disabled",
+        result.getError(),
+        is("The large tier is not enabled on this server."));
+  }
+
   @Test
   void testGeneratePuzzleReturnsErrorForWordExceedingMaxLength() {
     WordSearchRequest req = new WordSearchRequest();
@@ -106,6 +211,16 @@ class WordSearchServiceTest {
         containsString("exceeds max length"));
   }
 
+  @Test
+  void testGeneratePuzzleReturnsErrorForEmptyDirections() {
+    WordSearchRequest req = new WordSearchRequest();
+    req.setWords(List.of("apple"));
+    req.setDirections(List.of());
+    WordSearchResult result = service.generatePuzzle(req);
+    assertThat("Should be error for empty directions", result.isError(), is(true));
+    assertThat("Error message should mention empty", result.getError(), containsString("empty"));
+  }
+
   @Test
   void testGeneratePuzzleSetsPdfBytesAndValidatesWordSearchObject() throws Exception {
     WordSearchRequest req = new WordSearchRequest();
@@ -123,11 +238,146 @@ class WordSearchServiceTest {
     assertThat("PDF flag should be true for PDF request", result.isPdf(), is(true));
   }
 
+  @Test
+  void testStreamingModeLeavesPdfToCaller() throws Exception {
+    WordSearchRequest req = new WordSearchRequest();
+    req.setWords(List.of("apple", "banana"));
+    req.setPdf(true);
+    req.setFooterUrl("https://example.com/");
+    WordSearchResult result = service.generatePuzzle(req, true);
+    assertThat("PDF flag should be true for PDF request", result.isPdf(), is(true));
+    assertThat("PDF should not be rendered yet", result.getPdfBytes(), nullValue());
+    assertWordSearchIsAsExpected(req.getWords(), result.getPuzzle());
+    verify(pdfGenerator, never()).generatePdf(any(WordSearch.class), any(), any());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.writePdf(result.getPuzzle(), req, out);
+    verify(pdfGenerator)
+        .writePdf(
+            eq(result.getPuzzle()), eq("https://example.com/"), any(PdfOptions.class), eq(out));
+  }
+
+  @Test
+  void testImageTakesPrecedenceOverPdf() throws Exception {
+    WordSearchRequest req = puzzleRequest("apple", "banana");
+    req.setPdf(true);
+    req.setImage(ImageFormat.PNG);
+    req.setGridLines(true);
+    byte[] expectedBytes = new byte[200];
+    doAnswer(
+            invocation -> {
+              assertWordSearchIsAsExpected(req.getWords(), invocation.getArgument(0));
+              return expectedBytes;
+            })
+        .when(imageGenerator)
+        .generateImage(any(WordSearch.class), eq(ImageFormat.PNG), eq(true));
+    WordSearchResult result = service.generatePuzzle(req);
+    assertThat(
+        "Image bytes should be the same as mocked",
+        result.getImageBytes(),
+        sameInstance(expectedBytes));
+    assertThat("Image format should be kept", result.getImage(), is(ImageFormat.PNG));
+    assertThat("PDF flag should be false for an image request", result.isPdf(), is(false));
+    verify(pdfGenerator, never()).generatePdf(any(WordSearch.class), any(), any());
+  }
+
+  @Test
+  void testStreamingModeLeavesImageToCaller() throws Exception {
+    WordSearchRequest req = puzzleRequest("apple", "banana");
+    req.setImage(ImageFormat.SVG);
+    WordSearchResult result = service.generatePuzzle(req, true);
+    assertThat("Image should not be rendered yet", result.getImageBytes(), nullValue());
+    assertWordSearchIsAsExpected(req.getWords(), result.getPuzzle());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.writeImage(result.getPuzzle(), req, out);
+    verify(imageGenerator).writeImage(result.getPuzzle(), ImageFormat.SVG, false, out);
+  }
+
+  @Test
+  void testImageGenerationFailureSetsError() throws Exception {
+    WordSearchRequest req = puzzleRequest("apple", "banana");
+    req.setImage(ImageFormat.PNG);
+    doThrow(new IOException("Simulated image failure"))
+        .when(imageGenerator)
+        .generateImage(any(WordSearch.class), any(), eq(false));
+    WordSearchResult result = service.generatePuzzle(req);
+    assertThat(
+        "Error message should mention image generation failed",
+        result.getError(),
+        containsString("Image generation failed: Simulated image failure"));
+  }
+
+  @Test
+  void testGenerateBookKeepsPuzzlesInOrder() {
+    service.bookMaxPuzzles = 10;
+    WordSearchBookRequest req = new WordSearchBookRequest();
+    req.setPuzzles(
+        List.of(puzzleRequest("apple", "banana"), puzzleRequest("cherry"), puzzleRequest("fig")));
+    WordSearchBookResult result = service.generateBook(req);
+    assertThat("Error should be null for valid request", result.getError(), nullValue());
+    assertThat("One puzzle per request", result.getPuzzles().size(), is(3));
+    assertThat("One seed per puzzle", result.getSeeds().size(), is(3));
+    assertWordSearchIsAsExpected(List.of("cherry"), result.getPuzzles().get(1));
+    assertThat(
+        "Seeds should match the puzzles",
+        result.getSeeds().get(2),
+        is(result.getPuzzles().get(2).getSeed()));
+  }
+
+  @Test
+  void testGenerateBookReportsInvalidPuzzleByNumber() {
+    service.bookMaxPuzzles = 10;
+    WordSearchBookRequest req = new WordSearchBookRequest();
+    req.setPuzzles(List.of(puzzleRequest("apple"), new WordSearchRequest()));
+    WordSearchBookResult result = service.generateBook(req);
+    assertThat(
+        "Error should name the puzzle",
+        result.getError(),
+        is("Puzzle 2: Word list must not be empty."));
+  }
+
+  @Test
+  void testGenerateBookReportsFailureNotTheCancelledPuzzles() {
+    service.bookMaxPuzzles = 10;
+    service.largeEnabled = true;
+    service.largeMaxWords = 2000;
+    service.largeMaxGridSize = 500;
+    List<String> words = new ArrayList<>();
+    SplittableRandom random = new SplittableRandom(3);
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder word = new StringBuilder();
+      for (int j = 0; j < 8; j++) {
+        word.append((char) ('A' + random.nextInt(26)));
+      }
+      words.add(word.toString());
+    }
+    WordSearchRequest large = puzzleRequest(words.toArray(new String[0]));
+    large.setLarge(true);
+    WordSearchBookRequest req = new WordSearchBookRequest();
+    req.setPuzzles(List.of(large, puzzleRequest("apple", "r2d2")));
+    WordSearchBookResult result = service.generateBook(req);
+    assertThat(
+        "Error should be the failure of the second puzzle",
+        result.getError(),
+        containsString("Failed to generate Puzzle 2: Error: Word 'r2d2' has letters outside"));
+  }
+
+  @Test
+  void testGenerateBookReturnsErrorForTooManyPuzzles() {
+    service.bookMaxPuzzles = 1;
+    WordSearchBookRequest req = new WordSearchBookRequest();
+    req.setPuzzles(List.of(puzzleRequest("apple"), puzzleRequest("banana")));
+    WordSearchBookResult result = service.generateBook(req);
+    assertThat(
+        "Error should mention the limit",
+        result.getError(),
+        is("Too many puzzles. Maximum allowed is 1."));
+  }
+
   @Test
   void testGeneratePuzzleReturnsErrorForIOExceptionDuringPdfGeneration() throws Exception {
     doThrow(new IOException("Simulated PDF failure"))
         .when(pdfGenerator)
-        .generatePdf(any(WordSearch.class), any());
+        .generatePdf(any(WordSearch.class), any(), any());
     WordSearchRequest req = new WordSearchRequest();
     req.setWords(List.of("apple"));
     req.setPdf(true);
@@ -143,7 +393,7 @@ class WordSearchServiceTest {
   void testGeneratePuzzleReturnsErrorForDocumentExceptionDuringPdfGeneration() throws Exception {
     doThrow(new DocumentException("Simulated PDF failure"))
         .when(pdfGenerator)
-        .generatePdf(any(WordSearch.class), any());
+        .generatePdf(any(WordSearch.class), any(), any());
     WordSearchRequest req = new WordSearchRequest();
     req.setWords(List.of("apple"));
     req.setPdf(true);
@@ -181,7 +431,7 @@ class WordSearchServiceTest {
               return expectedBytes;
             })
         .when(pdfGenerator)
-        .generatePdf(any(WordSearch.class), any());
+        .generatePdf(any(WordSearch.class), any(), any());
   }
 
   private void prepareJsonGeneratorMock(List<String> expectedWords, ObjectNode expectedJson)
@@ -196,6 +446,12 @@ class WordSearchServiceTest {
         .generateJson(any(WordSearch.class));
   }
 
+  private static WordSearchRequest puzzleRequest(String... words) {
+    WordSearchRequest req = new WordSearchRequest();
+    req.setWords(List.of(words));
+    return req;
+  }
+
   private static void assertWordSearchIsAsExpected(List<String> expectedWords, WordSearch ws) {
     assertThat("WordSearch object passed to generator should not be null", ws, notNullValue());
     assertThat("Words in WordSearch should match expected", ws.getWords(), is(expectedWords));
@@ -0,0 +1,102 @@
+package com.knrhenry.wordsearch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for the multi-pattern grid solver. */
+class WordSearchSolverTest {
+
+  private static char[][] grid(String... rows) {
+    char[][] grid = new char[rows.length][];
+    for (int i = 0; i < rows.length; i++) {
+      grid[i] = rows[i].toCharArray();
+    }
+    return grid;
+  }
+
+  private static WordSearchSolver.Occurrence occurrence(
+      String word, int row, int col, WordSearch.Direction direction) {
+    return new WordSearchSolver.Occurrence(word, row, col, direction);
+  }
+
+  @Test
+  void testFindsWordsInAllEightDirections() {
+    char[][] grid = grid("CATXX", "OADOG", "WXTXX", "XXXCX");
+    List<WordSearchSolver.Occurrence> occurrences =
+        WordSearchSolver.solve(grid, List.of("cat", "cow", "god", "wat", "taw", "woc", "cta"));
+    assertThat(
+        occurrences,
+        containsInAnyOrder(
+            occurrence("cat", 0, 0, WordSearch.Direction.HORIZONTAL),
+            occurrence("god", 1, 4, WordSearch.Direction.HORIZONTAL_REVERSED),
+            occurrence("cow", 0, 0, WordSearch.Direction.VERTICAL),
+            occurrence("woc", 2, 0, WordSearch.Direction.VERTICAL_REVERSED),
+            occurrence("cat", 0, 0, WordSearch.Direction.DIAGONAL_DOWN),
+            occurrence("cta", 3, 3, WordSearch.Direction.DIAGONAL_DOWN_REVERSED),
+            occurrence("wat", 2, 0, WordSearch.Direction.DIAGONAL_UP),
+            occurrence("taw", 0, 2, WordSearch.Direction.DIAGONAL_UP_REVERSED)));
+  }
+
+  @Test
+  void testFindsEveryWordOfGeneratedPuzzle() throws Exception {
+    List<String> words =
+        List.of("apple", "banana", "cherry", "grape", "lemon", "orange", "kiwi", "mango");
+    WordSearch ws = WordSearch.create(words);
+    Set<String> found =
+        WordSearchSolver.solve(ws.getGrid(), words).stream()
+            .map(WordSearchSolver.Occurrence::word)
+            .collect(Collectors.toSet());
+    assertThat("Every placed word should be found", found, containsInAnyOrder(words.toArray()));
+  }
+
+  @Test
+  void testOverlappingWordsAreAllReported() {
+    List<WordSearchSolver.Occurrence> occurrences =
+        WordSearchSolver.solve(grid("SHERS"), List.of("she", "he", "hers"));
+    List<String> horizontal = new ArrayList<>();
+    for (WordSearchSolver.Occurrence occurrence : occurrences) {
+      if (occurrence.direction() == WordSearch.Direction.HORIZONTAL) {
+        horizontal.add(occurrence.word() + "@" + occurrence.col());
+      }
+    }
+    assertThat(horizontal, containsInAnyOrder("she@0", "he@1", "hers@1"));
+  }
+
+  @Test
+  void testMissingWordsAreNotReported() {
+    assertThat(WordSearchSolver.solve(grid("ABC", "DEF"), List.of("xyz")), is(empty()));
+  }
+
+  @Test
+  void testRaggedGridIsRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> WordSearchSolver.solve(grid("ABC", "DE"), List.of("ab")));
+  }
+
+  @Test
+  void testBlankWordIsRejected() {
+    List<String> words = new ArrayList<>(List.of("ab", " "));
+    assertThrows(IllegalArgumentException.class, () -> WordSearchSolver.solve(grid("ABC"), words));
+    words.set(1, null);
+    assertThrows(IllegalArgumentException.class, () -> WordSearchSolver.solve(grid("ABC"), words));
+  }
+
+  @Test
+  void testWordsThatCannotFitAreSkipped() {
+    String tooLong = "AB".repeat(100_000);
+    List<WordSearchSolver.Occurrence> occurrences =
+        WordSearchSolver.solve(grid("ABC", "DEF"), List.of(tooLong, "xyz", "abc"));
+    assertThat(
+        occurrences, containsInAnyOrder(occurrence("abc", 0, 0, WordSearch.Direction.HORIZONTAL)));
+  }
+}
@@ -7,11 +7,17 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
 
 /** Unit tests for WordSearch core logic. */
@@ -93,13 +99,45 @@ public class WordSearchTest {
             "NNNNNNNNNNNNNNN",
             "OOOOOOOOOOOOOOO",
             "PPPPPPPPPPPPPPP");
-    Exception ex = assertThrows(WordSearchException.class, () -> WordSearch.create(words));
+    WordSearchOptions options = new WordSearchOptions();
+    options.setGrowGrid(false);
+    Exception ex = assertThrows(WordSearchException.class, () -> WordSearch.create(words, options));
     assertThat(
         "Error message should mention failed attempts",
         ex.getMessage(),
         containsString("Failed to generate grid after 5 attempts"));
   }
 
+  @Test
+  void testTooDenseWordListGrowsGrid() throws Exception {
+    // 16 words, each 15 characters, no intersecting letters
+    List<String> tooMany = new ArrayList<>();
+    for (char letter = 'A'; letter <= 'P'; letter++) {
+      tooMany.add(String.valueOf(letter).repeat(15));
+    }
+    WordSearch ws = WordSearch.create(tooMany);
+    assertThat("Grid should grow past the default size", ws.getGrid().length > 15, is(true));
+    for (String word : tooMany) {
+      assertThat("Word should be placed: " + word, containsWord(ws.getGrid(), word), is(true));
+    }
+  }
+
+  @Test
+  void testWordListExceedingMaxGridSizeIsRejected() {
+    List<String> tooMany = new ArrayList<>();
+    for (char letter = 'A'; letter <= 'P'; letter++) {
+      tooMany.add(String.valueOf(letter).repeat(15));
+    }
+    WordSearchOptions options = new WordSearchOptions();
+    options.setMaxGridSize(15);
+    Exception ex =
+        assertThrows(WordSearchException.class, () -> WordSearch.create(tooMany, options));
+    assertThat(
+        "Error message should mention the capacity",
+        ex.getMessage(),
+        containsString("exceeds the capacity"));
+  }
+
   @Test
   void testGetGridSize() throws Exception {
     List<String> words = List.of("cat", "encyclopedia");
@@ -136,6 +174,21 @@ public class WordSearchTest {
     assertThat("Words should be empty list", ws.getWords(), is(List.of()));
   }
 
+  @ParameterizedTest
+  @EnumSource(WordSearch.PlacementStrategy.class)
+  void testEmptyWordIsLeftOutOfPlacement(WordSearch.PlacementStrategy strategy) throws Exception {
+    WordSearchOptions options = new WordSearchOptions();
+    options.setPlacementStrategy(strategy);
+    options.setSeed(5L);
+    WordSearch ws = WordSearch.create(List.of("cat", ""), options);
+    assertThat("Grid should keep the default size", ws.getGrid().length, is(15));
+    assertThat("Words should match input", ws.getWords(), is(List.of("cat", "")));
+    assertThat(
+        "The other word should be placed",
+        WordSearchSolver.solve(ws.getGrid(), List.of("CAT")).isEmpty(),
+        is(false));
+  }
+
   @Test
   void testCreateMaxLengthWords() throws Exception {
     String longWord = "pseudopseudohypoparathyroidism"; // 30 chars
@@ -145,4 +198,278 @@ public class WordSearchTest {
     assertThat("Grid size should be 30 for max length word", ws.getGrid().length, is(30));
     assertThat("Words should match input", ws.getWords(), is(words));
   }
+
+  @Test
+  void testBacktrackingPlacesDenseWordList() throws Exception {
+    List<String> words =
+        List.of(
+            "elephant",
+            "giraffe",
+            "kangaroo",
+            "crocodile",
+            "hippopotamus",
+            "rhinoceros",
+            "chimpanzee",
+            "armadillo",
+            "porcupine",
+            "salamander",
+            "butterfly",
+            "dragonfly",
+            "grasshopper",
+            "caterpillar",
+            "scorpion",
+            "tarantula",
+            "woodpecker",
+            "flamingo",
+            "albatross",
+            "penguin");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setPlacementStrategy(WordSearch.PlacementStrategy.BACKTRACKING);
+    WordSearch ws = WordSearch.create(words, options);
+    for (String word : words) {
+      assertThat("Grid should contain " + word, containsWord(ws.getGrid(), word), is(true));
+    }
+  }
+
+  @Test
+  void testParallelAttemptsPlaceWords() throws Exception {
+    List<String> words = List.of("apple", "banana", "cherry", "grape", "lemon", "orange");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setParallelAttempts(4);
+    WordSearch ws = WordSearch.create(words, options);
+    for (String word : words) {
+      assertThat("Grid should contain " + word, containsWord(ws.getGrid(), word), is(true));
+    }
+  }
+
+  @Test
+  void testParallelAttemptsShareRetryLimit() {
+    // 16 words, each 15 characters, no intersecting letters
+    List<String> tooMany = new ArrayList<>();
+    for (char letter = 'A'; letter <= 'P'; letter++) {
+      tooMany.add(String.valueOf(letter).repeat(15));
+    }
+    WordSearchOptions options = new WordSearchOptions();
+    options.setParallelAttempts(3);
+    options.setGrowGrid(false);
+    Exception ex =
+        assertThrows(WordSearchException.class, () -> WordSearch.create(tooMany, options));
+    assertThat(
+        "Error message should mention failed attempts",
+        ex.getMessage(),
+        containsString("Failed to generate grid after 5 attempts"));
+  }
+
+  @Test
+  void testCompactModeShrinksGrid() throws Exception {
+    List<String> words = List.of("apple", "banana", "cherry", "grape", "lemon", "orange");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setCompact(true);
+    options.setCompactTimeoutMs(5000);
+    WordSearch ws = WordSearch.create(words, options);
+    int size = ws.getGrid().length;
+    assertThat("Compact grid should be smaller than the default", size < 15, is(true));
+    assertThat("Compact grid should still hold the longest word", size >= 6, is(true));
+    for (String word : words) {
+      assertThat("Word should be placed: " + word, containsWord(ws.getGrid(), word), is(true));
+    }
+  }
+
+  @Test
+  void testCompactModeIsDeterministicPerSeed() throws Exception {
+    List<String> words = List.of("apple", "banana", "cherry", "grape", "lemon", "orange");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setCompact(true);
+    options.setCompactTimeoutMs(5000);
+    options.setSeed(11L);
+    char[][] first = WordSearch.create(words, options).getGrid();
+    for (int i = 0; i < 5; i++) {
+      assertThat(
+          "Same seed should give the same compact grid",
+          WordSearch.create(words, options).getGrid(),
+          is(first));
+    }
+  }
+
+  @Test
+  void testExpiredTimeoutStopsGeneration() {
+    List<String> words = List.of("apple", "banana", "cherry");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setTimeoutMs(0L);
+    Exception ex =
+        assertThrows(WordSearchTimeoutException.class, () -> WordSearch.create(words, options));
+    assertThat(
+        "Error message should mention the timeout", ex.getMessage(), containsString("timed out"));
+  }
+
+  @Test
+  void testCancellationStopsGeneration() {
+    List<String> words = List.of("apple", "banana", "cherry");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setCancellation(() -> true);
+    Exception ex =
+        assertThrows(WordSearchCancelledException.class, () -> WordSearch.create(words, options));
+    assertThat(
+        "Error message should mention the cancellation",
+        ex.getMessage(),
+        containsString("cancelled"));
+  }
+
+  @Test
+  void testLargeWordListPlacesEveryWord() throws Exception {
+    SplittableRandom random = new SplittableRandom(5);
+    List<String> words = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      StringBuilder word = new StringBuilder();
+      for (int j = 0; j < 8; j++) {
+        word.append((char) ('A' + random.nextInt(26)));
+      }
+      words.add(word.toString());
+    }
+    WordSearchOptions options = new WordSearchOptions();
+    options.setMaxGridSize(500);
+    options.setSeed(1L);
+    WordSearch ws = WordSearch.create(words, options);
+    assertThat("Grid should grow past the standard limit", ws.getGrid().length > 50, is(true));
+    for (String word : words) {
+      assertThat("Word should be placed: " + word, containsWord(ws.getGrid(), word), is(true));
+    }
+  }
+
+  @Test
+  void testUniqueOccurrencesKeepFillerFromRepeatingWords() throws Exception {
+    List<String> words = List.of("ab");
+    for (long seed = 0; seed < 20; seed++) {
+      WordSearchOptions options = new WordSearchOptions();
+      options.setSeed(seed);
+      options.setUniqueOccurrences(true);
+      WordSearch ws = WordSearch.create(words, options);
+      assertThat(
+          "Word should occur exactly once",
+          WordSearchSolver.solve(ws.getGrid(), words).size(),
+          is(1));
+    }
+  }
+
+  @Test
+  void testGreekAlphabetFillsGridWithGreekLetters() throws Exception {
+    WordSearchOptions options = new WordSearchOptions();
+    options.setAlphabet(Alphabet.GREEK);
+    options.setFillerStrategy(StandardFiller.LETTER_FREQUENCY);
+    WordSearch ws = WordSearch.create(List.of("λέξη", "ήλιος", "θάλασσα"), options);
+    for (String word : List.of("ΛΕΞΗ", "ΗΛΙΟΣ", "ΘΑΛΑΣΣΑ")) {
+      assertThat("Word should be placed: " + word, containsWord(ws.getGrid(), word), is(true));
+    }
+    for (char[] row : ws.getGrid()) {
+      for (char letter : row) {
+        assertThat(
+            "Cell should hold a Greek letter", Alphabet.GREEK.indexOf(letter) >= 0, is(true));
+      }
+    }
+  }
+
+  @Test
+  void testWordOutsideAlphabetIsRejected() {
+    Exception ex =
+        assertThrows(WordSearchException.class, () -> WordSearch.create(List.of("cat", "λέξη")));
+    assertThat(
+        "Error message should mention the alphabet", ex.getMessage(), containsString("alphabet"));
+  }
+
+  @Test
+  void testWordWithoutLettersIsRejected() {
+    Exception ex =
+        assertThrows(WordSearchException.class, () -> WordSearch.create(List.of("cat", "---")));
+    assertThat(
+        "Error message should name the word",
+        ex.getMessage(),
+        is("Error: Word '---' has no letters in the LATIN alphabet."));
+  }
+
+  @Test
+  void testSameSeedGivesSameGrid() throws Exception {
+    List<String> words = List.of("apple", "banana", "cherry", "grape", "lemon", "orange");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setSeed(42L);
+    WordSearch first = WordSearch.create(words, options);
+    WordSearch second = WordSearch.create(words, options);
+    options.setParallelAttempts(3);
+    WordSearch parallel = WordSearch.create(words, options);
+    assertThat("Seed should be echoed", first.getSeed(), is(42L));
+    assertThat("Same seed should give same grid", second.getGrid(), is(first.getGrid()));
+    assertThat(
+        "Parallel generation should give the sequential grid",
+        parallel.getGrid(),
+        is(first.getGrid()));
+  }
+
+  @Test
+  void testRandomStrategyPlacesWords() throws Exception {
+    List<String> words = List.of("cat", "dog", "bird");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setPlacementStrategy(WordSearch.PlacementStrategy.RANDOM);
+    WordSearch ws = WordSearch.create(words, options);
+    for (String word : words) {
+      assertThat("Grid should contain " + word, containsWord(ws.getGrid(), word), is(true));
+    }
+  }
+
+  @Test
+  void testRestrictedDirectionsAreRespected() throws Exception {
+    List<String> words = List.of("apple", "banana", "cherry", "grape", "lemon");
+    WordSearchOptions options = new WordSearchOptions();
+    options.setDirections(EnumSet.of(WordSearch.Direction.HORIZONTAL));
+    WordSearch ws = WordSearch.create(words, options);
+    for (String word : words) {
+      String upper = word.toUpperCase();
+      boolean inRow = Arrays.stream(ws.getGrid()).anyMatch(row -> new String(row).contains(upper));
+      assertThat("Word should read left to right in a row: " + word, inRow, is(true));
+    }
+  }
+
+  @Test
+  void testDefaultDirectionsReadForward() {
+    Set<WordSearch.Direction> directions = new WordSearchOptions().getDirections();
+    assertThat("Four directions should be allowed by default", directions.size(), is(4));
+    for (WordSearch.Direction direction : directions) {
+      assertThat("Reversed directions should be opt-in", direction.isReversed(), is(false));
+    }
+  }
+
+  @Test
+  void testEmptyDirectionsAreRejected() {
+    WordSearchOptions options = new WordSearchOptions();
+    assertThrows(IllegalArgumentException.class, () -> options.setDirections(Set.of()));
+  }
+
+  /** Returns true if the word appears in the grid in any of the eight directions. */
+  static boolean containsWord(char[][] grid, String word) {
+    String upper = word.toUpperCase();
+    int size = grid.length;
+    for (int row = 0; row < size; row++) {
+      for (int col = 0; col < size; col++) {
+        for (int rowStep = -1; rowStep <= 1; rowStep++) {
+          for (int colStep = -1; colStep <= 1; colStep++) {
+            if ((rowStep != 0 || colStep != 0)
+                && matchesAt(grid, upper, row, col, rowStep, colStep)) {
+              return true;
+            }
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean matchesAt(
+      char[][] grid, String word, int row, int col, int rowStep, int colStep) {
+    for (int i = 0; i < word.length(); i++) {
+      int r = row + i * rowStep;
+      int c = col + i * colStep;
+      if (r < 0 || r >= grid.length || c < 0 || c >= grid.length || grid[r][c] != word.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
 }